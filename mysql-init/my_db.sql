@@ -56,4 +56,158 @@ CREATE TABLE `user`
   AUTO_INCREMENT = 88949137860489217
   CHARACTER SET = utf8mb4
   COLLATE = utf8mb4_unicode_ci COMMENT = '用户'
-  ROW_FORMAT = DYNAMIC;
\ No newline at end of file
+  ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- 用户设备登录记录（只追加）
+-- ----------------------------
+DROP TABLE IF EXISTS `user_device_login`;
+CREATE TABLE `user_device_login`
+(
+    `id`         bigint                                                         NOT NULL COMMENT 'id',
+    `user_id`    bigint                                                         NOT NULL COMMENT '用户 id',
+    `device_id`  varchar(128) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NOT NULL COMMENT '设备指纹',
+    `ip`         varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci   NULL     DEFAULT NULL COMMENT '登录 IP',
+    `user_agent` varchar(512) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT 'User-Agent',
+    `login_time` datetime                                                       NOT NULL COMMENT '登录时间',
+    PRIMARY KEY (`id`) USING BTREE,
+    INDEX `idx_device_time` (`device_id`, `login_time`) USING BTREE,
+    INDEX `idx_user_time` (`user_id`, `login_time`) USING BTREE
+) ENGINE = InnoDB
+  CHARACTER SET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT = '用户设备登录记录'
+  ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- 安全事件（只追加）
+-- ----------------------------
+DROP TABLE IF EXISTS `security_event`;
+CREATE TABLE `security_event`
+(
+    `id`          bigint                                                         NOT NULL COMMENT 'id',
+    `event_type`  varchar(32) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci   NOT NULL COMMENT '事件类型',
+    `user_id`     bigint                                                         NULL     DEFAULT NULL COMMENT '涉及的用户 id',
+    `operator_id` bigint                                                         NULL     DEFAULT NULL COMMENT '操作人 id',
+    `ip`          varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci   NULL     DEFAULT NULL COMMENT '请求 IP',
+    `detail`      varchar(512) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT '详情',
+    `create_time` datetime                                                       NOT NULL COMMENT '发生时间',
+    PRIMARY KEY (`id`) USING BTREE,
+    INDEX `idx_user_time` (`user_id`, `create_time`) USING BTREE,
+    INDEX `idx_type_time` (`event_type`, `create_time`) USING BTREE
+) ENGINE = InnoDB
+  CHARACTER SET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT = '安全事件'
+  ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- 后台任务运行记录
+-- ----------------------------
+DROP TABLE IF EXISTS `job_run`;
+CREATE TABLE `job_run`
+(
+    `id`              bigint                                                         NOT NULL COMMENT 'id',
+    `job_name`        varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci   NOT NULL COMMENT '任务名称',
+    `status`          varchar(16) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci   NOT NULL COMMENT '运行状态',
+    `node`            varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci   NULL     DEFAULT NULL COMMENT '运行节点',
+    `processed`       bigint                                                         NOT NULL DEFAULT 0 COMMENT '已处理条数',
+    `checkpoint`      varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT '检查点',
+    `message`         varchar(512) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT '结果或错误信息',
+    `start_time`      datetime                                                       NOT NULL COMMENT '开始时间',
+    `end_time`        datetime                                                       NULL     DEFAULT NULL COMMENT '结束时间',
+    `duration_millis` bigint                                                         NULL     DEFAULT NULL COMMENT '耗时（毫秒）',
+    PRIMARY KEY (`id`) USING BTREE,
+    INDEX `idx_job_name` (`job_name`, `id`) USING BTREE
+) ENGINE = InnoDB
+  CHARACTER SET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT = '后台任务运行记录'
+  ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- 每日登录统计
+-- ----------------------------
+DROP TABLE IF EXISTS `login_daily_stat`;
+CREATE TABLE `login_daily_stat`
+(
+    `stat_date`    date     NOT NULL COMMENT '统计日期',
+    `login_count`  bigint   NOT NULL DEFAULT 0 COMMENT '登录次数',
+    `user_count`   bigint   NOT NULL DEFAULT 0 COMMENT '登录用户数',
+    `device_count` bigint   NOT NULL DEFAULT 0 COMMENT '登录设备数',
+    `update_time`  datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`stat_date`) USING BTREE
+) ENGINE = InnoDB
+  CHARACTER SET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT = '每日登录统计'
+  ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- 已归档用户
+-- ----------------------------
+DROP TABLE IF EXISTS `user_archive`;
+CREATE TABLE `user_archive`
+(
+    `id`            bigint                                                         NOT NULL COMMENT '原用户 id',
+    `user_account`  varchar(256) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NOT NULL COMMENT '账号',
+    `user_password` varchar(512) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NOT NULL COMMENT '密码',
+    `user_name`     varchar(256) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT '用户昵称',
+    `user_avatar`   varchar(1024) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL     DEFAULT NULL COMMENT '用户头像',
+    `user_profile`  varchar(512) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT '用户简介',
+    `user_role`     varchar(256) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NOT NULL COMMENT '用户角色：user/admin/ban',
+    `gender`        int                                                            NULL     DEFAULT NULL COMMENT '性别0-男、1-女',
+    `address`       varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT '地址',
+    `tags`          varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT '标签',
+    `birthday`      date                                                           NULL     DEFAULT NULL COMMENT '生日',
+    `company`       varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT '公司',
+    `position`      varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT '职位',
+    `school`        varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT '就读学校',
+    `phone`         varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT '电话',
+    `email`         varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT '邮箱',
+    `website`       varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL     DEFAULT NULL COMMENT '个人网站',
+    `update_time`   datetime                                                       NOT NULL COMMENT '更新时间（即删除时间）',
+    `create_time`   datetime                                                       NOT NULL COMMENT '创建时间',
+    `archive_time`  datetime                                                       NOT NULL COMMENT '归档时间',
+    PRIMARY KEY (`id`) USING BTREE,
+    INDEX `idx_user_account` (`user_account`) USING BTREE
+) ENGINE = InnoDB
+  CHARACTER SET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT = '已归档用户'
+  ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- 用户批量操作任务
+-- ----------------------------
+DROP TABLE IF EXISTS `user_bulk_job`;
+CREATE TABLE `user_bulk_job`
+(
+    `job_name`    varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '任务名称',
+    `action`      varchar(16) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '操作类型：ban/unban/delete',
+    `request`     mediumtext CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NOT NULL COMMENT '请求参数（JSON）',
+    `operator_id` bigint                                                       NOT NULL COMMENT '操作人 id',
+    `total`       bigint                                                       NOT NULL DEFAULT 0 COMMENT '目标用户数',
+    `finished`    tinyint                                                      NOT NULL DEFAULT 0 COMMENT '是否已完成：0-未完成、1-已完成',
+    `pending`     mediumtext CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL COMMENT '已提交但副作用未完成的一批（JSON）',
+    `create_time` datetime                                                     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` datetime                                                     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`job_name`) USING BTREE,
+    INDEX `idx_finished_create_time` (`finished`, `create_time`) USING BTREE
+) ENGINE = InnoDB
+  CHARACTER SET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT = '用户批量操作任务'
+  ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- 事件汇总（注册、登录失败、封号按小时、按天的次数）
+-- ----------------------------
+DROP TABLE IF EXISTS `event_rollup`;
+CREATE TABLE `event_rollup`
+(
+    `metric`      varchar(32) NOT NULL COMMENT '指标：register/login_failure/ban',
+    `granularity` varchar(8)  NOT NULL COMMENT '粒度：hour/day',
+    `bucket_time` datetime    NOT NULL COMMENT '时间段起点',
+    `node`        varchar(64) NOT NULL COMMENT '写入的进程（pid@host-启动时间）',
+    `event_count` bigint      NOT NULL DEFAULT 0 COMMENT '该进程在该时间段内的次数',
+    `update_time` datetime    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`metric`, `granularity`, `bucket_time`, `node`) USING BTREE
+) ENGINE = InnoDB
+  CHARACTER SET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT = '事件汇总'
+  ROW_FORMAT = DYNAMIC;
@@ -0,0 +1,78 @@
+package team.weyoung;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 对比两份 JMH JSON 结果，逐项输出得分和每次调用分配字节数（gc.alloc.rate.norm）的变化
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=team.weyoung.BenchmarkDiff
+ * -Dbenchmark.args="jmh-base.json target/jmh-result.json"
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class BenchmarkDiff {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.out.println("usage: BenchmarkDiff <base.json> <current.json>");
+            return;
+        }
+        Map<String, JsonNode> base = load(args[0]);
+        Map<String, JsonNode> current = load(args[1]);
+        System.out.printf("%-70s %14s %14s %8s %12s %12s %8s%n",
+                "benchmark", "base", "current", "change", "base B/op", "cur B/op", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode baseResult = base.get(entry.getKey());
+            JsonNode currentResult = entry.getValue();
+            double currentScore = currentResult.path("primaryMetric").path("score").asDouble();
+            double currentAlloc = alloc(currentResult);
+            if (baseResult == null) {
+                System.out.printf("%-70s %14s %14.2f %8s %12s %12.1f %8s%n",
+                        entry.getKey(), "-", currentScore, "new", "-", currentAlloc, "new");
+                continue;
+            }
+            double baseScore = baseResult.path("primaryMetric").path("score").asDouble();
+            double baseAlloc = alloc(baseResult);
+            System.out.printf("%-70s %14.2f %14.2f %8s %12.1f %12.1f %8s%n",
+                    entry.getKey(), baseScore, currentScore, change(baseScore, currentScore),
+                    baseAlloc, currentAlloc, change(baseAlloc, currentAlloc));
+        }
+        for (String name : base.keySet()) {
+            if (!current.containsKey(name)) {
+                System.out.printf("%-70s %s%n", name, "removed");
+            }
+        }
+    }
+
+    /**
+     * 以基准方法名加参数作为 key
+     */
+    private static Map<String, JsonNode> load(String path) throws Exception {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(new File(path))) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText().replace("team.weyoung.", ""));
+            result.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double alloc(JsonNode result) {
+        return result.path("secondaryMetrics").path(ALLOC_METRIC).path("score").asDouble(Double.NaN);
+    }
+
+    private static String change(double base, double current) {
+        if (Double.isNaN(base) || Double.isNaN(current) || base == 0) {
+            return "-";
+        }
+        return String.format("%+.1f%%", (current - base) * 100 / base);
+    }
+}
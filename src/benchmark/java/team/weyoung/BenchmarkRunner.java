@@ -0,0 +1,39 @@
+package team.weyoung;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JMH 启动入口，在传入的参数之外默认开启 gc 分析器（输出 gc.alloc.rate.norm 等每次调用的分配字节数），
+ * 并把结果以 JSON 写入 target/jmh-result.json；参数中已指定 -prof / -rf / -rff 时以参数为准
+ * <p>
+ * 对比两次提交的结果：先把上一次的 target/jmh-result.json 另存，再运行
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=team.weyoung.BenchmarkDiff
+ * -Dbenchmark.args="jmh-base.json target/jmh-result.json"
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class BenchmarkRunner {
+
+    private static final String RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-prof")) {
+            options.add("-prof");
+            options.add("gc");
+        }
+        if (!options.contains("-rf")) {
+            options.add("-rf");
+            options.add("json");
+        }
+        if (!options.contains("-rff")) {
+            options.add("-rff");
+            options.add(RESULT_FILE);
+        }
+        Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,54 @@
+package team.weyoung;
+
+import team.weyoung.model.entity.User;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 基准测试用的用户样本，所有字段都有值
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public final class UserFixtures {
+
+    private UserFixtures() {
+    }
+
+    public static User user(long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setUserAccount("account" + userId);
+        user.setUserName("用户" + userId);
+        user.setUserAvatar("/api/file/avatar/9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+        user.setUserRole("user");
+        user.setUserPassword("3f1c0e5e7b0a4c2f9d8e7b6a5c4d3e2f");
+        user.setUserProfile("这个人很懒，什么都没有写");
+        user.setGender(0);
+        user.setAddress("四川省成都市高新区天府大道");
+        user.setTags("[\"java\",\"spring\"]");
+        user.setBirthday(new Date());
+        user.setCompany("某某科技有限公司");
+        user.setPosition("后端开发");
+        user.setSchool("某某大学");
+        user.setPhone("13800138000");
+        user.setEmail("account" + userId + "@example.com");
+        user.setWebsite("{\"github\":\"https://github.com/account\"}");
+        user.setCreateTime(new Date());
+        user.setUpdateTime(new Date());
+        user.setIsDelete(0);
+        return user;
+    }
+
+    /**
+     * 一页用户，与列表接口的最大页大小一致
+     */
+    public static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(user(1_800_000_000_000_000_000L + i));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,48 @@
+package team.weyoung.aop;
+
+import org.openjdk.jmh.annotations.*;
+import team.weyoung.model.dto.user.UserQueryRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求日志参数渲染基准测试，每个请求都会执行一次
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="LogInterceptor"
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class LogInterceptorBenchmark {
+
+    private Object[] idArgs;
+
+    private Object[] queryArgs;
+
+    @Setup
+    public void setup() {
+        idArgs = new Object[]{1_800_000_000_000_000_000L};
+        UserQueryRequest userQueryRequest = new UserQueryRequest();
+        userQueryRequest.setPageNumber(1);
+        userQueryRequest.setPageSize(20);
+        userQueryRequest.setUserName("用户");
+        userQueryRequest.setUserRole("user");
+        queryArgs = new Object[]{userQueryRequest, "id,userName,userAvatar"};
+    }
+
+    @Benchmark
+    public String renderId() {
+        return LogInterceptor.renderArgs(idArgs);
+    }
+
+    @Benchmark
+    public String renderQuery() {
+        return LogInterceptor.renderArgs(queryArgs);
+    }
+}
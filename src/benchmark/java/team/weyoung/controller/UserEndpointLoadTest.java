@@ -0,0 +1,123 @@
+package team.weyoung.controller;
+
+import team.weyoung.manager.LatencyHistogram;
+import team.weyoung.model.vo.LatencySnapshotVO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户查询接口压测，对比 async-request.mode 在固定 Tomcat 线程数下的并发能力与 p99 延迟
+ * <p>
+ * 以固定线程数和不同模式分别启动服务，例如：
+ * java -jar app.jar --server.tomcat.threads.max=20 --async-request.mode=async
+ * <p>
+ * 每个并发级别各压测 duration 秒（闭环，每个客户端线程同时只有一个请求在途）：
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=team.weyoung.controller.UserEndpointLoadTest
+ * -Dbenchmark.args="http://localhost:8101/api /user/get/vo/batch?ids=1,2,3 {token} 16,64,256,1024 20"
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class UserEndpointLoadTest {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+
+    private static final int READ_TIMEOUT_MILLIS = 30000;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8101/api";
+        String path = args.length > 1 ? args[1] : "/user/get/vo/batch?ids=1,2,3";
+        String token = args.length > 2 ? args[2] : "";
+        String[] levels = (args.length > 3 ? args[3] : "16,64,256,1024").split(",");
+        long durationSeconds = args.length > 4 ? Long.parseLong(args[4]) : 20;
+        URL url = new URL(baseUrl + path);
+        int maxConcurrency = 0;
+        for (String level : levels) {
+            maxConcurrency = Math.max(maxConcurrency, Integer.parseInt(level.trim()));
+        }
+        // HttpURLConnection 默认每个目标只保留 5 个 keep-alive 连接
+        System.setProperty("http.maxConnections", String.valueOf(maxConcurrency));
+        System.out.printf("%s, %ds per level%n", url, durationSeconds);
+        // 预热
+        run(url, token, 16, 5);
+        for (String level : levels) {
+            run(url, token, Integer.parseInt(level.trim()), durationSeconds);
+        }
+    }
+
+    private static void run(URL url, String token, int concurrency, long durationSeconds)
+            throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + durationSeconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(concurrency);
+        List<Thread> threads = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        if (request(url, token)) {
+                            histogram.record(System.nanoTime() - start);
+                        } else {
+                            errors.increment();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        long start = System.nanoTime();
+        threads.forEach(Thread::start);
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        LatencySnapshotVO snapshot = histogram.snapshot();
+        System.out.printf("concurrency %5d: %8.1f req/s, errors %6d, avg %8.1f ms, p50 %6.1f ms, "
+                        + "p95 %6.1f ms, p99 %6.1f ms, max %7.1f ms%n",
+                concurrency, snapshot.getCount() / seconds, errors.sum(), snapshot.getAvgMicros() / 1000.0,
+                snapshot.getP50Micros() / 1000.0, snapshot.getP95Micros() / 1000.0,
+                snapshot.getP99Micros() / 1000.0, snapshot.getMaxMicros() / 1000.0);
+    }
+
+    private static boolean request(URL url, String token) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            if (!token.isEmpty()) {
+                connection.setRequestProperty("satoken", token);
+            }
+            int status = connection.getResponseCode();
+            // 读完响应体，连接才能被 keep-alive 复用
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                drain(in);
+            }
+            return status == 200;
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.disconnect();
+            }
+            return false;
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        if (in == null) {
+            return;
+        }
+        byte[] buffer = new byte[8192];
+        while (in.read(buffer) != -1) {
+            // discard
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package team.weyoung.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import team.weyoung.manager.LatencyHistogram;
+import team.weyoung.model.vo.LatencySnapshotVO;
+import team.weyoung.support.EmbeddedRedisServer;
+import team.weyoung.support.LoadTestEnvironment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户接口混合压测：按比例混合登录、获取个人信息、分页列表和更新个人信息，按接口输出吞吐和延迟分位数
+ * <p>
+ * 目标为 embedded 时在进程内启动内存 H2 和 进程内 Redis（见 {@link LoadTestEnvironment}），单机、无网络即可运行；
+ * 也可以传入已启动服务的地址。压测前注册并登录 users 个账号，每个客户端线程轮流使用这些账号（闭环，每个线程同时只有一个请求在途）：
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=team.weyoung.controller.UserMixLoadTest
+ * -Dbenchmark.args="embedded 8,32,128 20 login=5,get-my=50,list-page=30,update-my=15 200"
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class UserMixLoadTest {
+
+    private static final String EMBEDDED = "embedded";
+
+    private static final String PASSWORD = "loadtest-password";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+
+    private static final int READ_TIMEOUT_MILLIS = 30000;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private enum Operation {
+        LOGIN("login"),
+        GET_MY("get-my"),
+        LIST_PAGE("list-page"),
+        UPDATE_MY("update-my");
+
+        private final String text;
+
+        Operation(String text) {
+            this.text = text;
+        }
+
+        static Operation of(String text) {
+            for (Operation operation : values()) {
+                if (operation.text.equals(text)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("unknown operation: " + text);
+        }
+    }
+
+    private static class VirtualUser {
+
+        private final String account;
+
+        private final String deviceId;
+
+        private volatile String token;
+
+        private VirtualUser(int index) {
+            this.account = "loadtest" + index;
+            this.deviceId = "loadtest-device-" + index;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String target = args.length > 0 ? args[0] : EMBEDDED;
+        String[] levels = (args.length > 1 ? args[1] : "8,32,128").split(",");
+        long durationSeconds = args.length > 2 ? Long.parseLong(args[2]) : 20;
+        Operation[] mix = parseMix(args.length > 3 ? args[3] : "login=5,get-my=50,list-page=30,update-my=15");
+        int userCount = args.length > 4 ? Integer.parseInt(args[4]) : 200;
+        int maxConcurrency = 16;
+        for (String level : levels) {
+            maxConcurrency = Math.max(maxConcurrency, Integer.parseInt(level.trim()));
+        }
+        // HttpURLConnection 默认每个目标只保留 5 个 keep-alive 连接
+        System.setProperty("http.maxConnections", String.valueOf(maxConcurrency));
+        LoadTestEnvironment environment = EMBEDDED.equals(target) ? LoadTestEnvironment.start() : null;
+        try {
+            String baseUrl = environment != null ? environment.getBaseUrl() : target;
+            EmbeddedRedisServer redisServer = environment != null ? environment.getRedisServer() : null;
+            List<VirtualUser> users = prepareUsers(baseUrl, userCount);
+            System.out.printf("%s, %d users, %ds per level%n", baseUrl, users.size(), durationSeconds);
+            // 预热
+            run(baseUrl, users, mix, 16, 5, null);
+            for (String level : levels) {
+                run(baseUrl, users, mix, Integer.parseInt(level.trim()), durationSeconds, redisServer);
+            }
+        } finally {
+            if (environment != null) {
+                environment.close();
+            }
+        }
+    }
+
+    /**
+     * 按权重展开为 100 个槽位，压测时随机取一个
+     */
+    private static Operation[] parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        int total = 0;
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            weights.put(Operation.of(pair[0].trim()), weight);
+            total += weight;
+        }
+        List<Operation> slots = new ArrayList<>();
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            long count = Math.round(entry.getValue() * 100.0 / total);
+            for (int i = 0; i < count; i++) {
+                slots.add(entry.getKey());
+            }
+        }
+        return slots.toArray(new Operation[0]);
+    }
+
+    /**
+     * 注册（已存在时忽略）并登录压测账号
+     */
+    private static List<VirtualUser> prepareUsers(String baseUrl, int userCount) throws IOException {
+        List<VirtualUser> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            VirtualUser user = new VirtualUser(i);
+            call(baseUrl + "/user/register", null, "{\"userAccount\":\"" + user.account + "\",\"userPassword\":\""
+                    + PASSWORD + "\",\"checkPassword\":\"" + PASSWORD + "\"}");
+            if (!login(baseUrl, user)) {
+                throw new IllegalStateException("login failed for " + user.account);
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static void run(String baseUrl, List<VirtualUser> users, Operation[] mix, int concurrency,
+                            long durationSeconds, EmbeddedRedisServer redisServer) throws InterruptedException {
+        Map<Operation, LatencyHistogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new LatencyHistogram());
+            errors.put(operation, new LongAdder());
+        }
+        if (redisServer != null) {
+            redisServer.resetCommandCounts();
+        }
+        long deadline = System.nanoTime() + durationSeconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(concurrency);
+        List<Thread> threads = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int offset = i;
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int next = offset;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        VirtualUser user = users.get(next++ % users.size());
+                        Operation operation = mix[random.nextInt(mix.length)];
+                        long start = System.nanoTime();
+                        if (execute(baseUrl, operation, user, random)) {
+                            histograms.get(operation).record(System.nanoTime() - start);
+                        } else {
+                            errors.get(operation).increment();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        long start = System.nanoTime();
+        threads.forEach(Thread::start);
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long totalCount = 0;
+        long totalErrors = 0;
+        System.out.printf("concurrency %d%n", concurrency);
+        for (Operation operation : Operation.values()) {
+            LatencySnapshotVO snapshot = histograms.get(operation).snapshot();
+            long errorCount = errors.get(operation).sum();
+            totalCount += snapshot.getCount();
+            totalErrors += errorCount;
+            if (snapshot.getCount() + errorCount == 0) {
+                continue;
+            }
+            System.out.printf("  %-10s %8.1f req/s, errors %6d, avg %7.2f ms, p50 %6.1f ms, p95 %6.1f ms, "
+                            + "p99 %6.1f ms, max %7.1f ms%n",
+                    operation.text, snapshot.getCount() / seconds, errorCount, snapshot.getAvgMicros() / 1000.0,
+                    snapshot.getP50Micros() / 1000.0, snapshot.getP95Micros() / 1000.0,
+                    snapshot.getP99Micros() / 1000.0, snapshot.getMaxMicros() / 1000.0);
+        }
+        System.out.printf("  %-10s %8.1f req/s, errors %6d", "total", totalCount / seconds, totalErrors);
+        if (redisServer != null && totalCount > 0) {
+            System.out.printf(", redis commands/request %.2f", (double) redisServer.getCommandCount() / totalCount);
+        }
+        System.out.println();
+    }
+
+    private static boolean execute(String baseUrl, Operation operation, VirtualUser user, ThreadLocalRandom random) {
+        try {
+            switch (operation) {
+                case LOGIN:
+                    return login(baseUrl, user);
+                case GET_MY:
+                    return isSuccess(call(baseUrl + "/user/get/my", user.token, null));
+                case LIST_PAGE:
+                    return isSuccess(call(baseUrl + "/user/list/page/vo", user.token,
+                            "{\"pageNumber\":" + (1 + random.nextInt(5)) + ",\"pageSize\":10}"));
+                case UPDATE_MY:
+                    return isSuccess(call(baseUrl + "/user/update/my", user.token,
+                            "{\"userProfile\":\"profile " + random.nextInt(1_000_000) + "\"}"));
+                default:
+                    return false;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean login(String baseUrl, VirtualUser user) throws IOException {
+        byte[] body = call(baseUrl + "/user/login", null, "{\"userAccount\":\"" + user.account
+                + "\",\"userPassword\":\"" + PASSWORD + "\",\"deviceId\":\"" + user.deviceId + "\"}");
+        if (!isSuccess(body)) {
+            return false;
+        }
+        JsonNode token = OBJECT_MAPPER.readTree(body).path("data").path("token").path("tokenValue");
+        if (token.isMissingNode()) {
+            return false;
+        }
+        user.token = token.asText();
+        return true;
+    }
+
+    private static boolean isSuccess(byte[] body) {
+        return body != null && new String(body, StandardCharsets.UTF_8).contains("\"code\":0");
+    }
+
+    /**
+     * 有请求体时 POST，否则 GET；非 200 时返回 null
+     */
+    private static byte[] call(String url, String token, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            if (token != null) {
+                connection.setRequestProperty("satoken", token);
+            }
+            if (body != null) {
+                connection.setRequestMethod("POST");
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            // 读完响应体，连接才能被 keep-alive 复用
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                byte[] response = readAll(in);
+                return status == 200 ? response : null;
+            }
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        if (in == null) {
+            return new byte[0];
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
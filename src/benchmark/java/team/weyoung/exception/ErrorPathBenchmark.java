@@ -0,0 +1,96 @@
+package team.weyoung.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.common.Result;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 错误路径单核吞吐基准测试：被拒绝的请求从抛出异常到得到响应体的开销
+ * <p>
+ * legacy 模拟改造前：抛出带堆栈的异常、每次 log.error 格式化堆栈（用 printStackTrace 到内存代替日志输出）、
+ * 每次序列化新的 Result；fast 为当前实现：共享的无堆栈异常、限流日志、预序列化的响应体。
+ * depth 为抛出点的调用栈深度，Spring MVC 请求中业务代码的栈深通常在 100 层以上
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="ErrorPath"
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    @Param({"20", "120"})
+    private int depth;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<HttpCodeEnum, byte[]> renderedBodies = new EnumMap<>(HttpCodeEnum.class);
+
+    private final ErrorLogLimiter errorLogLimiter = new ErrorLogLimiter(10000);
+
+    @Setup
+    public void setup() throws Exception {
+        for (HttpCodeEnum httpCodeEnum : HttpCodeEnum.values()) {
+            renderedBodies.put(httpCodeEnum, objectMapper.writeValueAsBytes(Result.fail(httpCodeEnum)));
+        }
+    }
+
+    @Benchmark
+    public byte[] legacy() throws Exception {
+        try {
+            call(depth, true);
+            return null;
+        } catch (LegacyBusinessException e) {
+            StringWriter log = new StringWriter();
+            e.printStackTrace(new PrintWriter(log));
+            return objectMapper.writeValueAsBytes(Result.fail(e.code, e.getMessage()));
+        }
+    }
+
+    @Benchmark
+    public byte[] fast() {
+        try {
+            call(depth, false);
+            return null;
+        } catch (BusinessException e) {
+            errorLogLimiter.acquire(String.valueOf(e.getCode()));
+            return renderedBodies.get(e.getHttpCodeEnum());
+        }
+    }
+
+    private static void call(int remaining, boolean legacy) {
+        if (remaining > 0) {
+            call(remaining - 1, legacy);
+            return;
+        }
+        if (legacy) {
+            throw new LegacyBusinessException(HttpCodeEnum.PARAMS_ERROR);
+        }
+        ThrowUtils.throwIf(true, HttpCodeEnum.PARAMS_ERROR);
+    }
+
+    /**
+     * 改造前的业务异常：每次抛出都记录完整堆栈
+     */
+    private static class LegacyBusinessException extends RuntimeException {
+
+        private final int code;
+
+        LegacyBusinessException(HttpCodeEnum httpCodeEnum) {
+            super(httpCodeEnum.getMessage());
+            this.code = httpCodeEnum.getCode();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package team.weyoung.manager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.mybatisflex.core.paginate.Page;
+import org.openjdk.jmh.annotations.*;
+import team.weyoung.common.Result;
+import team.weyoung.model.vo.UserVO;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 用户分页列表序列化基准测试：全部字段与稀疏字段集（id,userName,userAvatar）对比
+ * <p>
+ * 序列化方式与 MappingJackson2HttpMessageConverter 一致（每次 writer().with(filters)），
+ * 启动时打印每页响应的原始字节数和 gzip 后的字节数
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="FieldSet"
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class FieldSetBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final FieldSetCache fieldSetCache = new FieldSetCache(UserVO.class);
+
+    private FieldSetCache.FieldSet fieldSet;
+
+    private Result<Page<UserVO>> fullPage;
+
+    private Result<Page<UserVO>> sparsePage;
+
+    @Setup
+    public void setup() throws Exception {
+        // 与 JsonConfig 一致
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(Long.class, ToStringSerializer.instance);
+        module.addSerializer(Long.TYPE, ToStringSerializer.instance);
+        objectMapper.registerModule(module);
+        objectMapper.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+        fieldSet = fieldSetCache.get("id,userName,userAvatar");
+        fullPage = page(false);
+        sparsePage = page(true);
+        print("full", objectMapper.writer().writeValueAsBytes(fullPage));
+        print("sparse", objectMapper.writer().with(fieldSet.getFilterProvider()).writeValueAsBytes(sparsePage));
+    }
+
+    @Benchmark
+    public byte[] full() throws Exception {
+        return objectMapper.writer().writeValueAsBytes(fullPage);
+    }
+
+    @Benchmark
+    public byte[] sparse() throws Exception {
+        return objectMapper.writer().with(fieldSetCache.get("id,userName,userAvatar").getFilterProvider())
+                .writeValueAsBytes(sparsePage);
+    }
+
+    /**
+     * 稀疏查询只查选中的列，其余字段为 null
+     */
+    private static Result<Page<UserVO>> page(boolean sparse) {
+        List<UserVO> records = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            UserVO userVO = new UserVO();
+            userVO.setId(1_800_000_000_000_000_000L + i);
+            userVO.setUserName("用户" + i);
+            userVO.setUserAvatar("https://cdn.example.com/avatar/" + i + ".png");
+            if (!sparse) {
+                userVO.setUserProfile("这个人很懒，什么都没有留下");
+                userVO.setUserRole("user");
+                userVO.setUserAccount("account" + i);
+                userVO.setGender(i % 2);
+                userVO.setAddress("浙江省杭州市****");
+                userVO.setTags("[\"java\",\"风控\"]");
+                userVO.setBirthday(new Date(946684800000L));
+                userVO.setCompany("某某科技有限公司");
+                userVO.setPosition("后端开发");
+                userVO.setSchool("某某大学");
+                userVO.setPhone("138****" + String.format("%04d", i));
+                userVO.setEmail("u****" + i + "@example.com");
+                userVO.setWebsite("{\"github\":\"https://github.com/user" + i + "\"}");
+                userVO.setCreateTime(new Date(1700000000000L));
+            }
+            records.add(userVO);
+        }
+        Page<UserVO> page = new Page<>(1, PAGE_SIZE, 1000);
+        page.setRecords(records);
+        return Result.success(page);
+    }
+
+    private static void print(String name, byte[] body) throws Exception {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(body);
+        }
+        System.out.printf("%-6s page of %d: %6d B, gzip %5d B%n", name, PAGE_SIZE, body.length, gzipped.size());
+    }
+}
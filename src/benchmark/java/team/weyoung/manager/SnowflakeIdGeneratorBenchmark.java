@@ -0,0 +1,59 @@
+package team.weyoung.manager;
+
+import com.mybatisflex.core.keygen.impl.SnowFlakeIDKeyGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 雪花 ID 生成吞吐基准测试：MyBatis-Flex 内置实现（synchronized）与无锁实现在多线程下的对比
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="SnowflakeIdGenerator -t 8"
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class SnowflakeIdGeneratorBenchmark {
+
+    private SnowFlakeIDKeyGenerator flexGenerator;
+
+    private SnowflakeIdGenerator blockGenerator;
+
+    private SnowflakeIdGenerator singleGenerator;
+
+    @Setup
+    public void setup() {
+        flexGenerator = new SnowFlakeIDKeyGenerator();
+        blockGenerator = new SnowflakeIdGenerator(1577808000000L, 16);
+        blockGenerator.setWorker(1, Long.MAX_VALUE);
+        singleGenerator = new SnowflakeIdGenerator(1577808000000L, 1);
+        singleGenerator.setWorker(1, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long flexSynchronized() {
+        return flexGenerator.nextId();
+    }
+
+    @Benchmark
+    public long lockFreeWithThreadBlocks() {
+        return blockGenerator.nextId();
+    }
+
+    @Benchmark
+    public long lockFreeWithoutThreadBlocks() {
+        return singleGenerator.nextId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public long[] batchPreallocation() {
+        return blockGenerator.nextIds(1000);
+    }
+}
@@ -0,0 +1,49 @@
+package team.weyoung.satoken;
+
+import cn.dev33.satoken.session.SaSession;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话编解码基准测试：legacy 为升级前的 JSON + 完整 User，compact 为 Smile 二进制 + 精简 User
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="SessionCodec -prof gc"
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionCodecBenchmark {
+
+    @Param({"legacy", "compact"})
+    private String codecName;
+
+    private SessionCodec codec;
+
+    private SaSession session;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        codec = SessionFixtures.codec(codecName);
+        session = SessionFixtures.session(88949137860489217L, "legacy".equals(codecName));
+        encoded = codec.encode(session);
+        System.out.println(codecName + " encoded session size: " + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(session);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.decode(encoded);
+    }
+}
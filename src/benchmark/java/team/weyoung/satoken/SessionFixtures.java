@@ -0,0 +1,49 @@
+package team.weyoung.satoken;
+
+import cn.dev33.satoken.session.SaSession;
+import team.weyoung.UserFixtures;
+import team.weyoung.model.entity.User;
+
+import java.util.UUID;
+
+/**
+ * 基准测试用的会话样本
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+final class SessionFixtures {
+
+    private SessionFixtures() {
+    }
+
+    /**
+     * 与线上一致的账号会话：一个登录用户、两个设备的 token
+     *
+     * @param fullUser true 时模拟升级前在会话中保存完整 User 实体的做法
+     */
+    static SaSession session(long userId, boolean fullUser) {
+        SaSession session = new SaSession("satoken:login:session:" + userId);
+        session.addTokenSign(UUID.randomUUID().toString(), "default-device");
+        session.addTokenSign(UUID.randomUUID().toString(), "default-device");
+        session.set("user", fullUser ? fullUser(userId) : slimUser(userId));
+        return session;
+    }
+
+    static User slimUser(long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setUserAccount("account" + userId);
+        user.setUserName("用户" + userId);
+        user.setUserAvatar("/api/file/avatar/9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+        user.setUserRole("user");
+        return user;
+    }
+
+    static User fullUser(long userId) {
+        return UserFixtures.user(userId);
+    }
+
+    static SessionCodec codec(String name) {
+        return "legacy".equals(name) ? new JacksonSessionCodec() : new CompactSessionCodec();
+    }
+}
@@ -0,0 +1,93 @@
+package team.weyoung.satoken;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 会话读写延迟与 Redis 内存占用对比，需要本地 Redis
+ * <p>
+ * 对每种编码写入 10 万个会话，统计 used_memory 增量以及 SET/GET（含编解码）的平均和 p99 延迟，结束后删除写入的 key
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=team.weyoung.satoken.SessionRedisBenchmark
+ * -Dbenchmark.args="redis://localhost:6379/15"
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class SessionRedisBenchmark {
+
+    private static final int SESSION_COUNT = 100_000;
+
+    private static final long TIMEOUT_SECONDS = 3600;
+
+    public static void main(String[] args) {
+        String uri = args.length > 0 ? args[0] : "redis://localhost:6379/15";
+        RedisClient client = RedisClient.create(uri);
+        try (StatefulRedisConnection<byte[], byte[]> connection = client.connect(ByteArrayCodec.INSTANCE)) {
+            RedisCommands<byte[], byte[]> commands = connection.sync();
+            for (String codecName : new String[]{"legacy", "compact"}) {
+                run(commands, codecName);
+            }
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    private static void run(RedisCommands<byte[], byte[]> commands, String codecName) {
+        SessionCodec codec = SessionFixtures.codec(codecName);
+        boolean fullUser = "legacy".equals(codecName);
+        String prefix = "benchmark:" + codecName + ":session:";
+        long memoryBefore = usedMemory(commands);
+        long[] setNanos = new long[SESSION_COUNT];
+        long totalBytes = 0;
+        for (int i = 0; i < SESSION_COUNT; i++) {
+            long start = System.nanoTime();
+            byte[] value = codec.encode(SessionFixtures.session(i, fullUser));
+            commands.setex(key(prefix, i), TIMEOUT_SECONDS, value);
+            setNanos[i] = System.nanoTime() - start;
+            totalBytes += value.length;
+        }
+        long memoryAfter = usedMemory(commands);
+        long[] getNanos = new long[SESSION_COUNT];
+        for (int i = 0; i < SESSION_COUNT; i++) {
+            long start = System.nanoTime();
+            codec.decode(commands.get(key(prefix, i)));
+            getNanos[i] = System.nanoTime() - start;
+        }
+        for (int i = 0; i < SESSION_COUNT; i++) {
+            commands.del(key(prefix, i));
+        }
+        System.out.printf("%-8s value: %5d B/session, redis memory: %7.2f MB per 100k sessions, "
+                        + "set avg/p99: %6.1f/%6.1f us, get avg/p99: %6.1f/%6.1f us%n",
+                codecName, totalBytes / SESSION_COUNT, (memoryAfter - memoryBefore) / 1024.0 / 1024.0,
+                average(setNanos) / 1000.0, percentile(setNanos, 0.99) / 1000.0,
+                average(getNanos) / 1000.0, percentile(getNanos, 0.99) / 1000.0);
+    }
+
+    private static byte[] key(String prefix, int i) {
+        return (prefix + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long usedMemory(RedisCommands<byte[], byte[]> commands) {
+        for (String line : commands.info("memory").split("\r\n")) {
+            if (line.startsWith("used_memory:")) {
+                return Long.parseLong(line.substring("used_memory:".length()).trim());
+            }
+        }
+        return 0;
+    }
+
+    private static double average(long[] values) {
+        return Arrays.stream(values).average().orElse(0);
+    }
+
+    private static long percentile(long[] values, double percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,63 @@
+package team.weyoung.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybatisflex.core.paginate.Page;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import team.weyoung.UserFixtures;
+import team.weyoung.common.Result;
+import team.weyoung.config.JsonConfig;
+import team.weyoung.model.entity.User;
+import team.weyoung.model.vo.UserVO;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户列表接口的映射与序列化基准测试：getUserVO(List) 和 JsonConfig 的 ObjectMapper 序列化一页 Result&lt;Page&lt;UserVO&gt;&gt;
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="UserVOMapping"
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class UserVOMappingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * getUserVO 只做属性复制，不依赖注入的组件
+     */
+    private final UserServiceImpl userService = new UserServiceImpl();
+
+    private ObjectMapper objectMapper;
+
+    private List<User> users;
+
+    private Result<Page<UserVO>> page;
+
+    @Setup
+    public void setup() {
+        objectMapper = new JsonConfig().jacksonObjectMapper(new Jackson2ObjectMapperBuilder());
+        users = UserFixtures.users(PAGE_SIZE);
+        Page<UserVO> userVOPage = new Page<>(1, PAGE_SIZE, 1000);
+        userVOPage.setRecords(userService.getUserVO(users));
+        page = Result.success(userVOPage);
+    }
+
+    @Benchmark
+    public List<UserVO> getUserVO() {
+        return userService.getUserVO(users);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,89 @@
+package team.weyoung.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import team.weyoung.UserFixtures;
+import team.weyoung.model.entity.User;
+import team.weyoung.model.enums.UserRoleEnum;
+import team.weyoung.model.vo.UserVO;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 工具方法基准测试：对象复制、客户端 IP 解析、排序字段校验和角色枚举查找
+ * <p>
+ * getIpAddressLoopback 为 remoteAddr 是 127.0.0.1 的情况（本机反向代理未带 x-forwarded-for 时），会查询本机地址
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="UtilsBenchmark"
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class UtilsBenchmark {
+
+    private User user;
+
+    private List<User> users;
+
+    private MockHttpServletRequest forwardedRequest;
+
+    private MockHttpServletRequest directRequest;
+
+    private MockHttpServletRequest loopbackRequest;
+
+    @Setup
+    public void setup() {
+        user = UserFixtures.user(1L);
+        users = UserFixtures.users(20);
+        forwardedRequest = new MockHttpServletRequest();
+        forwardedRequest.addHeader("x-forwarded-for", "203.0.113.7, 198.51.100.20, 10.0.0.1");
+        forwardedRequest.setRemoteAddr("10.0.0.1");
+        directRequest = new MockHttpServletRequest();
+        directRequest.setRemoteAddr("203.0.113.7");
+        loopbackRequest = new MockHttpServletRequest();
+        loopbackRequest.setRemoteAddr("127.0.0.1");
+    }
+
+    @Benchmark
+    public UserVO copy() {
+        return CopyUtil.copy(user, UserVO.class);
+    }
+
+    @Benchmark
+    public List<UserVO> copyList() {
+        return CopyUtil.copyList(users, UserVO.class);
+    }
+
+    @Benchmark
+    public String getIpAddressForwarded() {
+        return NetUtils.getIpAddress(forwardedRequest);
+    }
+
+    @Benchmark
+    public String getIpAddressDirect() {
+        return NetUtils.getIpAddress(directRequest);
+    }
+
+    @Benchmark
+    public String getIpAddressLoopback() {
+        return NetUtils.getIpAddress(loopbackRequest);
+    }
+
+    @Benchmark
+    public boolean validSortField() {
+        return SqlUtils.validSortField("createTime") & SqlUtils.validSortField("id desc");
+    }
+
+    @Benchmark
+    public UserRoleEnum getEnumByValue() {
+        UserRoleEnum hit = UserRoleEnum.getEnumByValue("admin");
+        return UserRoleEnum.getEnumByValue("unknown") == null ? hit : null;
+    }
+}
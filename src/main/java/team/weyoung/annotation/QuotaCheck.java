@@ -0,0 +1,23 @@
+package team.weyoung.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 每日配额校验
+ * <p>
+ * 按登录用户（未登录按 IP）和角色计数，上限见 quota.limits，管理员不限额
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QuotaCheck {
+
+    /**
+     * 配额资源名，对应 quota.limits 下的 key
+     */
+    String value();
+}
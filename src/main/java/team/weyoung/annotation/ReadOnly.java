@@ -0,0 +1,18 @@
+package team.weyoung.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 只读方法，方法内的查询路由到从库
+ * <p>
+ * 未配置从库、处于读写事务中或通过 {@link team.weyoung.manager.ReplicaRoutingContext#primary} 强制主库时仍走主库
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnly {
+}
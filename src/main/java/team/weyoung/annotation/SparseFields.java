@@ -0,0 +1,23 @@
+package team.weyoung.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 支持稀疏字段集的接口，响应中的 UserVO 只输出请求参数 fields 指定的字段
+ * <p>
+ * 见 {@link team.weyoung.aop.SparseFieldsAdvice}，接口自身负责按字段集裁剪查询列
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SparseFields {
+
+    /**
+     * 字段集参数名
+     */
+    String value() default "fields";
+}
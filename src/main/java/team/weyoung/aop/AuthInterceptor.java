@@ -53,6 +53,10 @@ public class AuthInterceptor {
         HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
         // Current logged in user
         User loginUser = userService.getLoginUser(request);
+        // A banned caller is rejected whatever the required role is
+        if (UserRoleEnum.BAN.getValue().equals(loginUser.getUserRole())) {
+            throw new BusinessException(HttpCodeEnum.NO_AUTH_ERROR);
+        }
         // The user must have this role to pass
         if (StringUtils.isNotBlank(mustRole)) {
             UserRoleEnum mustUserRoleEnum = UserRoleEnum.getEnumByValue(mustRole);
@@ -1,6 +1,7 @@
 package team.weyoung.aop;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -37,18 +38,32 @@ public class LogInterceptor {
         String requestId = UUID.randomUUID().toString();
         String url = httpServletRequest.getRequestURI();
         // 获取请求参数
-        Object[] args = point.getArgs();
-        String reqParam = "[" + StringUtils.join(args, ", ") + "]";
+        String reqParam = renderArgs(point.getArgs());
         // 输出请求日志
         log.info("request start，id: {}, path: {}, ip: {}, params: {}", requestId, url,
                 httpServletRequest.getRemoteHost(), reqParam);
         // 执行原方法
         Object result = point.proceed();
+        // 异步接口在结果完成时再输出响应日志
+        if (result instanceof CompletableFuture) {
+            ((CompletableFuture<?>) result).whenComplete((value, e) -> {
+                stopWatch.stop();
+                log.info("request end, id: {}, cost: {}ms", requestId, stopWatch.getTotalTimeMillis());
+            });
+            return result;
+        }
         // 输出响应日志
         stopWatch.stop();
         long totalTimeMillis = stopWatch.getTotalTimeMillis();
         log.info("request end, id: {}, cost: {}ms", requestId, totalTimeMillis);
         return result;
     }
+
+    /**
+     * 渲染请求参数，每个请求都会执行一次
+     */
+    static String renderArgs(Object[] args) {
+        return "[" + StringUtils.join(args, ", ") + "]";
+    }
 }
 
@@ -0,0 +1,61 @@
+package team.weyoung.aop;
+
+import cn.dev33.satoken.stp.StpUtil;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import team.weyoung.annotation.QuotaCheck;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.constant.UserConstant;
+import team.weyoung.exception.ThrowUtils;
+import team.weyoung.manager.QuotaManager;
+import team.weyoung.model.entity.User;
+import team.weyoung.service.UserService;
+import team.weyoung.utils.NetUtils;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 每日配额校验 AOP
+ * <p>
+ * 登录用户按用户 id 和角色计数，未登录按 IP 以访客角色计数；判断和计数都在本地完成，不访问 Redis
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Aspect
+@Component
+public class QuotaInterceptor {
+
+    private static final String IP_SUBJECT_PREFIX = "ip:";
+
+    @Resource
+    private UserService userService;
+
+    @Resource
+    private QuotaManager quotaManager;
+
+    @Around("@annotation(quotaCheck)")
+    public Object doInterceptor(ProceedingJoinPoint joinPoint, QuotaCheck quotaCheck) throws Throwable {
+        String subject;
+        String role;
+        if (StpUtil.isLogin()) {
+            long userId = StpUtil.getLoginIdAsLong();
+            // 用户走本地缓存
+            User user = userService.getById(userId);
+            subject = String.valueOf(userId);
+            role = user == null ? UserConstant.DEFAULT_ROLE : user.getUserRole();
+        } else {
+            HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
+                    .getRequest();
+            subject = IP_SUBJECT_PREFIX + NetUtils.getIpAddress(request);
+            role = UserConstant.GUEST_ROLE;
+        }
+        boolean allowed = quotaManager.tryAcquire(quotaCheck.value(), subject, role);
+        ThrowUtils.throwIf(!allowed, HttpCodeEnum.QUOTA_EXCEEDED_ERROR);
+        return joinPoint.proceed();
+    }
+}
@@ -0,0 +1,31 @@
+package team.weyoung.aop;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import team.weyoung.manager.ReplicaRoutingContext;
+
+/**
+ * 只读方法路由 AOP，见 {@link team.weyoung.annotation.ReadOnly}
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Aspect
+@Component
+public class ReadOnlyInterceptor {
+
+    @Around("@annotation(team.weyoung.annotation.ReadOnly)")
+    public Object doInterceptor(ProceedingJoinPoint joinPoint) throws Throwable {
+        // 嵌套调用时由最外层清除
+        if (ReplicaRoutingContext.isReadOnly()) {
+            return joinPoint.proceed();
+        }
+        ReplicaRoutingContext.setReadOnly(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingContext.setReadOnly(false);
+        }
+    }
+}
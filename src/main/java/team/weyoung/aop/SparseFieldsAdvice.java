@@ -0,0 +1,50 @@
+package team.weyoung.aop;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+import team.weyoung.annotation.SparseFields;
+import team.weyoung.manager.FieldSetCache;
+
+import javax.annotation.Resource;
+
+/**
+ * 稀疏字段集响应处理，见 {@link SparseFields}
+ * <p>
+ * 序列化时使用字段集缓存中预先生成的过滤器，未选中的字段直接跳过，不再输出 null
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@RestControllerAdvice
+public class SparseFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Resource
+    private FieldSetCache userVOFieldSetCache;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && returnType.hasMethodAnnotation(SparseFields.class);
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest)) {
+            return;
+        }
+        SparseFields sparseFields = returnType.getMethodAnnotation(SparseFields.class);
+        String fields = ((ServletServerHttpRequest) request).getServletRequest().getParameter(sparseFields.value());
+        // 参数已在接口内校验过，通常直接命中缓存
+        FieldSetCache.FieldSet fieldSet = userVOFieldSetCache.get(fields);
+        if (fieldSet != null) {
+            bodyContainer.setFilters(fieldSet.getFilterProvider());
+        }
+    }
+}
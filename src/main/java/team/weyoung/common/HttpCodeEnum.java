@@ -23,6 +23,8 @@ public enum HttpCodeEnum {
 
     FORBIDDEN_ERROR(40300, "禁止访问"),
 
+    QUOTA_EXCEEDED_ERROR(42900, "今日访问次数已达上限"),
+
     SYSTEM_ERROR(50000, "系统内部异常"),
 
     OPERATION_ERROR(50001, "操作失败"),
@@ -0,0 +1,46 @@
+package team.weyoung.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 活跃用户统计配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "analytics")
+@Data
+public class AnalyticsConfig {
+
+    /**
+     * 是否统计活跃用户和独立 IP
+     */
+    private boolean enabled = true;
+
+    /**
+     * 本地去重后的活跃记录刷新到 Redis 的间隔（毫秒）
+     */
+    private long flushIntervalMillis = 10000;
+
+    /**
+     * 待刷新记录的缓冲区容量，满时丢弃并计数
+     */
+    private int queueCapacity = 65536;
+
+    /**
+     * 按小时统计的保留天数
+     */
+    private int hourRetentionDays = 3;
+
+    /**
+     * 按天统计（含每个账号的独立 IP）的保留天数
+     */
+    private int dayRetentionDays = 40;
+
+    /**
+     * 按月统计的保留天数
+     */
+    private int monthRetentionDays = 400;
+}
@@ -0,0 +1,41 @@
+package team.weyoung.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 已删除用户归档配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "archive")
+@Data
+public class ArchiveConfig {
+
+    /**
+     * 逻辑删除的用户保留天数，超过后移入归档表
+     */
+    private int retentionDays = 30;
+
+    /**
+     * 每个事务最多归档的用户数
+     */
+    private int batchSize = 200;
+
+    /**
+     * 是否启用已归档账号的布隆过滤器，关闭后注册时每次都查询归档表
+     */
+    private boolean tombstoneEnabled = true;
+
+    /**
+     * 布隆过滤器预期元素数，重建时不小于已归档账号数的 2 倍
+     */
+    private long tombstoneExpectedInsertions = 1000000;
+
+    /**
+     * 布隆过滤器误判率
+     */
+    private double tombstoneFpp = 0.001;
+}
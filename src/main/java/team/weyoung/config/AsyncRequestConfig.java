@@ -0,0 +1,47 @@
+package team.weyoung.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 异步请求配置
+ * <p>
+ * I/O 密集的用户查询接口返回 CompletableFuture，实际执行位置由 mode 决定：
+ * sync 在 Tomcat 线程内直接执行；async 交给独立线程池，Tomcat 线程提交后立即归还；
+ * virtual 每个请求一个虚拟线程（需 JDK 21，低版本 JDK 自动退化为 async）
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "async-request")
+@Data
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    /**
+     * 执行模式：sync/async/virtual
+     */
+    private String mode = "sync";
+
+    /**
+     * 异步请求超时时间（毫秒）
+     */
+    private long timeoutMillis = 10000;
+
+    /**
+     * async 模式线程池大小，应与数据库连接池、Redis 并发能力匹配
+     */
+    private int poolSize = 64;
+
+    /**
+     * async 模式排队上限，超出后由提交线程（Tomcat 线程）自己执行
+     */
+    private int queueCapacity = 2000;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(timeoutMillis);
+    }
+}
@@ -0,0 +1,39 @@
+package team.weyoung.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 头像配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "file.avatar")
+@Data
+public class AvatarConfig {
+
+    /**
+     * 头像大小上限（字节）
+     */
+    private long maxSize = 2 * 1024 * 1024;
+
+    /**
+     * 原图像素数上限（宽 × 高），解码前检查
+     */
+    private long maxPixels = 4096 * 4096;
+
+    /**
+     * 缩略图边长（像素）
+     */
+    private List<Integer> thumbnailSizes = Arrays.asList(64, 128, 256);
+
+    /**
+     * 头像访问地址前缀
+     */
+    private String urlPrefix = "/api/file/avatar/";
+}
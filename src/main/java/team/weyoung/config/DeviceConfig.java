@@ -0,0 +1,61 @@
+package team.weyoung.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import team.weyoung.manager.AsyncBatchWriter;
+import team.weyoung.mapper.UserDeviceLoginMapper;
+import team.weyoung.model.entity.UserDeviceLogin;
+
+/**
+ * 登录设备配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "device")
+@Data
+public class DeviceConfig {
+
+    /**
+     * 风险统计窗口（分钟）
+     */
+    private long windowMinutes = 60;
+
+    /**
+     * 窗口内同一设备登录的账号数达到该值视为风险设备
+     */
+    private int riskAccountThreshold = 30;
+
+    /**
+     * 是否拒绝风险设备登录新账号（已登录过的账号不受影响）
+     */
+    private boolean blockRiskyLogin = false;
+
+    /**
+     * 本地最多跟踪的设备数，超出后淘汰最久未登录的设备
+     */
+    private long trackerMaximumSize = 100000;
+
+    /**
+     * 每个设备最多记录的账号数
+     */
+    private int maxAccountsPerDevice = 1000;
+
+    /**
+     * 登录记录写入队列容量
+     */
+    private int writerQueueCapacity = 50000;
+
+    /**
+     * 登录记录每批写入条数
+     */
+    private int writerBatchSize = 500;
+
+    @Bean
+    public AsyncBatchWriter<UserDeviceLogin> deviceLoginWriter(UserDeviceLoginMapper userDeviceLoginMapper) {
+        return new AsyncBatchWriter<>("device-login", writerQueueCapacity, writerBatchSize,
+                userDeviceLoginMapper::insertBatch);
+    }
+}
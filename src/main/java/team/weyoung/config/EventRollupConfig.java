@@ -0,0 +1,36 @@
+package team.weyoung.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 事件时间序列汇总配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "event-rollup")
+@Data
+public class EventRollupConfig {
+
+    /**
+     * 是否统计注册、登录失败、封号次数
+     */
+    private boolean enabled = true;
+
+    /**
+     * 内存中保留的分钟数，按分钟查询的最大范围；刷新间隔必须远小于它
+     */
+    private int ringMinutes = 180;
+
+    /**
+     * 已结束的分钟累加到小时、天汇总表的间隔（毫秒）
+     */
+    private long flushIntervalMillis = 60000;
+
+    /**
+     * 单次查询返回的最大时间段数
+     */
+    private int maxQueryBuckets = 1000;
+}
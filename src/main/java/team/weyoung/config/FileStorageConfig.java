@@ -0,0 +1,60 @@
+package team.weyoung.config;
+
+import io.minio.MinioClient;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 文件存储配置
+ * <p>
+ * type 为 minio 时使用 MinIO 对象存储，为 local 时使用本地文件系统（开发、测试环境）
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "file.storage")
+@Data
+public class FileStorageConfig {
+
+    /**
+     * 存储类型：local/minio
+     */
+    private String type = "local";
+
+    /**
+     * 本地存储根目录
+     */
+    private String localPath = "./data/files";
+
+    /**
+     * MinIO 地址
+     */
+    private String endpoint;
+
+    /**
+     * MinIO accessKey
+     */
+    private String accessKey;
+
+    /**
+     * MinIO secretKey
+     */
+    private String secretKey;
+
+    /**
+     * 存储桶
+     */
+    private String bucket = "anti-fraud";
+
+    @Bean
+    @ConditionalOnProperty(prefix = "file.storage", name = "type", havingValue = "minio")
+    public MinioClient minioClient() {
+        return MinioClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .build();
+    }
+}
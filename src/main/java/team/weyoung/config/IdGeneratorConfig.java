@@ -0,0 +1,61 @@
+package team.weyoung.config;
+
+import com.mybatisflex.core.keygen.KeyGeneratorFactory;
+import com.mybatisflex.spring.boot.MyBatisFlexCustomizer;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import team.weyoung.manager.IdWorkerLease;
+import team.weyoung.manager.SnowflakeIdGenerator;
+
+/**
+ * ID 生成配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "id-generator")
+@Data
+public class IdGeneratorConfig {
+
+    /**
+     * 固定 workerId（0-1023），小于 0 时启动时从 Redis 租用
+     */
+    private int workerId = -1;
+
+    /**
+     * 起始时间戳，与 MyBatis-Flex 内置雪花算法保持一致，保证新旧 id 有序
+     */
+    private long epoch = 1577808000000L;
+
+    /**
+     * 每个线程一次预留的序列号个数
+     */
+    private int blockSize = 16;
+
+    /**
+     * workerId 租约时长（毫秒）
+     */
+    private long leaseTtlMillis = 60000;
+
+    /**
+     * 续期间隔（毫秒）
+     */
+    private long renewIntervalMillis = 20000;
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(IdWorkerLease idWorkerLease) {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(epoch, blockSize);
+        idWorkerLease.start(generator);
+        return generator;
+    }
+
+    /**
+     * 在 SqlSessionFactory 创建前注册主键生成器
+     */
+    @Bean
+    public MyBatisFlexCustomizer snowflakeKeyGeneratorCustomizer(SnowflakeIdGenerator snowflakeIdGenerator) {
+        return globalConfig -> KeyGeneratorFactory.register(SnowflakeIdGenerator.NAME, snowflakeIdGenerator);
+    }
+}
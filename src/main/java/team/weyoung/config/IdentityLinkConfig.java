@@ -0,0 +1,41 @@
+package team.weyoung.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 关联账号检测配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "identity-link")
+@Data
+public class IdentityLinkConfig {
+
+    /**
+     * 启动后是否在后台从用户表重建索引
+     */
+    private boolean rebuildOnStartup = true;
+
+    /**
+     * 重建时每批读取的用户数
+     */
+    private int batchSize = 1000;
+
+    /**
+     * 重建时加载最近多少小时的设备登录记录
+     */
+    private long deviceLookbackHours = 24;
+
+    /**
+     * 每个用户在索引中保留的最近设备数
+     */
+    private int maxDevicesPerUser = 20;
+
+    /**
+     * 查询关联账号时最多返回的个数
+     */
+    private int maxLinkedResults = 200;
+}
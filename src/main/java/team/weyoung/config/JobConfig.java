@@ -0,0 +1,88 @@
+package team.weyoung.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 后台任务配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job")
+@Data
+public class JobConfig {
+
+    /**
+     * 是否按 cron 定时运行任务，关闭后仍可手动触发
+     */
+    private boolean enabled = true;
+
+    /**
+     * 任务名称 -> cron 表达式，未配置的任务不定时运行
+     */
+    private Map<String, String> cron = new HashMap<>();
+
+    /**
+     * 调度线程数，不同任务可以并行
+     */
+    private int poolSize = 2;
+
+    /**
+     * 任务租约有效期（毫秒），持有者宕机后最多这么久其他节点可以接管
+     */
+    private long leaseTtlMillis = 60000;
+
+    /**
+     * 租约续期间隔（毫秒）
+     */
+    private long renewIntervalMillis = 20000;
+
+    /**
+     * 每批处理条数
+     */
+    private int chunkSize = 500;
+
+    /**
+     * 每批之间的固定间隔（毫秒）
+     */
+    private long chunkPauseMillis = 50;
+
+    /**
+     * 连接池活跃连接占比超过该值或有线程在等待连接时暂停处理
+     */
+    private double maxPoolUsage = 0.5;
+
+    /**
+     * 连接池繁忙时单次最长暂停（毫秒），超过后继续处理一批，避免任务饿死
+     */
+    private long maxThrottleMillis = 5000;
+
+    /**
+     * 会话清理时回看多少小时内删除的用户，应大于任务间隔
+     */
+    private long sessionLookbackHours = 25;
+
+    /**
+     * 首次汇总登录统计时回补的天数
+     */
+    private int statBackfillDays = 7;
+
+    /**
+     * 后台任务调度线程池，停机时中断运行中的任务，任务从检查点恢复
+     */
+    @Bean
+    public ThreadPoolTaskScheduler jobTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("job-");
+        scheduler.setDaemon(true);
+        return scheduler;
+    }
+}
@@ -2,10 +2,13 @@ package team.weyoung.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import org.springframework.boot.jackson.JsonComponent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import team.weyoung.manager.FieldSetCache;
+import team.weyoung.model.vo.UserVO;
 
 /**
  * Spring MVC Json 配置
@@ -25,6 +28,16 @@ public class JsonConfig {
         module.addSerializer(Long.class, ToStringSerializer.instance);
         module.addSerializer(Long.TYPE, ToStringSerializer.instance);
         objectMapper.registerModule(module);
+        // 标注了 @JsonFilter 的视图在未指定字段集时输出全部字段
+        objectMapper.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
         return objectMapper;
     }
+
+    /**
+     * UserVO 稀疏字段集
+     */
+    @Bean
+    public FieldSetCache userVOFieldSetCache() {
+        return new FieldSetCache(UserVO.class);
+    }
 }
\ No newline at end of file
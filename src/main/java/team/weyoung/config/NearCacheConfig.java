@@ -0,0 +1,51 @@
+package team.weyoung.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 本地近端缓存配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "near-cache")
+@Data
+public class NearCacheConfig {
+
+    /**
+     * 是否开启 Sa-Token 近端缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 字符串值（token -> loginId 等）缓存时间（毫秒）
+     */
+    private long valueTtlMillis = 5000;
+
+    /**
+     * 不存在的 key（无效 token）缓存时间（毫秒）
+     */
+    private long missTtlMillis = 30000;
+
+    /**
+     * 会话对象缓存时间（毫秒）
+     */
+    private long objectTtlMillis = 2000;
+
+    /**
+     * 每类缓存的最大条目数
+     */
+    private long maximumSize = 100000;
+
+    /**
+     * 是否通过 Redis 发布订阅收发集群失效通知，关闭后各节点只依赖本地过期
+     */
+    private boolean pubSubEnabled = true;
+
+    /**
+     * 集群失效通知频道
+     */
+    private String channel = "anti-fraud:near-cache:invalidate";
+}
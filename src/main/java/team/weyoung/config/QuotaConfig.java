@@ -0,0 +1,44 @@
+package team.weyoung.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 每日配额配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "quota")
+@Data
+public class QuotaConfig {
+
+    /**
+     * 是否开启配额校验
+     */
+    private boolean enabled = true;
+
+    /**
+     * 本地计数刷新到 Redis 的间隔（毫秒），多节点下最多超出 节点数 × 间隔内的请求数
+     */
+    private long flushIntervalMillis = 1000;
+
+    /**
+     * 资源 -> 角色 -> 每日上限，未配置的角色不限额
+     */
+    private Map<String, Map<String, Long>> limits = new HashMap<>();
+
+    /**
+     * 获取资源对指定角色的每日上限
+     *
+     * @return 不限额时返回 null
+     */
+    public Long getLimit(String resource, String role) {
+        Map<String, Long> roleLimits = limits.get(resource);
+        return roleLimits == null ? null : roleLimits.get(role);
+    }
+}
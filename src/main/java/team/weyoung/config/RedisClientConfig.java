@@ -0,0 +1,100 @@
+package team.weyoung.config;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import lombok.Data;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.data.redis.ClientResourcesBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import team.weyoung.manager.RedisLatencyRecorder;
+
+import java.time.Duration;
+
+/**
+ * Redis 客户端（Lettuce）配置
+ * <p>
+ * shared 模式下所有请求复用一条原生连接，Lettuce 会把并发命令自动流水线化，适合大多数短命令；
+ * pool 模式下每个操作从连接池借用独立连接，适合存在慢命令、需要隔离的场景。
+ * 两种模式都使用较短的命令超时，并在断连时直接拒绝命令，避免 Redis 故障时拖住 Tomcat 线程
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "redis.client")
+@Data
+public class RedisClientConfig {
+
+    /**
+     * 连接模式：shared/pool
+     */
+    private String mode = "shared";
+
+    /**
+     * 命令超时（毫秒）
+     */
+    private long commandTimeoutMillis = 1000;
+
+    /**
+     * 建连超时（毫秒）
+     */
+    private long connectTimeoutMillis = 1000;
+
+    /**
+     * 批量操作时每批的命令数，同时也是流水线的刷新阈值
+     */
+    private int batchSize = 500;
+
+    /**
+     * 连续失败多少次后熔断
+     */
+    private int circuitFailureThreshold = 5;
+
+    /**
+     * 熔断持续时间（毫秒），之后放行一次探测请求
+     */
+    private long circuitOpenMillis = 5000;
+
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer lettuceClientCustomizer() {
+        return builder -> builder
+                .commandTimeout(Duration.ofMillis(commandTimeoutMillis))
+                .clientOptions(ClientOptions.builder()
+                        .socketOptions(SocketOptions.builder()
+                                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                                .keepAlive(true)
+                                .build())
+                        .timeoutOptions(TimeoutOptions.enabled(Duration.ofMillis(commandTimeoutMillis)))
+                        .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                        .build());
+    }
+
+    @Bean
+    public ClientResourcesBuilderCustomizer latencyRecorderCustomizer(RedisLatencyRecorder redisLatencyRecorder) {
+        return builder -> builder.commandLatencyRecorder(redisLatencyRecorder);
+    }
+
+    @Bean
+    public static BeanPostProcessor lettuceConnectionFactoryPostProcessor(ObjectProvider<RedisClientConfig> redisClientConfigProvider) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof LettuceConnectionFactory) {
+                    RedisClientConfig redisClientConfig = redisClientConfigProvider.getObject();
+                    LettuceConnectionFactory factory = (LettuceConnectionFactory) bean;
+                    factory.setShareNativeConnection(!"pool".equals(redisClientConfig.getMode()));
+                    // 批量操作的流水线攒够一批再写出，减少系统调用
+                    factory.setPipeliningFlushPolicy(LettuceConnection.PipeliningFlushPolicy.buffered(redisClientConfig.getBatchSize()));
+                }
+                return bean;
+            }
+        };
+    }
+}
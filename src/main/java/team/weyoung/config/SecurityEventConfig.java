@@ -0,0 +1,94 @@
+package team.weyoung.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import team.weyoung.manager.AsyncBatchWriter;
+import team.weyoung.manager.SegmentedFileWriter;
+import team.weyoung.manager.SnowflakeIdGenerator;
+import team.weyoung.mapper.SecurityEventMapper;
+import team.weyoung.model.entity.SecurityEvent;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 安全事件日志配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Configuration
+@ConfigurationProperties(prefix = "security-event")
+@Data
+public class SecurityEventConfig {
+
+    /**
+     * 写入缓冲区容量，满时丢弃新事件
+     */
+    private int queueCapacity = 65536;
+
+    /**
+     * 每批写入条数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 是否同时追加写入本地分段文件
+     */
+    private boolean fileEnabled = false;
+
+    /**
+     * 本地分段文件目录
+     */
+    private String fileDirectory = "./data/events";
+
+    /**
+     * 单个分段文件大小（字节）
+     */
+    private long segmentBytes = 64L * 1024 * 1024;
+
+    /**
+     * 最多保留的分段文件数
+     */
+    private int maxSegments = 20;
+
+    /**
+     * 先批量分配 id，再写本地文件和数据库，两边的 id 一致；本地文件每批刷新一次，写入失败不影响入库
+     */
+    @Bean
+    public AsyncBatchWriter<SecurityEvent> securityEventWriter(SecurityEventMapper securityEventMapper,
+                                                               SnowflakeIdGenerator snowflakeIdGenerator,
+                                                               ObjectMapper jacksonObjectMapper) {
+        SegmentedFileWriter fileWriter = fileEnabled
+                ? new SegmentedFileWriter(Paths.get(fileDirectory), "security-event", segmentBytes, maxSegments)
+                : null;
+        return new AsyncBatchWriter<>("security-event", queueCapacity, batchSize, events -> {
+            long[] ids = snowflakeIdGenerator.nextIds(events.size());
+            for (int i = 0; i < ids.length; i++) {
+                events.get(i).setId(ids[i]);
+            }
+            if (fileWriter != null) {
+                try {
+                    List<String> lines = new ArrayList<>(events.size());
+                    for (SecurityEvent event : events) {
+                        lines.add(jacksonObjectMapper.writeValueAsString(event));
+                    }
+                    fileWriter.append(lines);
+                } catch (JsonProcessingException e) {
+                    log.warn("serialize security events failed", e);
+                } catch (IOException e) {
+                    log.warn("append security events to file failed", e);
+                    fileWriter.close();
+                }
+            }
+            securityEventMapper.insertBatch(events);
+        });
+    }
+}
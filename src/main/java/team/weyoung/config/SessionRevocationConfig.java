@@ -0,0 +1,27 @@
+package team.weyoung.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 会话吊销配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "session-revocation")
+@Data
+public class SessionRevocationConfig {
+
+    /**
+     * 被吊销的用户 id 在本地拒绝集合中保留的时间（秒），应大于 Sa-Token 近端缓存和用户缓存的过期时间，
+     * 之后 token 已从 Redis 删除，无需再拦截
+     */
+    private long denyTtlSeconds = 600;
+
+    /**
+     * 本地拒绝集合的最大条数
+     */
+    private long maximumSize = 100000;
+}
@@ -0,0 +1,103 @@
+package team.weyoung.config;
+
+import cn.dev33.satoken.dao.SaTokenDao;
+import cn.dev33.satoken.stp.StpLogic;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动配置
+ * <p>
+ * 快速启动见 application-faststart.yml：Bean 懒加载、数据库连接按需创建、关闭接口文档扫描；
+ * 应用就绪（端口已开放）后在后台预热请求链路，首个请求最多等待预热中的 Bean 创建完成
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Configuration
+@ConfigurationProperties(prefix = "startup")
+@Data
+public class StartupConfig {
+
+    /**
+     * 懒加载时，就绪后在后台创建 Controller 及其依赖并建立一个数据库连接
+     */
+    private boolean warmUp = true;
+
+    /**
+     * 容器刷新完成（Bean 已创建、端口已开放）后立即退出，不触发任何就绪监听，
+     * 用于 Docker 构建中的 AppCDS 训练运行，配合 application-cds.yml 使用
+     */
+    private boolean exitAfterRefresh = false;
+
+    /**
+     * 就绪日志中输出的最慢 Bean 个数
+     */
+    private int reportTop = 10;
+
+    /**
+     * Sa-Token 通过 SaBeanInject 的 setter 把 SaTokenDao、StpLogic 等组件注入 SaManager / StpUtil，
+     * 懒加载会使其退回默认的内存实现，必须立即创建
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter saTokenLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType.getName().startsWith("cn.dev33.satoken.")
+                || SaTokenDao.class.isAssignableFrom(beanType) || StpLogic.class.isAssignableFrom(beanType);
+    }
+
+    /**
+     * 在 ApplicationReadyEvent 之前退出，任务恢复、缓存预热等就绪监听都不会运行
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void onRefreshed(ContextRefreshedEvent event) {
+        if (exitAfterRefresh && event.getApplicationContext().getParent() == null) {
+            log.info("startup.exit-after-refresh is set, exiting");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onReady(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        boolean lazy = context.getEnvironment().getProperty("spring.main.lazy-initialization", Boolean.class, false);
+        if (warmUp && lazy) {
+            Thread thread = new Thread(() -> warmUp(context), "startup-warm-up");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private static void warmUp(ConfigurableApplicationContext context) {
+        long start = System.nanoTime();
+        ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+        try {
+            for (String beanName : beanFactory.getBeanNamesForAnnotation(RestController.class)) {
+                beanFactory.getBean(beanName);
+            }
+            try (Connection ignored = beanFactory.getBean(DataSource.class).getConnection()) {
+                log.info("warm-up finished in {}ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        } catch (Exception e) {
+            // 失败的 Bean 会在首次请求时重新创建并抛出异常
+            log.warn("warm-up failed", e);
+        }
+    }
+}
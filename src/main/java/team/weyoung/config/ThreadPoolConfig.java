@@ -0,0 +1,82 @@
+package team.weyoung.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 线程池配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Configuration
+public class ThreadPoolConfig {
+
+    /**
+     * 头像缩略图处理线程池，队列满时直接丢弃，缩略图会在下次访问时补生成
+     */
+    @Bean
+    public ThreadPoolTaskExecutor avatarExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("avatar-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * 用户查询接口的执行器，模式见 {@link AsyncRequestConfig}
+     * <p>
+     * 返回的 ExecutorService 由 Spring 推断的 shutdown/close 方法在停机时关闭
+     */
+    @Bean
+    public Executor userIoExecutor(AsyncRequestConfig asyncRequestConfig) {
+        String mode = asyncRequestConfig.getMode();
+        if ("virtual".equals(mode)) {
+            Executor executor = newVirtualThreadExecutor();
+            if (executor != null) {
+                log.info("user endpoints run on virtual threads");
+                return executor;
+            }
+            log.warn("virtual threads require JDK 21+, current: {}, fall back to async mode",
+                    System.getProperty("java.version"));
+            mode = "async";
+        }
+        if ("async".equals(mode)) {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(asyncRequestConfig.getPoolSize());
+            executor.setMaxPoolSize(asyncRequestConfig.getPoolSize());
+            executor.setQueueCapacity(asyncRequestConfig.getQueueCapacity());
+            executor.setThreadNamePrefix("user-io-");
+            // 排队满时退化为在 Tomcat 线程执行，起到背压作用
+            executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.setWaitForTasksToCompleteOnShutdown(true);
+            executor.setAwaitTerminationSeconds(10);
+            return executor;
+        }
+        return Runnable::run;
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，源码仍以 Java 8 编译
+     */
+    private static Executor newVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
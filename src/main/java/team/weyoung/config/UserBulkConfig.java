@@ -0,0 +1,46 @@
+package team.weyoung.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 用户批量操作配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "user.bulk")
+@Data
+public class UserBulkConfig {
+
+    /**
+     * 单次请求最多传入的 id 数，更大的集合应使用筛选条件
+     */
+    private int maxIds = 10000;
+
+    /**
+     * 按 id 列表操作且不超过该数量时在请求线程内同步完成，否则提交到后台任务线程池并返回任务名称
+     */
+    private int syncThreshold = 500;
+
+    /**
+     * 每个事务最多处理的用户数，同时受 job.chunk-size 限制
+     */
+    private int batchSize = 200;
+
+    /**
+     * 未完成的任务在提交后多少小时内会被自动恢复运行，超过后视为放弃
+     */
+    private long jobRetentionHours = 24;
+
+    /**
+     * 是否自动恢复未完成的任务
+     */
+    private boolean resumeEnabled = true;
+
+    /**
+     * 扫描并恢复未完成任务（节点宕机、租约丢失、失败）的间隔（毫秒）
+     */
+    private long resumeIntervalMillis = 60000;
+}
@@ -0,0 +1,41 @@
+package team.weyoung.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 用户缓存配置
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "user.cache")
+@Data
+public class UserCacheConfig {
+
+    /**
+     * 缓存过期时间（秒）
+     */
+    private long expireSeconds = 30;
+
+    /**
+     * 最大缓存用户数
+     */
+    private long maximumSize = 10000;
+
+    /**
+     * 单 id 查询的合并窗口（毫秒），窗口内的查询合并为一条 IN 查询
+     */
+    private long batchWindowMillis = 2;
+
+    /**
+     * 单次合并查询的最大 id 数，达到后立即查询
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * 等待合并查询结果的超时时间（毫秒），超时后直接查库
+     */
+    private long batchTimeoutMillis = 1000;
+}
@@ -29,5 +29,10 @@ public interface UserConstant {
      */
     String BAN_ROLE = "ban";
 
+    /**
+     * 未登录访客，仅用于按 IP 限额
+     */
+    String GUEST_ROLE = "guest";
+
     // endregion
 }
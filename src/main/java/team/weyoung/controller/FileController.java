@@ -0,0 +1,83 @@
+package team.weyoung.controller;
+
+import cn.dev33.satoken.stp.StpUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.common.Result;
+import team.weyoung.exception.ThrowUtils;
+import team.weyoung.manager.StoredFile;
+import team.weyoung.service.AvatarService;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 文件接口
+ *
+ */
+@Slf4j
+@RestController
+@RequestMapping("/file")
+public class FileController {
+
+    /**
+     * 内容寻址的头像永不变化，允许浏览器和 CDN 缓存一年
+     */
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    /**
+     * 缩略图未生成时返回的原图只短暂缓存，避免长期占用缩略图地址
+     */
+    private static final String FALLBACK_CACHE_CONTROL = "public, max-age=60";
+
+    @Resource
+    private AvatarService avatarService;
+
+    /**
+     * 上传头像
+     */
+    @PostMapping("/avatar/upload")
+    public Result<String> uploadAvatar(@RequestPart("file") MultipartFile file) {
+        long userId = StpUtil.getLoginIdAsLong();
+        return Result.success(avatarService.uploadAvatar(file, userId));
+    }
+
+    /**
+     * 获取头像
+     *
+     * @param hash 头像内容哈希
+     * @param size 缩略图边长，默认原图
+     */
+    @GetMapping("/avatar/{hash}")
+    public void getAvatar(@PathVariable String hash, @RequestParam(defaultValue = "0") int size,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // ETag 由内容哈希和尺寸决定，客户端已缓存时无需访问存储
+        String etag = "\"" + hash + "-" + size + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL);
+            return;
+        }
+        boolean ready = avatarService.isThumbnailReady(hash, size);
+        StoredFile storedFile = avatarService.getAvatar(hash, size);
+        ThrowUtils.throwIf(storedFile == null, HttpCodeEnum.NOT_FOUND_ERROR);
+        try (InputStream inputStream = storedFile.getInputStream()) {
+            response.setHeader(HttpHeaders.ETAG, ready ? etag : "\"" + hash + "-0\"");
+            response.setHeader(HttpHeaders.CACHE_CONTROL, ready ? IMMUTABLE_CACHE_CONTROL : FALLBACK_CACHE_CONTROL);
+            if (storedFile.getContentType() != null) {
+                response.setContentType(storedFile.getContentType());
+            }
+            if (storedFile.getSize() >= 0) {
+                response.setContentLengthLong(storedFile.getSize());
+            }
+            StreamUtils.copy(inputStream, response.getOutputStream());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package team.weyoung.controller;
+
+import com.mybatisflex.core.paginate.Page;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import team.weyoung.annotation.AuthCheck;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.common.Result;
+import team.weyoung.constant.UserConstant;
+import team.weyoung.exception.ThrowUtils;
+import team.weyoung.model.dto.job.JobRunQueryRequest;
+import team.weyoung.model.entity.JobRun;
+import team.weyoung.model.vo.JobVO;
+import team.weyoung.service.JobService;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * 后台任务接口（仅管理员）
+ *
+ */
+@Slf4j
+@RestController
+@RequestMapping("/job")
+public class JobController {
+
+    /**
+     * 每页最多返回的运行记录数
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Resource
+    private JobService jobService;
+
+    /**
+     * 任务列表
+     */
+    @GetMapping("/list")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<List<JobVO>> listJobs() {
+        return Result.success(jobService.listJobs());
+    }
+
+    /**
+     * 立即运行一次
+     */
+    @PostMapping("/trigger")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<Boolean> triggerJob(@RequestParam String name) {
+        jobService.trigger(name);
+        return Result.success(true);
+    }
+
+    /**
+     * 分页查询运行记录
+     */
+    @PostMapping("/run/list/page")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<Page<JobRun>> listRunByPage(@RequestBody JobRunQueryRequest jobRunQueryRequest) {
+        ThrowUtils.throwIf(jobRunQueryRequest == null, HttpCodeEnum.PARAMS_ERROR);
+        ThrowUtils.throwIf(jobRunQueryRequest.getPageSize() > MAX_PAGE_SIZE, HttpCodeEnum.PARAMS_ERROR);
+        return Result.success(jobService.listRuns(jobRunQueryRequest));
+    }
+}
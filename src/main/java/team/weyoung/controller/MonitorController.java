@@ -0,0 +1,172 @@
+package team.weyoung.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import team.weyoung.annotation.AuthCheck;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.common.Result;
+import team.weyoung.config.RedisClientConfig;
+import team.weyoung.constant.UserConstant;
+import team.weyoung.exception.GlobalExceptionHandler;
+import team.weyoung.exception.ThrowUtils;
+import team.weyoung.manager.ActivityAnalytics;
+import team.weyoung.manager.AsyncBatchWriter;
+import team.weyoung.manager.EventCounter;
+import team.weyoung.manager.QuotaManager;
+import team.weyoung.manager.RedisCircuitBreaker;
+import team.weyoung.manager.RedisLatencyRecorder;
+import team.weyoung.manager.StartupTimelineReport;
+import team.weyoung.model.vo.ActivityReportVO;
+import team.weyoung.model.vo.EventSeriesVO;
+import team.weyoung.model.vo.QuotaReportVO;
+import team.weyoung.model.vo.RedisMetricsVO;
+import team.weyoung.model.vo.StartupTimelineVO;
+import team.weyoung.model.vo.WriterMetricsVO;
+
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 运行监控接口（仅管理员）
+ *
+ */
+@Slf4j
+@RestController
+@RequestMapping("/monitor")
+public class MonitorController {
+
+    @Resource
+    private RedisLatencyRecorder redisLatencyRecorder;
+
+    @Resource
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Resource
+    private RedisClientConfig redisClientConfig;
+
+    @Resource
+    private StartupTimelineReport startupTimelineReport;
+
+    @Resource
+    private QuotaManager quotaManager;
+
+    @Resource
+    private ActivityAnalytics activityAnalytics;
+
+    @Resource
+    private EventCounter eventCounter;
+
+    @Resource
+    private List<AsyncBatchWriter<?>> asyncBatchWriters;
+
+    @Resource
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    /**
+     * Redis 客户端指标
+     */
+    @GetMapping("/redis")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<RedisMetricsVO> getRedisMetrics() {
+        RedisMetricsVO redisMetricsVO = new RedisMetricsVO();
+        redisMetricsVO.setMode(redisClientConfig.getMode());
+        redisMetricsVO.setCircuitState(redisCircuitBreaker.getState());
+        redisMetricsVO.setCircuitRejected(redisCircuitBreaker.getRejectedCount());
+        redisMetricsVO.setCommands(redisLatencyRecorder.snapshot());
+        return Result.success(redisMetricsVO);
+    }
+
+    /**
+     * 启动耗时报告
+     *
+     * @param top  返回最慢的步骤数
+     * @param bean 是否只看 Bean 创建步骤
+     */
+    @GetMapping("/startup")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<StartupTimelineVO> getStartupTimeline(@RequestParam(defaultValue = "50") int top,
+                                                        @RequestParam(defaultValue = "true") boolean bean) {
+        return Result.success(startupTimelineReport.getTimeline(top, bean));
+    }
+
+    /**
+     * 每日配额报告
+     *
+     * @param resource 配额资源名
+     * @param date     日期 yyyyMMdd，默认当天
+     * @param top      返回用量最高的主体个数
+     */
+    @GetMapping("/quota")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<QuotaReportVO> getQuotaReport(@RequestParam String resource,
+                                                @RequestParam(required = false) String date,
+                                                @RequestParam(defaultValue = "20") int top) {
+        ThrowUtils.throwIf(top <= 0 || top > 1000, HttpCodeEnum.PARAMS_ERROR);
+        return Result.success(quotaManager.getReport(resource, date, top));
+    }
+
+    /**
+     * 活跃用户报告（日活、按角色日活、分小时活跃、月活、独立 IP）
+     *
+     * @param date 日期 yyyyMMdd，默认当天
+     */
+    @GetMapping("/activity")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<ActivityReportVO> getActivityReport(@RequestParam(required = false) String date) {
+        return Result.success(activityAnalytics.getReport(date));
+    }
+
+    /**
+     * 账号最近若干天登录过的独立 IP 数
+     *
+     * @param userId 用户 id
+     * @param date   截止日期 yyyyMMdd，默认当天
+     * @param days   天数
+     */
+    @GetMapping("/activity/ip")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<Long> countAccountIps(@RequestParam long userId,
+                                        @RequestParam(required = false) String date,
+                                        @RequestParam(defaultValue = "7") int days) {
+        ThrowUtils.throwIf(days <= 0 || days > 31, HttpCodeEnum.PARAMS_ERROR);
+        return Result.success(activityAnalytics.countAccountIps(userId, date, days));
+    }
+
+    /**
+     * 注册、登录失败、封号次数的时间序列
+     *
+     * @param metric      指标：register/login_failure/ban
+     * @param granularity 粒度：minute（仅本节点内存）/hour/day
+     * @param buckets     最近的时间段数，含当前时间段
+     */
+    @GetMapping("/events")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<EventSeriesVO> getEventSeries(@RequestParam String metric,
+                                                @RequestParam(defaultValue = "minute") String granularity,
+                                                @RequestParam(defaultValue = "60") int buckets) {
+        return Result.success(eventCounter.getSeries(metric, granularity, buckets));
+    }
+
+    /**
+     * 异步批量写入器指标
+     */
+    @GetMapping("/writers")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<List<WriterMetricsVO>> listWriterMetrics() {
+        return Result.success(asyncBatchWriters.stream().map(AsyncBatchWriter::getMetrics).collect(Collectors.toList()));
+    }
+
+    /**
+     * 各错误码（运行时异常按类型）的累计次数
+     */
+    @GetMapping("/errors")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<Map<String, Long>> getErrorCounts() {
+        return Result.success(globalExceptionHandler.getErrorCounts());
+    }
+}
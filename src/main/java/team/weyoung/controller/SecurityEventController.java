@@ -0,0 +1,50 @@
+package team.weyoung.controller;
+
+import com.mybatisflex.core.paginate.Page;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import team.weyoung.annotation.AuthCheck;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.common.Result;
+import team.weyoung.constant.UserConstant;
+import team.weyoung.exception.ThrowUtils;
+import team.weyoung.model.dto.event.SecurityEventQueryRequest;
+import team.weyoung.model.entity.SecurityEvent;
+import team.weyoung.service.SecurityEventService;
+
+import javax.annotation.Resource;
+
+/**
+ * 安全事件接口（仅管理员）
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@RestController
+@RequestMapping("/event")
+public class SecurityEventController {
+
+    /**
+     * 每页最多返回的事件数
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Resource
+    private SecurityEventService securityEventService;
+
+    /**
+     * 分页查询安全事件
+     */
+    @PostMapping("/list/page")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<Page<SecurityEvent>> listEventByPage(@RequestBody SecurityEventQueryRequest securityEventQueryRequest) {
+        ThrowUtils.throwIf(securityEventQueryRequest == null, HttpCodeEnum.PARAMS_ERROR);
+        ThrowUtils.throwIf(securityEventQueryRequest.getPageNumber() <= 0, HttpCodeEnum.PARAMS_ERROR);
+        ThrowUtils.throwIf(securityEventQueryRequest.getPageSize() <= 0
+                || securityEventQueryRequest.getPageSize() > MAX_PAGE_SIZE, HttpCodeEnum.PARAMS_ERROR);
+        return Result.success(securityEventService.listEvents(securityEventQueryRequest));
+    }
+}
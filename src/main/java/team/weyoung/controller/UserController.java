@@ -7,22 +7,37 @@ import com.mybatisflex.core.query.QueryWrapper;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 import team.weyoung.annotation.AuthCheck;
+import team.weyoung.annotation.QuotaCheck;
+import team.weyoung.annotation.SparseFields;
 import team.weyoung.common.*;
 import team.weyoung.constant.UserConstant;
 import team.weyoung.exception.BusinessException;
 import team.weyoung.exception.ThrowUtils;
+import team.weyoung.manager.FieldSetCache;
 import team.weyoung.model.dto.user.*;
 import team.weyoung.model.entity.User;
+import team.weyoung.model.enums.UserBulkActionEnum;
+import team.weyoung.model.vo.DeviceRiskVO;
 import team.weyoung.model.vo.LoginUserVO;
+import team.weyoung.model.vo.UserBulkJobVO;
 import team.weyoung.model.vo.UserVO;
+import team.weyoung.service.DeviceLoginService;
+import team.weyoung.service.IdentityLinkService;
+import team.weyoung.service.UserBulkService;
 import team.weyoung.service.UserService;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * 用户接口
@@ -40,9 +55,34 @@ public class UserController {
 
     private final static Gson GSON = new Gson();
 
+    /**
+     * 用户信息为私有数据，只允许客户端缓存，每次使用前需用 ETag 向服务端确认
+     */
+    private static final CacheControl PRIVATE_NO_CACHE = CacheControl.noCache().cachePrivate();
+
+    /**
+     * 批量查询的最大 id 数
+     */
+    private static final int MAX_BATCH_SIZE = 100;
+
     @Resource
     private UserService userService;
 
+    @Resource
+    private Executor userIoExecutor;
+
+    @Resource
+    private IdentityLinkService identityLinkService;
+
+    @Resource
+    private DeviceLoginService deviceLoginService;
+
+    @Resource
+    private FieldSetCache userVOFieldSetCache;
+
+    @Resource
+    private UserBulkService userBulkService;
+
     /**
      * 用户注册
      */
@@ -74,7 +114,7 @@ public class UserController {
         if (StringUtils.isAnyBlank(userAccount, userPassword)) {
             throw new BusinessException(HttpCodeEnum.PARAMS_ERROR);
         }
-        LoginUserVO loginUserVO = userService.userLogin(userAccount, userPassword, request);
+        LoginUserVO loginUserVO = userService.userLogin(userAccount, userPassword, userLoginRequest.getDeviceId(), request);
         return Result.success(loginUserVO);
     }
 
@@ -94,9 +134,9 @@ public class UserController {
      * 获取当前登录用户
      */
     @GetMapping("/get/login")
-    public Result<LoginUserVO> getLoginUser(HttpServletRequest request) {
+    public ResponseEntity<Result<LoginUserVO>> getLoginUser(HttpServletRequest request) {
         User user = userService.getLoginUser(request);
-        return Result.success(userService.getLoginUserVO(user));
+        return versioned(user, userService.getLoginUserVO(user));
     }
 
 
@@ -148,6 +188,45 @@ public class UserController {
         return Result.success(true);
     }
 
+    /**
+     * 管理员批量封号，按 id 列表或筛选条件，已封号的用户和管理员不受影响
+     */
+    @PostMapping("/bulk/ban")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<UserBulkJobVO> banUsers(@RequestBody UserBulkRequest userBulkRequest, HttpServletRequest request) {
+        User loginUser = userService.getLoginUser(request);
+        return Result.success(userBulkService.submit(UserBulkActionEnum.BAN, userBulkRequest, loginUser.getId()));
+    }
+
+    /**
+     * 管理员批量解封
+     */
+    @PostMapping("/bulk/unban")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<UserBulkJobVO> unbanUsers(@RequestBody UserBulkRequest userBulkRequest, HttpServletRequest request) {
+        User loginUser = userService.getLoginUser(request);
+        return Result.success(userBulkService.submit(UserBulkActionEnum.UNBAN, userBulkRequest, loginUser.getId()));
+    }
+
+    /**
+     * 管理员批量删除
+     */
+    @PostMapping("/bulk/delete")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<UserBulkJobVO> deleteUsers(@RequestBody UserBulkRequest userBulkRequest, HttpServletRequest request) {
+        User loginUser = userService.getLoginUser(request);
+        return Result.success(userBulkService.submit(UserBulkActionEnum.DELETE, userBulkRequest, loginUser.getId()));
+    }
+
+    /**
+     * 查询批量操作进度（仅管理员）
+     */
+    @GetMapping("/bulk/job")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<UserBulkJobVO> getBulkJob(@RequestParam String name) {
+        return Result.success(userBulkService.getJob(name));
+    }
+
     /**
      * 根据 id 获取用户（仅管理员）
      */
@@ -163,13 +242,63 @@ public class UserController {
     }
 
     /**
-     * 根据 id 获取包装类
+     * 根据 id 获取包装类，可通过 fields 指定返回的字段
      */
     @GetMapping("/get/vo")
-    public Result<UserVO> getUserVOById(long id) {
-        Result<User> response = getUserById(id);
-        User user = response.getData();
-        return Result.success(userService.getUserVO(user));
+    @SparseFields
+    public CompletableFuture<ResponseEntity<Result<UserVO>>> getUserVOById(long id,
+                                                                          @RequestParam(required = false) String fields) {
+        if (id <= 0) {
+            throw new BusinessException(HttpCodeEnum.PARAMS_ERROR);
+        }
+        FieldSetCache.FieldSet fieldSet = userVOFieldSetCache.get(fields);
+        // 缓存命中时在请求线程内直接返回，ETag 未变化时不访问数据库也不序列化
+        User cachedUser = userService.getCachedById(id);
+        if (cachedUser != null) {
+            return CompletableFuture.completedFuture(versioned(cachedUser, userService.getUserVO(cachedUser), fieldSet));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            User user = userService.getById(id);
+            ThrowUtils.throwIf(user == null, HttpCodeEnum.NOT_FOUND_ERROR);
+            return versioned(user, userService.getUserVO(user), fieldSet);
+        }, userIoExecutor);
+    }
+
+    /**
+     * 根据 id 列表批量获取包装类
+     */
+    @GetMapping("/get/vo/batch")
+    @QuotaCheck("user-batch")
+    public CompletableFuture<Result<List<UserVO>>> getUserVOByIds(@RequestParam List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException(HttpCodeEnum.PARAMS_ERROR);
+        }
+        return supplyAsync(() -> userService.getUserVOs(ids));
+    }
+
+    /**
+     * 获取与该用户共用过手机号、邮箱或设备的关联账号（仅管理员）
+     */
+    @GetMapping("/linked")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<List<UserVO>> listLinkedUser(long id) {
+        if (id <= 0) {
+            throw new BusinessException(HttpCodeEnum.PARAMS_ERROR);
+        }
+        Set<Long> linkedUserIds = identityLinkService.getLinkedUserIds(id);
+        return Result.success(userService.getUserVOs(linkedUserIds));
+    }
+
+    /**
+     * 查询设备近期登录过的账号（仅管理员）
+     */
+    @GetMapping("/device/risk")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public Result<DeviceRiskVO> getDeviceRisk(@RequestParam String deviceId) {
+        if (StringUtils.isBlank(deviceId)) {
+            throw new BusinessException(HttpCodeEnum.PARAMS_ERROR);
+        }
+        return Result.success(deviceLoginService.getDeviceRisk(deviceId));
     }
 
     /**
@@ -185,10 +314,13 @@ public class UserController {
     }
 
     /**
-     * 分页获取用户封装列表
+     * 分页获取用户封装列表，可通过 fields 指定返回的字段，只查询对应的列
      */
     @PostMapping("/list/page/vo")
-    public Result<Page<UserVO>> listUserVOByPage(@RequestBody UserQueryRequest userQueryRequest) {
+    @QuotaCheck("user-list")
+    @SparseFields
+    public CompletableFuture<Result<Page<UserVO>>> listUserVOByPage(@RequestBody UserQueryRequest userQueryRequest,
+                                                                    @RequestParam(required = false) String fields) {
         if (userQueryRequest == null) {
             throw new BusinessException(HttpCodeEnum.PARAMS_ERROR);
         }
@@ -196,11 +328,15 @@ public class UserController {
         long pageSize = userQueryRequest.getPageSize();
         // 限制爬虫
         ThrowUtils.throwIf(pageSize > 20, HttpCodeEnum.PARAMS_ERROR);
-        Page<User> userPage = userService.page(new Page<>(pageNumber, pageSize), new QueryWrapper());
-        Page<UserVO> userVOPage = new Page<>(pageNumber, pageSize, userPage.getTotalRow());
-        List<UserVO> userVO = userService.getUserVO(userPage.getRecords());
-        userVOPage.setRecords(userVO);
-        return Result.success(userVOPage);
+        FieldSetCache.FieldSet fieldSet = userVOFieldSetCache.get(fields);
+        return supplyAsync(() -> {
+            QueryWrapper queryWrapper = fieldSet == null ? new QueryWrapper() : QueryWrapper.create().select(fieldSet.getColumns());
+            Page<User> userPage = userService.page(new Page<>(pageNumber, pageSize), queryWrapper);
+            Page<UserVO> userVOPage = new Page<>(pageNumber, pageSize, userPage.getTotalRow());
+            List<UserVO> userVO = userService.getUserVO(userPage.getRecords());
+            userVOPage.setRecords(userVO);
+            return userVOPage;
+        });
     }
 
     /**
@@ -247,9 +383,47 @@ public class UserController {
      * 获取个人信息
      */
     @GetMapping("/get/my")
-    public Result<UserVO> getMyUser() {
-        Long userId = StpUtil.getLoginIdAsLong();
-        User loginUser = userService.getById(userId);
-        return Result.success(userService.getUserVO(loginUser));
+    public CompletableFuture<ResponseEntity<Result<UserVO>>> getMyUser() {
+        // 登录态依赖请求上下文，须在请求线程内取出
+        long userId = StpUtil.getLoginIdAsLong();
+        User cachedUser = userService.getCachedById(userId);
+        if (cachedUser != null) {
+            return CompletableFuture.completedFuture(versioned(cachedUser, userService.getUserVO(cachedUser)));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            User loginUser = userService.getById(userId);
+            if (loginUser == null) {
+                return ResponseEntity.ok(Result.success((UserVO) null));
+            }
+            return versioned(loginUser, userService.getUserVO(loginUser));
+        }, userIoExecutor);
+    }
+
+    private <T> ResponseEntity<Result<T>> versioned(User user, T body) {
+        return versioned(user, body, null);
+    }
+
+    /**
+     * 带版本的响应：弱 ETag 由 id、updateTime 和视图对象的 hashCode 组成（updateTime 只精确到秒，hashCode 区分同一秒内的多次修改），
+     * 不需要先序列化响应体；指定了字段集时再带上字段集，不同字段集的响应互不匹配。
+     * If-None-Match / If-Modified-Since 匹配时由 Spring 直接返回 304，不再序列化
+     */
+    private <T> ResponseEntity<Result<T>> versioned(User user, T body, FieldSetCache.FieldSet fieldSet) {
+        long updateTime = user.getUpdateTime() == null ? 0 : user.getUpdateTime().getTime();
+        String etag = "W/\"" + Long.toHexString(user.getId()) + "-" + Long.toHexString(updateTime)
+                + "-" + Integer.toHexString(body.hashCode())
+                + (fieldSet == null ? "" : "-" + Integer.toHexString(fieldSet.getKey().hashCode())) + "\"";
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(etag).cacheControl(PRIVATE_NO_CACHE);
+        if (updateTime > 0) {
+            builder.lastModified(updateTime);
+        }
+        return builder.body(Result.success(body));
+    }
+
+    /**
+     * 在 userIoExecutor 上执行 I/O 密集的查询，任务内不能再访问请求上下文（StpUtil、RequestContextHolder）
+     */
+    private <T> CompletableFuture<Result<T>> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> Result.success(supplier.get()), userIoExecutor);
     }
 }
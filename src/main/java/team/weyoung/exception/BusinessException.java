@@ -3,34 +3,67 @@ package team.weyoung.exception;
 
 import team.weyoung.common.HttpCodeEnum;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
  * 自定义异常类
+ * <p>
+ * 业务异常是预期内的结果（参数错误、未登录等），不记录堆栈也不支持 suppressed，抛出的开销与普通对象分配相当；
+ * 只有错误码没有自定义信息的异常是不可变的，通过 {@link #of(HttpCodeEnum)} 复用同一个实例
  *
  * @author <a href="https://gitee.com/xia-haike">图南</a>
  */
 public class BusinessException extends RuntimeException {
 
+    private static final Map<HttpCodeEnum, BusinessException> SHARED = new EnumMap<>(HttpCodeEnum.class);
+
+    static {
+        for (HttpCodeEnum httpCodeEnum : HttpCodeEnum.values()) {
+            SHARED.put(httpCodeEnum, new BusinessException(httpCodeEnum));
+        }
+    }
+
     /**
      * 错误码
      */
     private final int code;
 
+    /**
+     * 使用错误码默认信息时的枚举，自定义信息时为 null
+     */
+    private final HttpCodeEnum httpCodeEnum;
+
     public BusinessException(int code, String message) {
-        super(message);
+        super(message, null, false, false);
         this.code = code;
+        this.httpCodeEnum = null;
     }
 
     public BusinessException(HttpCodeEnum httpCodeEnum) {
-        super(httpCodeEnum.getMessage());
+        super(httpCodeEnum.getMessage(), null, false, false);
         this.code = httpCodeEnum.getCode();
+        this.httpCodeEnum = httpCodeEnum;
     }
 
     public BusinessException(HttpCodeEnum httpCodeEnum, String message) {
-        super(message);
+        super(message, null, false, false);
         this.code = httpCodeEnum.getCode();
+        this.httpCodeEnum = null;
+    }
+
+    /**
+     * 获取只有错误码的共享实例
+     */
+    public static BusinessException of(HttpCodeEnum httpCodeEnum) {
+        return SHARED.get(httpCodeEnum);
     }
 
     public int getCode() {
         return code;
     }
+
+    public HttpCodeEnum getHttpCodeEnum() {
+        return httpCodeEnum;
+    }
 }
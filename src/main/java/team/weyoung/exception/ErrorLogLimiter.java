@@ -0,0 +1,61 @@
+package team.weyoung.exception;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 错误日志限流
+ * <p>
+ * 按 key（错误码或异常类型）计数，每个 key 每个间隔内只允许打印一次，打印时带上间隔内被省略的次数
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class ErrorLogLimiter {
+
+    private final long intervalMillis;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ErrorLogLimiter(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * 记录一次错误
+     *
+     * @return 本次应打印时返回自上次打印以来省略的次数，不应打印时返回 -1
+     */
+    public long acquire(String key) {
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        entry.total.increment();
+        entry.pending.increment();
+        long now = System.currentTimeMillis();
+        long last = entry.lastLogMillis.get();
+        if (now - last < intervalMillis || !entry.lastLogMillis.compareAndSet(last, now)) {
+            return -1;
+        }
+        // 减去本次
+        return entry.pending.sumThenReset() - 1;
+    }
+
+    /**
+     * 各 key 的累计次数
+     */
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        entries.forEach((key, entry) -> counts.put(key, entry.total.sum()));
+        return counts;
+    }
+
+    private static class Entry {
+
+        private final LongAdder total = new LongAdder();
+
+        private final LongAdder pending = new LongAdder();
+
+        private final AtomicLong lastLogMillis = new AtomicLong();
+    }
+}
@@ -1,13 +1,25 @@
 package team.weyoung.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import team.weyoung.common.HttpCodeEnum;
 import team.weyoung.common.Result;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
  * 全局异常处理器
+ * <p>
+ * 只有错误码的业务异常直接返回启动时序列化好的响应体；日志按错误码（运行时异常按类型）限流，
+ * 每 {@value #LOG_INTERVAL_MILLIS}ms 最多打印一次并带上省略次数，被刷错误请求时不会拖慢请求或刷爆日志
  *
  * @author <a href="https://gitee.com/xia-haike">图南</a>
  */
@@ -15,12 +27,37 @@ import team.weyoung.common.Result;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final long LOG_INTERVAL_MILLIS = 10000;
+
+    private final Map<HttpCodeEnum, ResponseEntity<byte[]>> renderedBodies = new EnumMap<>(HttpCodeEnum.class);
+
+    private final ResponseEntity<byte[]> systemErrorBody;
+
+    private final ErrorLogLimiter errorLogLimiter = new ErrorLogLimiter(LOG_INTERVAL_MILLIS);
+
+    public GlobalExceptionHandler(ObjectMapper jacksonObjectMapper) throws JsonProcessingException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        for (HttpCodeEnum httpCodeEnum : HttpCodeEnum.values()) {
+            byte[] body = jacksonObjectMapper.writeValueAsBytes(Result.fail(httpCodeEnum));
+            renderedBodies.put(httpCodeEnum, new ResponseEntity<>(body, headers, HttpStatus.OK));
+        }
+        systemErrorBody = new ResponseEntity<>(jacksonObjectMapper.writeValueAsBytes(
+                Result.fail(HttpCodeEnum.SYSTEM_ERROR.getCode(), "系统错误")), headers, HttpStatus.OK);
+    }
+
     /**
      * 业务异常
      */
     @ExceptionHandler(BusinessException.class)
-    public Result<?> businessExceptionHandler(BusinessException e) {
-        log.error("BusinessException", e);
+    public Object businessExceptionHandler(BusinessException e) {
+        long suppressed = errorLogLimiter.acquire(String.valueOf(e.getCode()));
+        if (suppressed >= 0) {
+            log.warn("BusinessException, code: {}, message: {}, suppressed: {}", e.getCode(), e.getMessage(), suppressed);
+        }
+        if (e.getHttpCodeEnum() != null) {
+            return renderedBodies.get(e.getHttpCodeEnum());
+        }
         return Result.fail(e.getCode(), e.getMessage());
     }
 
@@ -28,8 +65,18 @@ public class GlobalExceptionHandler {
      * 运行时异常
      */
     @ExceptionHandler(RuntimeException.class)
-    public Result<?> runtimeExceptionHandler(RuntimeException e) {
-        log.error("RuntimeException", e);
-        return Result.fail(HttpCodeEnum.SYSTEM_ERROR.getCode(), "系统错误");
+    public Object runtimeExceptionHandler(RuntimeException e) {
+        long suppressed = errorLogLimiter.acquire(e.getClass().getName());
+        if (suppressed >= 0) {
+            log.error("RuntimeException, suppressed: {}", suppressed, e);
+        }
+        return systemErrorBody;
+    }
+
+    /**
+     * 各错误码和异常类型的累计次数
+     */
+    public Map<String, Long> getErrorCounts() {
+        return errorLogLimiter.getCounts();
     }
 }
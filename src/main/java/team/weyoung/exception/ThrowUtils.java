@@ -11,11 +11,18 @@ public class ThrowUtils {
         }
     }
 
+    /**
+     * 条件成立时才创建异常，校验通过的请求不产生任何分配
+     */
     public static void throwIf(boolean condition, HttpCodeEnum httpCodeEnum) {
-        throwIf(condition, new BusinessException(httpCodeEnum));
+        if (condition) {
+            throw BusinessException.of(httpCodeEnum);
+        }
     }
 
     public static void throwIf(boolean condition, HttpCodeEnum httpCodeEnum, String message) {
-        throwIf(condition, new BusinessException(httpCodeEnum, message));
+        if (condition) {
+            throw new BusinessException(httpCodeEnum, message);
+        }
     }
-}
\ No newline at end of file
+}
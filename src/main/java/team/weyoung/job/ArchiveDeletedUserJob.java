@@ -0,0 +1,94 @@
+package team.weyoung.job;
+
+import com.mybatisflex.core.logicdelete.LogicDeleteManager;
+import com.mybatisflex.core.mask.MaskManager;
+import com.mybatisflex.core.query.QueryWrapper;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import team.weyoung.config.ArchiveConfig;
+import team.weyoung.manager.TombstoneFilter;
+import team.weyoung.mapper.UserArchiveMapper;
+import team.weyoung.mapper.UserMapper;
+import team.weyoung.model.entity.User;
+import team.weyoung.model.entity.UserArchive;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static team.weyoung.model.entity.table.UserTableDef.USER;
+
+/**
+ * 把逻辑删除超过保留期的用户移入归档表
+ * <p>
+ * 按 id 游标分批，每批在一个事务中写入归档表并从用户表物理删除，事务大小不超过 archive.batch-size；
+ * 检查点为已归档的最大 id，提交后把账号加入已归档账号过滤器
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Component
+public class ArchiveDeletedUserJob implements BackgroundJob {
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private UserArchiveMapper userArchiveMapper;
+
+    @Resource
+    private ArchiveConfig archiveConfig;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private TombstoneFilter tombstoneFilter;
+
+    @Override
+    public String getName() {
+        return "archive-deleted-user";
+    }
+
+    @Override
+    public void execute(JobContext context) {
+        Date deletedBefore = new Date(System.currentTimeMillis()
+                - TimeUnit.DAYS.toMillis(archiveConfig.getRetentionDays()));
+        int batchSize = Math.min(archiveConfig.getBatchSize(), context.getChunkSize());
+        long lastId = context.getCheckpoint() == null ? 0 : Long.parseLong(context.getCheckpoint());
+        while (!context.isStopped()) {
+            QueryWrapper queryWrapper = QueryWrapper.create()
+                    .from(USER)
+                    .where(USER.ID.gt(lastId))
+                    .and(USER.IS_DELETE.eq(1))
+                    .and(USER.UPDATE_TIME.lt(deletedBefore))
+                    .orderBy(USER.ID.asc())
+                    .limit(batchSize);
+            // 默认查询带逻辑删除条件且会脱敏，归档需要原值
+            List<User> users = LogicDeleteManager.execWithoutLogicDelete(() ->
+                    MaskManager.execWithoutMask(() -> userMapper.selectListByQuery(queryWrapper)));
+            if (users.isEmpty()) {
+                return;
+            }
+            Date archiveTime = new Date();
+            List<UserArchive> archives = new ArrayList<>(users.size());
+            for (User user : users) {
+                UserArchive archive = new UserArchive();
+                BeanUtils.copyProperties(user, archive);
+                archive.setArchiveTime(archiveTime);
+                archives.add(archive);
+            }
+            List<Long> ids = users.stream().map(User::getId).collect(Collectors.toList());
+            transactionTemplate.executeWithoutResult(status -> {
+                userArchiveMapper.insertBatch(archives);
+                LogicDeleteManager.execWithoutLogicDelete(() -> userMapper.deleteBatchByIds(ids));
+            });
+            tombstoneFilter.putAll(users.stream().map(User::getUserAccount).collect(Collectors.toList()));
+            lastId = ids.get(ids.size() - 1);
+            context.commit(String.valueOf(lastId), users.size());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package team.weyoung.job;
+
+/**
+ * 后台任务
+ * <p>
+ * 由 {@link JobRunner} 在持有集群租约时运行，同一任务同一时刻只在一个节点上运行。
+ * 实现应分批处理，每批结束调用 {@link JobContext#commit} 保存检查点，并在 {@link JobContext#isStopped()} 时尽快返回
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public interface BackgroundJob {
+
+    /**
+     * 任务名称，同时是配置 job.cron 中的 key
+     */
+    String getName();
+
+    /**
+     * 是否集群内只运行一次；操作本地内存的任务返回 false，每个节点各自运行
+     */
+    default boolean isClusterSingleton() {
+        return true;
+    }
+
+    /**
+     * 执行任务，从 {@link JobContext#getCheckpoint()} 继续；抛出异常时本次运行记为失败，检查点保留到下次运行
+     */
+    void execute(JobContext context) throws Exception;
+}
@@ -0,0 +1,36 @@
+package team.weyoung.job;
+
+import org.springframework.stereotype.Component;
+import team.weyoung.service.IdentityLinkService;
+
+import javax.annotation.Resource;
+
+/**
+ * 重建关联账号索引
+ * <p>
+ * 索引在每个节点的内存中，每个节点各自重建，修正增量同步期间丢失的更新
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Component
+public class IdentityRebuildJob implements BackgroundJob {
+
+    @Resource
+    private IdentityLinkService identityLinkService;
+
+    @Override
+    public String getName() {
+        return "identity-rebuild";
+    }
+
+    @Override
+    public boolean isClusterSingleton() {
+        return false;
+    }
+
+    @Override
+    public void execute(JobContext context) {
+        int count = identityLinkService.rebuild();
+        context.commit(null, count);
+    }
+}
@@ -0,0 +1,74 @@
+package team.weyoung.job;
+
+/**
+ * 一次任务运行的上下文
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class JobContext {
+
+    private final JobRunner runner;
+
+    private final long runId;
+
+    private final int chunkSize;
+
+    private volatile String checkpoint;
+
+    private volatile long processed;
+
+    private volatile boolean stopped;
+
+    JobContext(JobRunner runner, long runId, int chunkSize, String checkpoint) {
+        this.runner = runner;
+        this.runId = runId;
+        this.chunkSize = chunkSize;
+        this.checkpoint = checkpoint;
+    }
+
+    public long getRunId() {
+        return runId;
+    }
+
+    /**
+     * 每批处理条数
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 上次中断或失败时保存的检查点，没有时为 null
+     */
+    public String getCheckpoint() {
+        return checkpoint;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    /**
+     * 租约丢失或应用停止时为 true，任务应尽快返回
+     */
+    public boolean isStopped() {
+        return stopped || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * 一批处理完成：保存检查点和进度，然后按连接池负载节流
+     *
+     * @param checkpoint 下一批的起点
+     * @param count      本批处理条数
+     */
+    public void commit(String checkpoint, long count) {
+        this.checkpoint = checkpoint;
+        this.processed += count;
+        runner.saveProgress(this);
+        runner.throttle(this);
+    }
+
+    void stop() {
+        stopped = true;
+    }
+}
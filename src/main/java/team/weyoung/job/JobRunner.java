@@ -0,0 +1,253 @@
+package team.weyoung.job;
+
+import com.mybatisflex.core.query.QueryWrapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.JobConfig;
+import team.weyoung.manager.RedisLease;
+import team.weyoung.mapper.JobRunMapper;
+import team.weyoung.model.entity.JobRun;
+import team.weyoung.model.enums.JobStatusEnum;
+
+import javax.annotation.Resource;
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static team.weyoung.model.entity.table.JobRunTableDef.JOB_RUN;
+
+/**
+ * 后台任务运行器
+ * <p>
+ * 运行前获取 Redis 租约 anti-fraud:job:{name}，集群内同一任务只有一个节点在运行（节点本地任务的租约带节点名）；运行期间定时续期，
+ * 续期失败时通知任务停止。每次运行写一条 job_run 记录，上次运行未成功结束时从其检查点继续；
+ * 节点本地任务只看本进程（pid@host）的运行记录，不会接管其他节点仍在运行的记录，重启后内存状态已丢失也不会沿用旧检查点。
+ * 每批之间固定暂停，并在 Hikari 连接池繁忙时额外等待，避免后台任务占满连接影响接口
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Component
+public class JobRunner implements DisposableBean {
+
+    private static final String KEY_PREFIX = "anti-fraud:job:";
+
+    private static final int MAX_MESSAGE_LENGTH = 512;
+
+    private static final int MAX_CHECKPOINT_LENGTH = 255;
+
+    private static final long BUSY_POLL_MILLIS = 100;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    private final String node = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final Map<String, JobContext> running = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService renewScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Resource
+    private RedisLease redisLease;
+
+    @Resource
+    private JobRunMapper jobRunMapper;
+
+    @Resource
+    private JobConfig jobConfig;
+
+    @Resource
+    private DataSource dataSource;
+
+    private volatile HikariDataSource hikariDataSource;
+
+    /**
+     * 运行任务，其他节点正在运行或 Redis 不可用时直接返回
+     *
+     * @return 是否获得租约并运行
+     */
+    public boolean run(BackgroundJob job) {
+        String name = job.getName();
+        String leaseKey = job.isClusterSingleton() ? KEY_PREFIX + name : KEY_PREFIX + name + ":" + node;
+        try {
+            if (!redisLease.tryAcquire(leaseKey, owner, jobConfig.getLeaseTtlMillis())) {
+                log.debug("job is running on another node, name: {}", name);
+                return false;
+            }
+        } catch (Exception e) {
+            log.warn("acquire job lease failed, name: {}", name, e);
+            return false;
+        }
+        JobRun jobRun = null;
+        JobContext context = null;
+        ScheduledFuture<?> renewal = null;
+        try {
+            jobRun = startRun(job);
+            JobContext runContext = new JobContext(this, jobRun.getId(), jobConfig.getChunkSize(), jobRun.getCheckpoint());
+            context = runContext;
+            running.put(name, runContext);
+            long interval = jobConfig.getRenewIntervalMillis();
+            renewal = renewScheduler.scheduleWithFixedDelay(() -> renew(leaseKey, runContext),
+                    interval, interval, TimeUnit.MILLISECONDS);
+            log.info("job started, name: {}, checkpoint: {}", name, jobRun.getCheckpoint());
+            job.execute(runContext);
+            finishRun(jobRun, runContext, runContext.isStopped() ? JobStatusEnum.STOPPED : JobStatusEnum.SUCCESS, null);
+        } catch (Exception e) {
+            log.error("job failed, name: {}", name, e);
+            if (jobRun != null) {
+                finishRun(jobRun, context, JobStatusEnum.FAILED, e.toString());
+            }
+        } finally {
+            running.remove(name);
+            if (renewal != null) {
+                renewal.cancel(false);
+            }
+            redisLease.release(leaseKey, owner);
+        }
+        return true;
+    }
+
+    /**
+     * 本节点正在运行的任务
+     */
+    public boolean isRunning(String name) {
+        return running.containsKey(name);
+    }
+
+    void saveProgress(JobContext context) {
+        JobRun jobRun = new JobRun();
+        jobRun.setId(context.getRunId());
+        jobRun.setCheckpoint(StringUtils.left(context.getCheckpoint(), MAX_CHECKPOINT_LENGTH));
+        jobRun.setProcessed(context.getProcessed());
+        jobRunMapper.update(jobRun);
+    }
+
+    void throttle(JobContext context) {
+        sleep(context, jobConfig.getChunkPauseMillis());
+        HikariDataSource hikari = getHikariDataSource();
+        long deadline = System.currentTimeMillis() + jobConfig.getMaxThrottleMillis();
+        while (hikari != null && !context.isStopped() && System.currentTimeMillis() < deadline && isBusy(hikari)) {
+            sleep(context, BUSY_POLL_MILLIS);
+        }
+    }
+
+    private JobRun startRun(BackgroundJob job) {
+        String name = job.getName();
+        QueryWrapper queryWrapper = QueryWrapper.create()
+                .from(JOB_RUN)
+                .where(JOB_RUN.JOB_NAME.eq(name))
+                .and(JOB_RUN.NODE.eq(node).when(!job.isClusterSingleton()))
+                .orderBy(JOB_RUN.ID.desc())
+                .limit(1);
+        JobRun lastRun = jobRunMapper.selectOneByQuery(queryWrapper);
+        String checkpoint = null;
+        if (lastRun != null && !JobStatusEnum.SUCCESS.getValue().equals(lastRun.getStatus())) {
+            checkpoint = lastRun.getCheckpoint();
+            // 已持有租约（节点本地任务只查本节点），仍为运行中的记录只能是宕机节点留下的
+            if (JobStatusEnum.RUNNING.getValue().equals(lastRun.getStatus())) {
+                JobRun interrupted = new JobRun();
+                interrupted.setId(lastRun.getId());
+                interrupted.setStatus(JobStatusEnum.INTERRUPTED.getValue());
+                jobRunMapper.update(interrupted);
+            }
+        }
+        JobRun jobRun = new JobRun();
+        jobRun.setJobName(name);
+        jobRun.setStatus(JobStatusEnum.RUNNING.getValue());
+        jobRun.setNode(node);
+        jobRun.setProcessed(0L);
+        jobRun.setCheckpoint(checkpoint);
+        jobRun.setStartTime(new Date());
+        jobRunMapper.insert(jobRun);
+        return jobRun;
+    }
+
+    private void finishRun(JobRun jobRun, JobContext context, JobStatusEnum status, String message) {
+        Date endTime = new Date();
+        jobRun.setStatus(status.getValue());
+        if (context != null) {
+            jobRun.setProcessed(context.getProcessed());
+            // 成功后清空检查点，下次从头开始
+            jobRun.setCheckpoint(status == JobStatusEnum.SUCCESS ? null
+                    : StringUtils.left(context.getCheckpoint(), MAX_CHECKPOINT_LENGTH));
+        }
+        jobRun.setMessage(StringUtils.left(message, MAX_MESSAGE_LENGTH));
+        jobRun.setEndTime(endTime);
+        jobRun.setDurationMillis(endTime.getTime() - jobRun.getStartTime().getTime());
+        try {
+            jobRunMapper.update(jobRun, false);
+            log.info("job finished, name: {}, status: {}, processed: {}, duration: {}ms", jobRun.getJobName(),
+                    status.getValue(), jobRun.getProcessed(), jobRun.getDurationMillis());
+        } catch (Exception e) {
+            log.error("save job run failed, name: {}", jobRun.getJobName(), e);
+        }
+    }
+
+    private void renew(String leaseKey, JobContext context) {
+        try {
+            if (redisLease.renew(leaseKey, owner, jobConfig.getLeaseTtlMillis())) {
+                return;
+            }
+            log.warn("job lease lost, key: {}", leaseKey);
+        } catch (Exception e) {
+            // 无法续期时租约可能过期被其他节点接管，停止运行，由检查点恢复
+            log.warn("renew job lease failed, key: {}", leaseKey, e);
+        }
+        context.stop();
+    }
+
+    private boolean isBusy(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return false;
+        }
+        return pool.getThreadsAwaitingConnection() > 0
+                || pool.getActiveConnections() > hikari.getMaximumPoolSize() * jobConfig.getMaxPoolUsage();
+    }
+
+    private HikariDataSource getHikariDataSource() {
+        if (hikariDataSource == null) {
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    hikariDataSource = dataSource.unwrap(HikariDataSource.class);
+                }
+            } catch (SQLException e) {
+                log.debug("unwrap hikari data source failed", e);
+            }
+        }
+        return hikariDataSource;
+    }
+
+    private void sleep(JobContext context, long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            context.stop();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running.values().forEach(JobContext::stop);
+        renewScheduler.shutdownNow();
+    }
+}
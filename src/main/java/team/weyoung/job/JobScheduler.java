@@ -0,0 +1,77 @@
+package team.weyoung.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.JobConfig;
+
+import javax.annotation.Resource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 后台任务调度
+ * <p>
+ * 按 job.cron 为每个任务注册定时触发，所有节点都会触发，由 {@link JobRunner} 的租约保证只有一个节点实际运行
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Component
+public class JobScheduler implements SchedulingConfigurer {
+
+    private final Map<String, BackgroundJob> jobs = new LinkedHashMap<>();
+
+    @Resource
+    private JobRunner jobRunner;
+
+    @Resource
+    private JobConfig jobConfig;
+
+    @Resource
+    private ThreadPoolTaskScheduler jobTaskScheduler;
+
+    public JobScheduler(List<BackgroundJob> jobList) {
+        for (BackgroundJob job : jobList) {
+            jobs.put(job.getName(), job);
+        }
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.setTaskScheduler(jobTaskScheduler);
+        if (!jobConfig.isEnabled()) {
+            log.info("scheduled jobs disabled");
+            return;
+        }
+        for (BackgroundJob job : jobs.values()) {
+            String cron = jobConfig.getCron().get(job.getName());
+            if (StringUtils.isNotBlank(cron)) {
+                taskRegistrar.addCronTask(() -> jobRunner.run(job), cron);
+                log.info("job scheduled, name: {}, cron: {}", job.getName(), cron);
+            }
+        }
+    }
+
+    /**
+     * 立即在调度线程池中运行一次
+     *
+     * @return 任务不存在时返回 false
+     */
+    public boolean trigger(String name) {
+        BackgroundJob job = jobs.get(name);
+        if (job == null) {
+            return false;
+        }
+        jobTaskScheduler.execute(() -> jobRunner.run(job));
+        return true;
+    }
+
+    public Map<String, BackgroundJob> getJobs() {
+        return jobs;
+    }
+}
@@ -0,0 +1,61 @@
+package team.weyoung.job;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.JobConfig;
+import team.weyoung.mapper.LoginDailyStatMapper;
+import team.weyoung.model.entity.LoginDailyStat;
+
+import javax.annotation.Resource;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * 按天汇总登录记录到 login_daily_stat
+ * <p>
+ * 从已汇总的最新日期（当天可能未汇总完整，重新汇总）或检查点开始逐天汇总到今天，每天一批，重复汇总结果不变
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Component
+public class LoginStatRollupJob implements BackgroundJob {
+
+    private static final String DATE_PATTERN = "yyyy-MM-dd";
+
+    @Resource
+    private LoginDailyStatMapper loginDailyStatMapper;
+
+    @Resource
+    private JobConfig jobConfig;
+
+    @Override
+    public String getName() {
+        return "login-stat-rollup";
+    }
+
+    @Override
+    public void execute(JobContext context) throws ParseException {
+        Date today = DateUtils.truncate(new Date(), Calendar.DAY_OF_MONTH);
+        Date day;
+        if (context.getCheckpoint() != null) {
+            day = new SimpleDateFormat(DATE_PATTERN).parse(context.getCheckpoint());
+        } else {
+            Date latest = loginDailyStatMapper.selectLatestDate();
+            day = latest != null ? DateUtils.truncate(latest, Calendar.DAY_OF_MONTH)
+                    : DateUtils.addDays(today, -jobConfig.getStatBackfillDays());
+        }
+        while (!day.after(today) && !context.isStopped()) {
+            Date nextDay = DateUtils.addDays(day, 1);
+            LoginDailyStat stat = loginDailyStatMapper.aggregate(day, nextDay);
+            stat.setStatDate(day);
+            stat.setUpdateTime(new Date());
+            if (loginDailyStatMapper.update(stat) == 0) {
+                loginDailyStatMapper.insert(stat);
+            }
+            context.commit(new SimpleDateFormat(DATE_PATTERN).format(nextDay), 1);
+            day = nextDay;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package team.weyoung.job;
+
+import cn.dev33.satoken.stp.StpUtil;
+import com.mybatisflex.core.logicdelete.LogicDeleteManager;
+import com.mybatisflex.core.query.QueryWrapper;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.JobConfig;
+import team.weyoung.mapper.UserMapper;
+import team.weyoung.model.entity.User;
+
+import javax.annotation.Resource;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static team.weyoung.model.entity.table.UserTableDef.USER;
+
+/**
+ * 清理已删除用户的会话
+ * <p>
+ * 用户被删除后其 token 在过期前仍然有效，这里注销回看窗口内被删除用户的全部会话，检查点为已处理的最大 id
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Component
+public class StaleSessionJob implements BackgroundJob {
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private JobConfig jobConfig;
+
+    @Override
+    public String getName() {
+        return "stale-session";
+    }
+
+    @Override
+    public void execute(JobContext context) {
+        Date deletedSince = new Date(System.currentTimeMillis()
+                - TimeUnit.HOURS.toMillis(jobConfig.getSessionLookbackHours()));
+        long lastId = context.getCheckpoint() == null ? 0 : Long.parseLong(context.getCheckpoint());
+        while (!context.isStopped()) {
+            QueryWrapper queryWrapper = QueryWrapper.create()
+                    .select(USER.ID)
+                    .from(USER)
+                    .where(USER.ID.gt(lastId))
+                    .and(USER.IS_DELETE.eq(1))
+                    .and(USER.UPDATE_TIME.ge(deletedSince))
+                    .orderBy(USER.ID.asc())
+                    .limit(context.getChunkSize());
+            List<User> users = LogicDeleteManager.execWithoutLogicDelete(() -> userMapper.selectListByQuery(queryWrapper));
+            if (users.isEmpty()) {
+                return;
+            }
+            for (User user : users) {
+                StpUtil.logout(user.getId());
+            }
+            lastId = users.get(users.size() - 1).getId();
+            context.commit(String.valueOf(lastId), users.size());
+        }
+    }
+}
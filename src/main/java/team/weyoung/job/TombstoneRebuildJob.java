@@ -0,0 +1,36 @@
+package team.weyoung.job;
+
+import org.springframework.stereotype.Component;
+import team.weyoung.manager.TombstoneFilter;
+
+import javax.annotation.Resource;
+
+/**
+ * 重建已归档账号过滤器
+ * <p>
+ * 过滤器在每个节点的内存中，每个节点各自重建，补上漏收的通知并按归档量重新确定大小
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Component
+public class TombstoneRebuildJob implements BackgroundJob {
+
+    @Resource
+    private TombstoneFilter tombstoneFilter;
+
+    @Override
+    public String getName() {
+        return "tombstone-rebuild";
+    }
+
+    @Override
+    public boolean isClusterSingleton() {
+        return false;
+    }
+
+    @Override
+    public void execute(JobContext context) {
+        long count = tombstoneFilter.rebuild();
+        context.commit(null, count);
+    }
+}
@@ -0,0 +1,330 @@
+package team.weyoung.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.stereotype.Component;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.config.AnalyticsConfig;
+import team.weyoung.constant.UserConstant;
+import team.weyoung.exception.BusinessException;
+import team.weyoung.model.entity.User;
+import team.weyoung.model.enums.UserRoleEnum;
+import team.weyoung.model.vo.ActivityReportVO;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 活跃用户和独立 IP 统计
+ * <p>
+ * 请求线程只做本地去重：同一用户在同一小时内只有第一次活跃会放入无锁缓冲区，其余调用只是一次集合查找；
+ * 登录总会放入缓冲区，附带 IP。后台按 analytics.flush-interval-millis 批量取出，按 key 合并后通过一次流水线
+ * PFADD 到按小时、角色划分的 HyperLogLog，再 PFMERGE 汇总到当天和当月；IP 写入当天的全局和账号级 HyperLogLog。
+ * 查询时 PFCOUNT 多个角色的 key 即为并集，报告通过一次流水线取回
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Component
+public class ActivityAnalytics {
+
+    private static final String KEY_PREFIX = "anti-fraud:analytics:";
+
+    private static final String HOUR_PREFIX = KEY_PREFIX + "hau:";
+
+    private static final String DAY_PREFIX = KEY_PREFIX + "dau:";
+
+    private static final String MONTH_PREFIX = KEY_PREFIX + "mau:";
+
+    private static final String IP_PREFIX = KEY_PREFIX + "ip:";
+
+    private static final String ACCOUNT_IP_PREFIX = KEY_PREFIX + "account-ip:";
+
+    private static final DateTimeFormatter HOUR_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHH");
+
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final int HOURS_PER_DAY = 24;
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder flushFailureCount = new LongAdder();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "analytics-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 当前小时（自 1970 年起的小时数）内已记录过的用户，换小时时整体替换
+     */
+    private volatile Set<Long> seenThisHour = ConcurrentHashMap.newKeySet();
+
+    private volatile long currentHour;
+
+    private MpscRingBuffer<Activity> buffer;
+
+    @Resource
+    private AnalyticsConfig analyticsConfig;
+
+    @Resource
+    private RedisBulkOperations redisBulkOperations;
+
+    @PostConstruct
+    public void init() {
+        buffer = new MpscRingBuffer<>(analyticsConfig.getQueueCapacity());
+        long interval = analyticsConfig.getFlushIntervalMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdown();
+        // 缓冲区只能由一个线程消费，等进行中的定时刷新结束后再做最后一次刷新
+        try {
+            if (!scheduler.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("analytics flush still running after {}s, skip final flush", SHUTDOWN_TIMEOUT_SECONDS);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        flushQuietly();
+    }
+
+    /**
+     * 记录一次已登录请求，同一用户每小时只记录一次
+     */
+    public void recordActive(User user) {
+        if (!analyticsConfig.isEnabled() || user == null || user.getId() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long hour = now / HOUR_MILLIS;
+        Set<Long> seen = hour == currentHour ? seenThisHour : rollover(hour);
+        if (seen.add(user.getId())) {
+            offer(new Activity(user.getId(), user.getUserRole(), null, now));
+        }
+    }
+
+    /**
+     * 记录一次登录及其 IP
+     */
+    public void recordLogin(User user, String ip) {
+        if (!analyticsConfig.isEnabled() || user == null || user.getId() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long hour = now / HOUR_MILLIS;
+        Set<Long> seen = hour == currentHour ? seenThisHour : rollover(hour);
+        seen.add(user.getId());
+        offer(new Activity(user.getId(), user.getUserRole(), StringUtils.trimToNull(ip), now));
+    }
+
+    /**
+     * 活跃用户报告
+     *
+     * @param day 日期 yyyyMMdd，为空时取当天
+     */
+    public ActivityReportVO getReport(String day) {
+        LocalDate date = parseDay(day);
+        String reportDay = date.format(DAY_FORMATTER);
+        String month = date.format(MONTH_FORMATTER);
+        List<String> roles = UserRoleEnum.getValues();
+        List<Object> replies = redisBulkOperations.pipelined(connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            stringConnection.pfCount(roleKeys(DAY_PREFIX + reportDay, roles));
+            for (String role : roles) {
+                stringConnection.pfCount(DAY_PREFIX + reportDay + ":" + role);
+            }
+            for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                stringConnection.pfCount(roleKeys(HOUR_PREFIX + date.atTime(hour, 0).format(HOUR_FORMATTER), roles));
+            }
+            stringConnection.pfCount(roleKeys(MONTH_PREFIX + month, roles));
+            stringConnection.pfCount(IP_PREFIX + reportDay);
+            return null;
+        });
+        int index = 0;
+        ActivityReportVO reportVO = new ActivityReportVO();
+        reportVO.setDate(reportDay);
+        reportVO.setDailyActiveUsers(count(replies.get(index++)));
+        Map<String, Long> byRole = new LinkedHashMap<>();
+        for (String role : roles) {
+            byRole.put(role, count(replies.get(index++)));
+        }
+        reportVO.setDailyActiveUsersByRole(byRole);
+        List<Long> hourly = new ArrayList<>(HOURS_PER_DAY);
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+            hourly.add(count(replies.get(index++)));
+        }
+        reportVO.setHourlyActiveUsers(hourly);
+        reportVO.setMonthlyActiveUsers(count(replies.get(index++)));
+        reportVO.setUniqueIps(count(replies.get(index)));
+        reportVO.setDroppedCount(droppedCount.sum());
+        reportVO.setFlushFailureCount(flushFailureCount.sum());
+        return reportVO;
+    }
+
+    /**
+     * 账号在截至 day 的最近 days 天内登录过的独立 IP 数
+     */
+    public long countAccountIps(long userId, String day, int days) {
+        LocalDate date = parseDay(day);
+        String[] keys = new String[days];
+        for (int i = 0; i < days; i++) {
+            keys[i] = ACCOUNT_IP_PREFIX + date.minusDays(i).format(DAY_FORMATTER) + ":" + userId;
+        }
+        List<Object> replies = redisBulkOperations.pipelined(connection -> {
+            ((StringRedisConnection) connection).pfCount(keys);
+            return null;
+        });
+        return count(replies.get(0));
+    }
+
+    private synchronized Set<Long> rollover(long hour) {
+        if (hour != currentHour) {
+            // 先替换集合再发布小时，读到新小时的线程一定看到新集合
+            seenThisHour = ConcurrentHashMap.newKeySet();
+            currentHour = hour;
+        }
+        return seenThisHour;
+    }
+
+    private void offer(Activity activity) {
+        if (!buffer.offer(activity)) {
+            droppedCount.increment();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("analytics flush failed", e);
+        }
+    }
+
+    private void flush() {
+        List<Activity> activities = new ArrayList<>();
+        buffer.drainTo(activities, buffer.capacity());
+        if (activities.isEmpty()) {
+            return;
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        // 小时 key -> 用户 id，以及该小时 key 要汇总到的当天、当月 key
+        Map<String, Set<String>> hourUsers = new HashMap<>();
+        Map<String, String[]> rollups = new HashMap<>();
+        Map<String, Set<String>> ips = new HashMap<>();
+        for (Activity activity : activities) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(activity.time), zone);
+            String role = activity.role == null ? UserConstant.DEFAULT_ROLE : activity.role;
+            String day = time.format(DAY_FORMATTER);
+            String hourKey = HOUR_PREFIX + time.format(HOUR_FORMATTER) + ":" + role;
+            hourUsers.computeIfAbsent(hourKey, key -> new HashSet<>()).add(String.valueOf(activity.userId));
+            rollups.computeIfAbsent(hourKey, key -> new String[]{DAY_PREFIX + day + ":" + role,
+                    MONTH_PREFIX + time.format(MONTH_FORMATTER) + ":" + role});
+            if (activity.ip != null) {
+                ips.computeIfAbsent(IP_PREFIX + day, key -> new HashSet<>()).add(activity.ip);
+                ips.computeIfAbsent(ACCOUNT_IP_PREFIX + day + ":" + activity.userId, key -> new HashSet<>()).add(activity.ip);
+            }
+        }
+        long hourTtl = TimeUnit.DAYS.toSeconds(analyticsConfig.getHourRetentionDays());
+        long dayTtl = TimeUnit.DAYS.toSeconds(analyticsConfig.getDayRetentionDays());
+        long monthTtl = TimeUnit.DAYS.toSeconds(analyticsConfig.getMonthRetentionDays());
+        try {
+            // 同一连接上按顺序执行，PFMERGE 能看到前面 PFADD 的结果
+            redisBulkOperations.pipelined(connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                hourUsers.forEach((hourKey, userIds) -> {
+                    stringConnection.pfAdd(hourKey, userIds.toArray(new String[0]));
+                    stringConnection.expire(hourKey, hourTtl);
+                });
+                rollups.forEach((hourKey, targets) -> {
+                    stringConnection.pfMerge(targets[0], hourKey);
+                    stringConnection.expire(targets[0], dayTtl);
+                    stringConnection.pfMerge(targets[1], targets[0]);
+                    stringConnection.expire(targets[1], monthTtl);
+                });
+                ips.forEach((key, values) -> {
+                    stringConnection.pfAdd(key, values.toArray(new String[0]));
+                    stringConnection.expire(key, dayTtl);
+                });
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // PFADD 是幂等的，放回缓冲区下次重试，放不下的计为丢弃
+            activities.forEach(this::offer);
+            flushFailureCount.increment();
+            log.warn("analytics flush failed, {} activities requeued: {}", activities.size(), e.getMessage());
+        }
+    }
+
+    private static LocalDate parseDay(String day) {
+        if (StringUtils.isBlank(day)) {
+            return LocalDate.now();
+        }
+        try {
+            return LocalDate.parse(day, DAY_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new BusinessException(HttpCodeEnum.PARAMS_ERROR, "日期格式应为 yyyyMMdd");
+        }
+    }
+
+    private static String[] roleKeys(String prefix, List<String> roles) {
+        String[] keys = new String[roles.size()];
+        for (int i = 0; i < roles.size(); i++) {
+            keys[i] = prefix + ":" + roles.get(i);
+        }
+        return keys;
+    }
+
+    private static Long count(Object reply) {
+        return reply instanceof Long ? (Long) reply : 0L;
+    }
+
+    private static class Activity {
+
+        private final long userId;
+
+        private final String role;
+
+        private final String ip;
+
+        private final long time;
+
+        private Activity(long userId, String role, String ip, long time) {
+            this.userId = userId;
+            this.role = role;
+            this.ip = ip;
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package team.weyoung.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import team.weyoung.model.vo.WriterMetricsVO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 异步批量写入器
+ * <p>
+ * 请求线程只把记录放入无锁环形缓冲区，缓冲区满时直接丢弃并计数，不会阻塞也不会竞争锁；
+ * 单个后台线程取出当前积压的记录（最多 batchSize 条）一次写入，写入越慢每批越大，吞吐随负载自动提升。
+ * 空闲时后台线程逐步退避休眠，最长 {@value #MAX_IDLE_PARK_MILLIS}ms
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+public class AsyncBatchWriter<T> {
+
+    private static final long MAX_IDLE_PARK_MILLIS = 10;
+
+    private static final int IDLE_SPINS = 100;
+
+    private final String name;
+
+    private final MpscRingBuffer<T> buffer;
+
+    private final int batchSize;
+
+    private final Consumer<List<T>> sink;
+
+    private final Thread worker;
+
+    private final LongAdder offeredCount = new LongAdder();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder writtenCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    private final LongAdder batchCount = new LongAdder();
+
+    /**
+     * 积压条数的最大值，接近容量说明写入跟不上
+     */
+    private final LongAccumulator maxQueued = new LongAccumulator(Math::max, 0);
+
+    private volatile boolean running = true;
+
+    /**
+     * @param name      名称，用于线程名和监控
+     * @param capacity  缓冲区容量，向上取整为 2 的幂
+     * @param batchSize 每批最多写入条数
+     * @param sink      批量写入逻辑，抛出异常时该批记录计为失败
+     */
+    public AsyncBatchWriter(String name, int capacity, int batchSize, Consumer<List<T>> sink) {
+        this.name = name;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.sink = sink;
+        this.worker = new Thread(this::run, name + "-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 提交一条记录
+     *
+     * @return 缓冲区已满被丢弃时返回 false
+     */
+    public boolean offer(T item) {
+        if (running && buffer.offer(item)) {
+            offeredCount.increment();
+            return true;
+        }
+        droppedCount.increment();
+        return false;
+    }
+
+    /**
+     * 停止接收新记录，写完队列中的剩余记录后退出
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (buffer.size() > 0) {
+            log.warn("{} writer stopped with {} records unwritten", name, buffer.size());
+        }
+    }
+
+    public WriterMetricsVO getMetrics() {
+        WriterMetricsVO metricsVO = new WriterMetricsVO();
+        metricsVO.setName(name);
+        metricsVO.setCapacity(buffer.capacity());
+        metricsVO.setQueued(buffer.size());
+        metricsVO.setMaxQueued(maxQueued.get());
+        metricsVO.setOffered(offeredCount.sum());
+        metricsVO.setDropped(droppedCount.sum());
+        metricsVO.setWritten(writtenCount.sum());
+        metricsVO.setFailed(failedCount.sum());
+        metricsVO.setBatches(batchCount.sum());
+        return metricsVO;
+    }
+
+    private void run() {
+        List<T> batch = new ArrayList<>(batchSize);
+        int idle = 0;
+        while (running || buffer.size() > 0) {
+            maxQueued.accumulate(buffer.size());
+            if (buffer.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+                idle = 0;
+                continue;
+            }
+            if (++idle <= IDLE_SPINS) {
+                Thread.yield();
+            } else {
+                long parkMillis = Math.min(idle - IDLE_SPINS, MAX_IDLE_PARK_MILLIS);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(parkMillis));
+            }
+        }
+    }
+
+    private void write(List<T> batch) {
+        try {
+            sink.accept(batch);
+            writtenCount.add(batch.size());
+            batchCount.increment();
+        } catch (Exception e) {
+            failedCount.add(batch.size());
+            log.error("{} writer failed to write {} records", name, batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package team.weyoung.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.NearCacheConfig;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 本地缓存的集群失效通知
+ * <p>
+ * 通过 Redis 发布订阅广播失效的 key，消息格式为 节点id|缓存名|key，节点忽略自己发出的消息。
+ * 发布订阅不保证送达，各本地缓存仍需设置较短的过期时间兜底
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus implements MessageListener {
+
+    private static final String SEPARATOR = "|";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, Consumer<String>> handlers = new ConcurrentHashMap<>();
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Resource
+    private NearCacheConfig nearCacheConfig;
+
+    @PostConstruct
+    public void subscribe() {
+        if (!nearCacheConfig.isPubSubEnabled()) {
+            return;
+        }
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(nearCacheConfig.getChannel()));
+    }
+
+    /**
+     * 注册收到其他节点失效通知时的处理逻辑
+     */
+    public void register(String cacheName, Consumer<String> handler) {
+        handlers.put(cacheName, handler);
+    }
+
+    /**
+     * 通知其他节点失效 key
+     */
+    public void publish(String cacheName, String key) {
+        if (!nearCacheConfig.isPubSubEnabled()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(nearCacheConfig.getChannel(), nodeId + SEPARATOR + cacheName + SEPARATOR + key);
+        } catch (Exception e) {
+            // 通知失败时依赖本地缓存过期兜底
+            log.warn("publish cache invalidation failed, cache: {}, key: {}", cacheName, key, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int first = body.indexOf(SEPARATOR);
+        int second = body.indexOf(SEPARATOR, first + 1);
+        if (first < 0 || second < 0 || nodeId.equals(body.substring(0, first))) {
+            return;
+        }
+        Consumer<String> handler = handlers.get(body.substring(first + 1, second));
+        if (handler != null) {
+            handler.accept(body.substring(second + 1));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package team.weyoung.manager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.DeviceConfig;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 设备 -> 近期登录账号的本地 LRU
+ * <p>
+ * 风险判断（如一小时内同一设备登录了 30 个账号）直接查内存，不访问数据库。
+ * 启动时由 {@code DeviceLoginService} 从登录记录表预热，其他节点的登录通过 {@link CacheInvalidationBus} 同步；
+ * 通知不保证送达，丢失时各节点的计数可能偏少。预热、远端通知的登录时间可能早于已记录的，按时间有序插入
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Component
+public class DeviceLoginTracker {
+
+    private final Cache<String, DeviceAccounts> devices;
+
+    private final long windowMillis;
+
+    private final int maxAccountsPerDevice;
+
+    public DeviceLoginTracker(DeviceConfig deviceConfig) {
+        this.windowMillis = TimeUnit.MINUTES.toMillis(deviceConfig.getWindowMinutes());
+        this.maxAccountsPerDevice = deviceConfig.getMaxAccountsPerDevice();
+        this.devices = Caffeine.newBuilder()
+                .maximumSize(deviceConfig.getTrackerMaximumSize())
+                .expireAfterAccess(windowMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * 记录一次登录
+     *
+     * @return 窗口内该设备登录过的账号数
+     */
+    public int record(String deviceId, long userId, long loginTimeMillis) {
+        DeviceAccounts accounts = devices.get(deviceId, key -> new DeviceAccounts());
+        return accounts.record(userId, loginTimeMillis, System.currentTimeMillis() - windowMillis,
+                maxAccountsPerDevice);
+    }
+
+    /**
+     * 窗口内该设备登录过的账号及最近登录时间，按登录时间升序
+     */
+    public Map<Long, Long> getRecentAccounts(String deviceId) {
+        DeviceAccounts accounts = devices.getIfPresent(deviceId);
+        if (accounts == null) {
+            return new LinkedHashMap<>();
+        }
+        return accounts.snapshot(System.currentTimeMillis() - windowMillis);
+    }
+
+    /**
+     * 已跟踪的设备数
+     */
+    public long size() {
+        return devices.estimatedSize();
+    }
+
+    private static class DeviceAccounts {
+
+        /**
+         * 账号 -> 最近登录时间，按登录时间升序，头部最旧
+         */
+        private final LinkedHashMap<Long, Long> lastLogin = new LinkedHashMap<>();
+
+        /**
+         * 已记录的最大登录时间，不早于它的登录直接追加到尾部
+         */
+        private long newest = Long.MIN_VALUE;
+
+        private synchronized int record(long userId, long loginTimeMillis, long since, int maxAccounts) {
+            Long previous = lastLogin.remove(userId);
+            long time = previous == null ? loginTimeMillis : Math.max(previous, loginTimeMillis);
+            if (time >= newest) {
+                lastLogin.put(userId, time);
+                newest = time;
+            } else {
+                insertOrdered(userId, time);
+            }
+            prune(since);
+            while (lastLogin.size() > maxAccounts) {
+                Iterator<Long> iterator = lastLogin.keySet().iterator();
+                iterator.next();
+                iterator.remove();
+            }
+            return lastLogin.size();
+        }
+
+        private synchronized Map<Long, Long> snapshot(long since) {
+            prune(since);
+            return new LinkedHashMap<>(lastLogin);
+        }
+
+        /**
+         * 取出比 time 新的尾部，插入后再放回
+         */
+        private void insertOrdered(long userId, long time) {
+            List<Map.Entry<Long, Long>> newer = new ArrayList<>();
+            Iterator<Map.Entry<Long, Long>> iterator = lastLogin.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, Long> entry = iterator.next();
+                if (entry.getValue() > time) {
+                    newer.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+                    iterator.remove();
+                }
+            }
+            lastLogin.put(userId, time);
+            for (Map.Entry<Long, Long> entry : newer) {
+                lastLogin.put(entry.getKey(), entry.getValue());
+            }
+            if (newer.isEmpty()) {
+                newest = time;
+            }
+        }
+
+        private void prune(long since) {
+            Iterator<Map.Entry<Long, Long>> iterator = lastLogin.entrySet().iterator();
+            while (iterator.hasNext() && iterator.next().getValue() < since) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package team.weyoung.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.time.DateUtils;
+import org.springframework.stereotype.Component;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.config.EventRollupConfig;
+import team.weyoung.exception.ThrowUtils;
+import team.weyoung.mapper.EventRollupMapper;
+import team.weyoung.model.entity.EventRollup;
+import team.weyoung.model.enums.EventMetricEnum;
+import team.weyoung.model.enums.RollupGranularityEnum;
+import team.weyoung.model.vo.EventSeriesVO;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 注册、登录失败、封号的时间序列计数
+ * <p>
+ * 每个指标一个按分钟的环形数组，槽位是 LongAdder，请求线程只做一次分段累加，不访问数据库和 Redis。
+ * 后台按 event-rollup.flush-interval-millis 把已结束的分钟取出清零，保存到同一槽位的历史值供按分钟查询，
+ * 并累加到本进程所属小时、天的总数。每个进程（pid@host 加启动时间）在 event_rollup 中有自己的行，
+ * 批量 INSERT ... ON DUPLICATE KEY UPDATE 写入的是总数而不是增量，写入超时后重试也不会重复计数；失败的时间段留到下次一起写。
+ * 按小时、天查询按主键范围读 event_rollup 并对各进程求和，不扫描 user 表；按分钟查询读内存，只含本节点、最近 ring-minutes 分钟
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Component
+public class EventCounter {
+
+    private static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final int MAX_NODE_LENGTH = 48;
+
+    /**
+     * 进程标识，重启后不同，新进程不会覆盖旧进程已写入的总数
+     */
+    private final String node;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-rollup-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 按指标序号
+     */
+    private final MinuteRing[] rings = new MinuteRing[EventMetricEnum.values().length];
+
+    /**
+     * 本进程各时间段的累计次数，只在刷新时访问；已结束且已写入的时间段会被移除
+     */
+    private final Map<RollupKey, Long> totals = new HashMap<>();
+
+    /**
+     * 总数变化后尚未写入数据库的时间段
+     */
+    private final Set<RollupKey> dirty = new LinkedHashSet<>();
+
+    /**
+     * 已取出的最后一分钟（自 1970 年起的分钟数），之后的分钟仍在累加
+     */
+    private volatile long flushedMinute;
+
+    @Resource
+    private EventRollupConfig eventRollupConfig;
+
+    @Resource
+    private EventRollupMapper eventRollupMapper;
+
+    public EventCounter() {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        node = StringUtils.left(runtime.getName(), MAX_NODE_LENGTH) + "-" + runtime.getStartTime();
+    }
+
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < rings.length; i++) {
+            rings[i] = new MinuteRing(eventRollupConfig.getRingMinutes());
+        }
+        flushedMinute = System.currentTimeMillis() / MINUTE_MILLIS - 1;
+        long interval = eventRollupConfig.getFlushIntervalMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdown();
+        // 停机时当前分钟也一并写入
+        flushQuietly(System.currentTimeMillis() / MINUTE_MILLIS + 1);
+    }
+
+    /**
+     * 记录一次事件
+     */
+    public void record(EventMetricEnum metric) {
+        add(metric, 1);
+    }
+
+    /**
+     * 记录多次事件
+     */
+    public void add(EventMetricEnum metric, long count) {
+        if (!eventRollupConfig.isEnabled() || count <= 0) {
+            return;
+        }
+        rings[metric.ordinal()].add(System.currentTimeMillis() / MINUTE_MILLIS, count);
+    }
+
+    /**
+     * 最近 buckets 个时间段（含当前时间段）的次数
+     */
+    public EventSeriesVO getSeries(String metricValue, String granularityValue, int buckets) {
+        EventMetricEnum metric = EventMetricEnum.getEnumByValue(metricValue);
+        RollupGranularityEnum granularity = RollupGranularityEnum.getEnumByValue(granularityValue);
+        ThrowUtils.throwIf(metric == null || granularity == null, HttpCodeEnum.PARAMS_ERROR);
+        ThrowUtils.throwIf(buckets <= 0 || buckets > eventRollupConfig.getMaxQueryBuckets(), HttpCodeEnum.PARAMS_ERROR);
+        EventSeriesVO seriesVO = new EventSeriesVO();
+        seriesVO.setMetric(metric.getValue());
+        seriesVO.setGranularity(granularity.getValue());
+        if (granularity == RollupGranularityEnum.MINUTE) {
+            ThrowUtils.throwIf(buckets > eventRollupConfig.getRingMinutes(), HttpCodeEnum.PARAMS_ERROR,
+                    "按分钟最多查询最近 " + eventRollupConfig.getRingMinutes() + " 分钟");
+            long currentMinute = System.currentTimeMillis() / MINUTE_MILLIS;
+            long firstMinute = currentMinute - buckets + 1;
+            MinuteRing ring = rings[metric.ordinal()];
+            long flushed = flushedMinute;
+            List<Long> counts = new ArrayList<>(buckets);
+            for (long minute = firstMinute; minute <= currentMinute; minute++) {
+                counts.add(minute > flushed ? ring.live(minute) : ring.history(minute));
+            }
+            seriesVO.setStart(new Date(firstMinute * MINUTE_MILLIS));
+            seriesVO.setCounts(counts);
+            return seriesVO;
+        }
+        Date start = bucketStart(new Date(), granularity);
+        start = granularity == RollupGranularityEnum.HOUR
+                ? DateUtils.addHours(start, 1 - buckets) : DateUtils.addDays(start, 1 - buckets);
+        Map<Long, Long> stored = new HashMap<>();
+        for (EventRollup rollup : eventRollupMapper.sumByBucket(metric.getValue(), granularity.getValue(), start)) {
+            stored.put(rollup.getBucketTime().getTime(), rollup.getEventCount());
+        }
+        List<Long> counts = new ArrayList<>(buckets);
+        Date bucket = start;
+        for (int i = 0; i < buckets; i++) {
+            counts.add(stored.getOrDefault(bucket.getTime(), 0L));
+            bucket = granularity == RollupGranularityEnum.HOUR ? DateUtils.addHours(bucket, 1) : DateUtils.addDays(bucket, 1);
+        }
+        seriesVO.setStart(start);
+        seriesVO.setCounts(counts);
+        return seriesVO;
+    }
+
+    private void flushQuietly() {
+        flushQuietly(System.currentTimeMillis() / MINUTE_MILLIS);
+    }
+
+    /**
+     * 取出 untilMinute 之前已结束的分钟并写入数据库
+     */
+    private synchronized void flushQuietly(long untilMinute) {
+        try {
+            // 落后超过一圈时更早的分钟已与新分钟共用槽位，计入新分钟
+            long minute = Math.max(flushedMinute + 1, untilMinute - eventRollupConfig.getRingMinutes());
+            for (; minute < untilMinute; minute++) {
+                Date time = new Date(minute * MINUTE_MILLIS);
+                for (EventMetricEnum metric : EventMetricEnum.values()) {
+                    long count = rings[metric.ordinal()].complete(minute);
+                    if (count > 0) {
+                        accumulate(new RollupKey(metric, RollupGranularityEnum.HOUR,
+                                bucketStart(time, RollupGranularityEnum.HOUR)), count);
+                        accumulate(new RollupKey(metric, RollupGranularityEnum.DAY,
+                                bucketStart(time, RollupGranularityEnum.DAY)), count);
+                    }
+                }
+                flushedMinute = minute;
+            }
+            if (!dirty.isEmpty()) {
+                List<EventRollup> rollups = new ArrayList<>(dirty.size());
+                Date now = new Date();
+                for (RollupKey key : dirty) {
+                    EventRollup rollup = new EventRollup();
+                    rollup.setMetric(key.metric.getValue());
+                    rollup.setGranularity(key.granularity.getValue());
+                    rollup.setBucketTime(key.bucketTime);
+                    rollup.setNode(node);
+                    rollup.setEventCount(totals.get(key));
+                    rollup.setUpdateTime(now);
+                    rollups.add(rollup);
+                }
+                eventRollupMapper.upsertAll(rollups);
+                dirty.clear();
+            }
+            // 之后取出的分钟都不早于 untilMinute 所在的小时和天，更早的时间段不会再变化
+            Date current = new Date(untilMinute * MINUTE_MILLIS);
+            Date currentHour = bucketStart(current, RollupGranularityEnum.HOUR);
+            Date currentDay = bucketStart(current, RollupGranularityEnum.DAY);
+            totals.keySet().removeIf(key -> !dirty.contains(key)
+                    && key.bucketTime.before(key.granularity == RollupGranularityEnum.HOUR ? currentHour : currentDay));
+        } catch (Exception e) {
+            log.error("event rollup flush failed, pending buckets: {}", dirty.size(), e);
+        }
+    }
+
+    private void accumulate(RollupKey key, long count) {
+        totals.merge(key, count, Long::sum);
+        dirty.add(key);
+    }
+
+    private static Date bucketStart(Date time, RollupGranularityEnum granularity) {
+        return DateUtils.truncate(time, granularity == RollupGranularityEnum.HOUR ? Calendar.HOUR_OF_DAY : Calendar.DAY_OF_MONTH);
+    }
+
+    /**
+     * 单个指标的分钟环：live 累加进行中的分钟，history 保存已取出分钟的次数及其分钟号
+     */
+    private static class MinuteRing {
+
+        private final LongAdder[] live;
+
+        private final AtomicLongArray history;
+
+        private final AtomicLongArray historyMinute;
+
+        private MinuteRing(int size) {
+            live = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                live[i] = new LongAdder();
+            }
+            history = new AtomicLongArray(size);
+            historyMinute = new AtomicLongArray(size);
+        }
+
+        private void add(long minute, long count) {
+            live[slot(minute)].add(count);
+        }
+
+        private long live(long minute) {
+            return live[slot(minute)].sum();
+        }
+
+        private long history(long minute) {
+            int slot = slot(minute);
+            return historyMinute.get(slot) == minute ? history.get(slot) : 0;
+        }
+
+        /**
+         * 取出并清零一分钟的次数，只由刷新线程调用
+         */
+        private long complete(long minute) {
+            int slot = slot(minute);
+            long count = live[slot].sumThenReset();
+            historyMinute.set(slot, -1);
+            history.set(slot, count);
+            historyMinute.set(slot, minute);
+            return count;
+        }
+
+        private int slot(long minute) {
+            return (int) (minute % live.length);
+        }
+    }
+
+    private static class RollupKey {
+
+        private final EventMetricEnum metric;
+
+        private final RollupGranularityEnum granularity;
+
+        private final Date bucketTime;
+
+        private RollupKey(EventMetricEnum metric, RollupGranularityEnum granularity, Date bucketTime) {
+            this.metric = metric;
+            this.granularity = granularity;
+            this.bucketTime = bucketTime;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RollupKey)) {
+                return false;
+            }
+            RollupKey that = (RollupKey) o;
+            return metric == that.metric && granularity == that.granularity && bucketTime.equals(that.bucketTime);
+        }
+
+        @Override
+        public int hashCode() {
+            return (metric.hashCode() * 31 + granularity.hashCode()) * 31 + bucketTime.hashCode();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package team.weyoung.manager;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.mybatisflex.core.util.StringUtil;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.exception.ThrowUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 稀疏字段集缓存
+ * <p>
+ * 把 ?fields=id,userName 这样的参数解析为字段集，并预先生成对应的 Jackson 过滤器和查询列，
+ * 同一个 fields 参数只解析一次。视图类需标注 {@link JsonFilter}，字段名与实体属性名一致，查询列按驼峰转下划线得到
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class FieldSetCache {
+
+    /**
+     * 缓存的字段集上限，超过后新组合每次现算，避免随意拼接的参数撑大缓存
+     */
+    private static final int MAX_CACHED = 256;
+
+    private static final String FIELD_SEPARATOR = ",";
+
+    private final String filterId;
+
+    private final Set<String> allowedFields;
+
+    private final ConcurrentMap<String, FieldSet> cache = new ConcurrentHashMap<>();
+
+    public FieldSetCache(Class<?> viewClass) {
+        JsonFilter jsonFilter = viewClass.getAnnotation(JsonFilter.class);
+        if (jsonFilter == null) {
+            throw new IllegalArgumentException(viewClass.getName() + " 未标注 @JsonFilter");
+        }
+        this.filterId = jsonFilter.value();
+        Set<String> fields = new LinkedHashSet<>();
+        for (Field field : viewClass.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fields.add(field.getName());
+            }
+        }
+        this.allowedFields = Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * 获取字段集，未指定字段时返回 null（输出全部字段）
+     *
+     * @throws team.weyoung.exception.BusinessException 包含视图中不存在的字段
+     */
+    public FieldSet get(String fields) {
+        if (StringUtils.isBlank(fields)) {
+            return null;
+        }
+        FieldSet fieldSet = cache.get(fields);
+        if (fieldSet != null) {
+            return fieldSet;
+        }
+        fieldSet = build(fields);
+        if (cache.size() < MAX_CACHED) {
+            FieldSet existing = cache.putIfAbsent(fields, fieldSet);
+            return existing == null ? fieldSet : existing;
+        }
+        return fieldSet;
+    }
+
+    public Set<String> getAllowedFields() {
+        return allowedFields;
+    }
+
+    private FieldSet build(String fields) {
+        Set<String> selected = new TreeSet<>();
+        for (String field : fields.split(FIELD_SEPARATOR)) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            ThrowUtils.throwIf(!allowedFields.contains(name), HttpCodeEnum.PARAMS_ERROR, "不支持的字段：" + name);
+            selected.add(name);
+        }
+        ThrowUtils.throwIf(selected.isEmpty(), HttpCodeEnum.PARAMS_ERROR);
+        String[] columns = selected.stream().map(StringUtil::camelToUnderline).toArray(String[]::new);
+        FilterProvider filterProvider = new SimpleFilterProvider()
+                .addFilter(filterId, SimpleBeanPropertyFilter.filterOutAllExcept(selected));
+        return new FieldSet(String.join(FIELD_SEPARATOR, selected), Collections.unmodifiableSet(selected),
+                columns, filterProvider);
+    }
+
+    /**
+     * 解析后的字段集，不可变
+     */
+    @Getter
+    public static class FieldSet {
+
+        /**
+         * 排序后的字段名，与参数中的顺序无关，可用于 ETag
+         */
+        private final String key;
+
+        private final Set<String> fields;
+
+        /**
+         * 查询列
+         */
+        private final String[] columns;
+
+        /**
+         * 只输出选中字段的过滤器
+         */
+        private final FilterProvider filterProvider;
+
+        private FieldSet(String key, Set<String> fields, String[] columns, FilterProvider filterProvider) {
+            this.key = key;
+            this.fields = fields;
+            this.columns = columns;
+            this.filterProvider = filterProvider;
+        }
+    }
+}
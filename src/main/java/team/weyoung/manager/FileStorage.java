@@ -0,0 +1,34 @@
+package team.weyoung.manager;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 文件存储
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public interface FileStorage {
+
+    /**
+     * 流式写入文件，不会把文件整体读入内存
+     *
+     * @param key         文件路径
+     * @param inputStream 文件内容
+     * @param size        文件大小
+     * @param contentType 文件类型
+     */
+    void putObject(String key, InputStream inputStream, long size, String contentType) throws IOException;
+
+    /**
+     * 文件是否存在
+     */
+    boolean exists(String key);
+
+    /**
+     * 读取文件
+     *
+     * @return 文件不存在时返回 null
+     */
+    StoredFile getObject(String key) throws IOException;
+}
@@ -0,0 +1,117 @@
+package team.weyoung.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.IdGeneratorConfig;
+
+import javax.annotation.Resource;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 雪花算法 workerId 租约
+ * <p>
+ * 启动时从随机位置开始依次尝试占用 anti-fraud:id-worker:{0-1023}，之后定时续期；
+ * 续期失败（租约被他人接管）时重新租用新的 workerId。本地记录租约有效期，
+ * Redis 长时间不可用导致无法续期时生成器停止发号，避免租约过期被其他节点接管后出现重复 id
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Component
+public class IdWorkerLease implements DisposableBean {
+
+    private static final String KEY_PREFIX = "anti-fraud:id-worker:";
+
+    /**
+     * 本地有效期比 Redis 中的 TTL 提前结束，抵消节点间的时钟误差
+     */
+    private static final long SAFETY_MARGIN_MILLIS = 5000;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "id-worker-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Resource
+    private RedisLease redisLease;
+
+    @Resource
+    private IdGeneratorConfig idGeneratorConfig;
+
+    private volatile int workerId = -1;
+
+    /**
+     * 为生成器分配 workerId，配置了固定 workerId 时不租用
+     */
+    public void start(SnowflakeIdGenerator generator) {
+        if (idGeneratorConfig.getWorkerId() >= 0) {
+            generator.setWorker(idGeneratorConfig.getWorkerId(), Long.MAX_VALUE);
+            log.info("snowflake id generator started with fixed workerId: {}", idGeneratorConfig.getWorkerId());
+            return;
+        }
+        if (!acquire(generator)) {
+            throw new IllegalStateException("no snowflake workerId available in redis");
+        }
+        long interval = idGeneratorConfig.getRenewIntervalMillis();
+        scheduler.scheduleWithFixedDelay(() -> renew(generator), interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean acquire(SnowflakeIdGenerator generator) {
+        int total = SnowflakeIdGenerator.MAX_WORKER_ID + 1;
+        int offset = workerId >= 0 ? workerId : ThreadLocalRandom.current().nextInt(total);
+        try {
+            for (int i = 0; i < total; i++) {
+                int candidate = (offset + i) % total;
+                long now = System.currentTimeMillis();
+                if (redisLease.tryAcquire(KEY_PREFIX + candidate, owner, idGeneratorConfig.getLeaseTtlMillis())) {
+                    workerId = candidate;
+                    generator.setWorker(candidate, validUntil(now));
+                    log.info("snowflake workerId leased: {}", candidate);
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("lease snowflake workerId failed", e);
+        }
+        return false;
+    }
+
+    private void renew(SnowflakeIdGenerator generator) {
+        long now = System.currentTimeMillis();
+        try {
+            if (redisLease.renew(KEY_PREFIX + workerId, owner, idGeneratorConfig.getLeaseTtlMillis())) {
+                generator.extendValidity(validUntil(now));
+                return;
+            }
+        } catch (Exception e) {
+            // Redis 不可用：保持现状，等待下次续期，本地有效期耗尽后生成器自动停止发号
+            log.warn("renew snowflake workerId lease failed, workerId: {}", workerId, e);
+            return;
+        }
+        // 租约已过期或被他人持有：优先重新占用原 workerId，否则换一个
+        log.warn("snowflake workerId lease lost, workerId: {}", workerId);
+        if (!acquire(generator)) {
+            log.error("no snowflake workerId available in redis, id generation will stop when lease expires");
+        }
+    }
+
+    private long validUntil(long leasedAt) {
+        return leasedAt + idGeneratorConfig.getLeaseTtlMillis() - SAFETY_MARGIN_MILLIS;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        if (workerId >= 0 && idGeneratorConfig.getWorkerId() < 0) {
+            redisLease.release(KEY_PREFIX + workerId, owner);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package team.weyoung.manager;
+
+import team.weyoung.utils.DisjointSet;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 身份关联索引
+ * <p>
+ * 哈希索引维护 归一化标识 -> 用户 id，并查集维护关联账号分组：共用过同一标识的账号并入同一组。
+ * 用户更换标识后哈希索引随之更新，但分组不会拆分（曾经共用过即视为关联），重建索引后才会重新计算。
+ * 设备标识每个用户只保留最近使用的若干个，超出时移除最久未使用的
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class IdentityLinkIndex {
+
+    /**
+     * 归一化标识 -> 当前使用该标识的用户
+     */
+    private final Map<String, Set<Long>> identifierUsers = new HashMap<>();
+
+    /**
+     * 用户 -> 字段 -> 当前标识，用于字段更新时移除旧标识
+     */
+    private final Map<Long, Map<String, String>> userIdentifiers = new HashMap<>();
+
+    /**
+     * 用户 -> 设备标识，按最近使用排序，最久未使用的在前
+     */
+    private final Map<Long, LinkedHashSet<String>> userDevices = new HashMap<>();
+
+    private final DisjointSet links = new DisjointSet();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 设置用户某个字段的标识，并与使用相同标识的其他用户关联
+     *
+     * @param userId     用户 id
+     * @param field      来源字段，同一字段的新标识替换旧标识
+     * @param identifier 归一化后的标识 key，为 null 时只移除旧标识
+     * @return 标识是否有变化
+     */
+    public boolean put(long userId, String field, String identifier) {
+        lock.writeLock().lock();
+        try {
+            Map<String, String> fields = identifier == null ? userIdentifiers.get(userId)
+                    : userIdentifiers.computeIfAbsent(userId, key -> new HashMap<>(4));
+            if (fields == null) {
+                return false;
+            }
+            String old = identifier == null ? fields.remove(field) : fields.put(field, identifier);
+            if (old == null ? identifier == null : old.equals(identifier)) {
+                return false;
+            }
+            if (old != null) {
+                unlink(userId, old);
+            }
+            if (identifier != null) {
+                link(userId, identifier);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 记录用户使用的设备，并与使用过同一设备的其他用户关联
+     *
+     * @param userId     用户 id
+     * @param identifier 归一化后的设备标识 key
+     * @param maxDevices 每个用户最多保留的设备数
+     * @return 是否为新设备，已有设备只更新使用顺序
+     */
+    public boolean putDevice(long userId, String identifier, int maxDevices) {
+        lock.writeLock().lock();
+        try {
+            LinkedHashSet<String> devices = userDevices.computeIfAbsent(userId, key -> new LinkedHashSet<>());
+            if (devices.remove(identifier)) {
+                devices.add(identifier);
+                return false;
+            }
+            devices.add(identifier);
+            link(userId, identifier);
+            Iterator<String> iterator = devices.iterator();
+            while (devices.size() > maxDevices) {
+                String oldest = iterator.next();
+                iterator.remove();
+                unlink(userId, oldest);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除用户的所有标识，已形成的关联保留
+     */
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            Map<String, String> fields = userIdentifiers.remove(userId);
+            if (fields != null) {
+                for (String identifier : fields.values()) {
+                    unlink(userId, identifier);
+                }
+            }
+            Set<String> devices = userDevices.remove(userId);
+            if (devices != null) {
+                for (String identifier : devices) {
+                    unlink(userId, identifier);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 与用户关联的其他账号
+     *
+     * @param limit 最多返回个数
+     */
+    public Set<Long> getLinkedUserIds(long userId, int limit) {
+        lock.readLock().lock();
+        try {
+            Set<Long> result = new LinkedHashSet<>();
+            for (Long member : links.members(userId)) {
+                if (member != userId) {
+                    result.add(member);
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 当前使用该标识的用户
+     */
+    public Set<Long> getUserIds(String identifier) {
+        lock.readLock().lock();
+        try {
+            Set<Long> users = identifierUsers.get(identifier);
+            return users == null ? new HashSet<>() : new HashSet<>(users);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 已索引的用户数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int size = userIdentifiers.size();
+            for (Long userId : userDevices.keySet()) {
+                if (!userIdentifiers.containsKey(userId)) {
+                    size++;
+                }
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void link(long userId, String identifier) {
+        Set<Long> users = identifierUsers.computeIfAbsent(identifier, key -> new HashSet<>(2));
+        for (Long other : users) {
+            links.union(userId, other);
+        }
+        users.add(userId);
+    }
+
+    private void unlink(long userId, String identifier) {
+        Set<Long> users = identifierUsers.get(identifier);
+        if (users != null && users.remove(userId) && users.isEmpty()) {
+            identifierUsers.remove(identifier);
+        }
+    }
+}
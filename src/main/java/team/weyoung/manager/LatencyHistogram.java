@@ -0,0 +1,78 @@
+package team.weyoung.manager;
+
+import team.weyoung.model.vo.LatencySnapshotVO;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁延迟直方图
+ * <p>
+ * 按微秒取以 2 为底的对数分桶（1us、2us、4us ... 约 35min），记录一次只是一次 LongAdder 自增；
+ * 分位数取所在桶的上界，误差不超过 2 倍，足够用于观察延迟分布和异常毛刺
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 32;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long micros = Math.max(nanos / 1000, 1);
+        int bucket = Math.min(63 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+        buckets[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public LatencySnapshotVO snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        LatencySnapshotVO snapshot = new LatencySnapshotVO();
+        snapshot.setCount(total);
+        snapshot.setAvgMicros(total == 0 ? 0 : totalNanos.sum() / total / 1000.0);
+        snapshot.setP50Micros(percentile(counts, total, 0.50));
+        snapshot.setP95Micros(percentile(counts, total, 0.95));
+        snapshot.setP99Micros(percentile(counts, total, 0.99));
+        snapshot.setMaxMicros(maxNanos.get() / 1000);
+        return snapshot;
+    }
+
+    private static long percentile(long[] counts, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= threshold) {
+                return 1L << (i + 1);
+            }
+        }
+        return 1L << BUCKETS;
+    }
+}
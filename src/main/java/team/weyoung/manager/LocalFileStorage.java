@@ -0,0 +1,75 @@
+package team.weyoung.manager;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.FileStorageConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 本地文件系统存储，作为开发、测试环境下 MinIO 的替代
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Component
+@ConditionalOnProperty(prefix = "file.storage", name = "type", havingValue = "local", matchIfMissing = true)
+public class LocalFileStorage implements FileStorage {
+
+    private static final String CONTENT_TYPE_SUFFIX = ".content-type";
+
+    private final Path root;
+
+    public LocalFileStorage(FileStorageConfig fileStorageConfig) {
+        this.root = Paths.get(fileStorageConfig.getLocalPath()).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void putObject(String key, InputStream inputStream, long size, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        // 先写临时文件再原子替换，避免并发读取到写了一半的文件
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.copy(inputStream, tmp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        if (contentType != null) {
+            Files.write(contentTypePath(target), contentType.getBytes());
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public StoredFile getObject(String key) throws IOException {
+        Path target = resolve(key);
+        if (!Files.isRegularFile(target)) {
+            return null;
+        }
+        Path contentTypePath = contentTypePath(target);
+        String contentType = Files.exists(contentTypePath) ? new String(Files.readAllBytes(contentTypePath)) : null;
+        return new StoredFile(Files.newInputStream(target), Files.size(target), contentType);
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("invalid file key: " + key);
+        }
+        return path;
+    }
+
+    private Path contentTypePath(Path target) {
+        return target.resolveSibling(target.getFileName() + CONTENT_TYPE_SUFFIX);
+    }
+}
@@ -0,0 +1,110 @@
+package team.weyoung.manager;
+
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.FileStorageConfig;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * MinIO 文件存储
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "file.storage", name = "type", havingValue = "minio")
+public class MinioFileStorage implements FileStorage {
+
+    private static final String NO_SUCH_KEY = "NoSuchKey";
+
+    @Resource
+    private MinioClient minioClient;
+
+    @Resource
+    private FileStorageConfig fileStorageConfig;
+
+    @PostConstruct
+    public void initBucket() {
+        String bucket = fileStorageConfig.getBucket();
+        try {
+            if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucket).build())) {
+                minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
+            }
+        } catch (Exception e) {
+            log.warn("minio bucket init failed, bucket: {}", bucket, e);
+        }
+    }
+
+    @Override
+    public void putObject(String key, InputStream inputStream, long size, String contentType) throws IOException {
+        try {
+            // 已知大小时 MinIO 客户端按分片流式上传，不会缓冲整个文件
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(fileStorageConfig.getBucket())
+                    .object(key)
+                    .stream(inputStream, size, -1)
+                    .contentType(contentType)
+                    .build());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("minio put object failed: " + key, e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(fileStorageConfig.getBucket())
+                    .object(key)
+                    .build());
+            return true;
+        } catch (ErrorResponseException e) {
+            if (NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                return false;
+            }
+            log.warn("minio stat object failed, key: {}", key, e);
+            return false;
+        } catch (Exception e) {
+            log.warn("minio stat object failed, key: {}", key, e);
+            return false;
+        }
+    }
+
+    @Override
+    public StoredFile getObject(String key) throws IOException {
+        try {
+            GetObjectResponse response = minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(fileStorageConfig.getBucket())
+                    .object(key)
+                    .build());
+            String contentLength = response.headers().get("Content-Length");
+            long size = StringUtils.isNumeric(contentLength) ? Long.parseLong(contentLength) : -1;
+            return new StoredFile(response, size, response.headers().get("Content-Type"));
+        } catch (ErrorResponseException e) {
+            if (NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                return null;
+            }
+            throw new IOException("minio get object failed: " + key, e);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("minio get object failed: " + key, e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package team.weyoung.manager;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 无锁有界环形缓冲区（多生产者、单消费者）
+ * <p>
+ * 生产者 CAS 递增尾序号占用槽位后写入元素，满时立即返回 false；
+ * 消费者按序读取，遇到已占用但尚未写入的槽位即停止，下次再读
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 只由消费者写入；先清空槽位再推进，生产者读到新的 head 时对应槽位一定已清空
+     */
+    private volatile long head;
+
+    /**
+     * @param capacity 容量，向上取整为 2 的幂
+     */
+    public MpscRingBuffer(int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.capacity = size;
+        this.mask = size - 1;
+    }
+
+    /**
+     * 放入元素，可多线程调用
+     *
+     * @return 缓冲区已满时返回 false
+     */
+    public boolean offer(E element) {
+        long current;
+        do {
+            current = tail.get();
+            if (current - head >= capacity) {
+                return false;
+            }
+        } while (!tail.compareAndSet(current, current + 1));
+        buffer.lazySet((int) current & mask, element);
+        return true;
+    }
+
+    /**
+     * 取出最多 limit 个元素，只能由单个消费者线程调用
+     *
+     * @return 取出的个数
+     */
+    public int drainTo(Collection<? super E> target, int limit) {
+        long current = head;
+        int count = 0;
+        while (count < limit) {
+            int index = (int) current & mask;
+            E element = buffer.get(index);
+            if (element == null) {
+                break;
+            }
+            buffer.lazySet(index, null);
+            target.add(element);
+            current++;
+            count++;
+        }
+        if (count > 0) {
+            head = current;
+        }
+        return count;
+    }
+
+    /**
+     * 当前元素个数（包括已占用但尚未写入的槽位）
+     */
+    public int size() {
+        return (int) (tail.get() - head);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,266 @@
+package team.weyoung.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.QuotaConfig;
+import team.weyoung.constant.UserConstant;
+import team.weyoung.model.vo.QuotaReportVO;
+import team.weyoung.model.vo.QuotaUsageVO;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 每日配额
+ * <p>
+ * 请求只做本地判断和计数：已知的全局用量加上本节点未刷新的增量，超过上限即拒绝；
+ * 增量由后台按 quota.flush-interval-millis 批量 INCRBY 到 Redis 并取回全局用量。
+ * Redis 不可用时增量留在本地继续按估算值限额，恢复后一并刷新
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Component
+public class QuotaManager {
+
+    private static final String KEY_PREFIX = "anti-fraud:quota:";
+
+    private static final String RANK_SUFFIX = ":rank";
+
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /**
+     * 计数保留两天，跨天后仍能查询前一天的报告
+     */
+    private static final long TTL_SECONDS = TimeUnit.DAYS.toSeconds(2);
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final LongAdder flushFailureCount = new LongAdder();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "quota-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Resource
+    private QuotaConfig quotaConfig;
+
+    @Resource
+    private RedisBulkOperations redisBulkOperations;
+
+    @Resource
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 当前日期，由刷新线程更新，避免每次请求格式化日期
+     */
+    private volatile String currentDay = today();
+
+    @PostConstruct
+    public void init() {
+        long interval = quotaConfig.getFlushIntervalMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdown();
+        flushQuietly();
+    }
+
+    /**
+     * 占用一次配额
+     *
+     * @param resource 配额资源名
+     * @param subject  计数主体，用户 id 或 ip:地址
+     * @param role     角色
+     * @return 是否允许
+     */
+    public boolean tryAcquire(String resource, String subject, String role) {
+        if (!quotaConfig.isEnabled() || UserConstant.ADMIN_ROLE.equals(role)) {
+            return true;
+        }
+        Long limit = quotaConfig.getLimit(resource, role);
+        if (limit == null) {
+            return true;
+        }
+        String day = currentDay;
+        Counter counter = counters.computeIfAbsent(key(day, resource, subject),
+                key -> new Counter(day, resource, subject));
+        if (counter.estimate() >= limit) {
+            rejectedCount.increment();
+            return false;
+        }
+        counter.pending.increment();
+        return true;
+    }
+
+    /**
+     * 配额报告
+     *
+     * @param resource 配额资源名
+     * @param day      日期 yyyyMMdd，为空时取当天
+     * @param top      返回用量最高的主体个数
+     */
+    public QuotaReportVO getReport(String resource, String day, int top) {
+        String reportDay = day == null ? currentDay : day;
+        Set<ZSetOperations.TypedTuple<String>> tuples = redisCircuitBreaker.execute(() -> stringRedisTemplate
+                .opsForZSet().reverseRangeWithScores(rankKey(reportDay, resource), 0, top - 1));
+        List<QuotaUsageVO> usages = new ArrayList<>();
+        if (tuples != null) {
+            for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                QuotaUsageVO usageVO = new QuotaUsageVO();
+                usageVO.setSubject(tuple.getValue());
+                usageVO.setUsed(tuple.getScore() == null ? 0 : tuple.getScore().longValue());
+                usages.add(usageVO);
+            }
+        }
+        QuotaReportVO reportVO = new QuotaReportVO();
+        reportVO.setDate(reportDay);
+        reportVO.setResource(resource);
+        reportVO.setLimits(quotaConfig.getLimits().getOrDefault(resource, Collections.emptyMap()));
+        reportVO.setTop(usages);
+        reportVO.setLocalCounters(counters.size());
+        reportVO.setRejectedCount(rejectedCount.sum());
+        reportVO.setFlushFailureCount(flushFailureCount.sum());
+        return reportVO;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("quota flush failed", e);
+        }
+    }
+
+    private void flush() {
+        String today = today();
+        currentDay = today;
+        Map<String, Long> deltas = new HashMap<>();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long delta = counter.pending.sumThenReset();
+            if (delta > 0) {
+                deltas.put(entry.getKey(), delta);
+            } else if (!counter.day.equals(today)) {
+                counters.remove(entry.getKey(), counter);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<String, Long> totals;
+        try {
+            totals = redisBulkOperations.incrementAll(deltas, TTL_SECONDS);
+        } catch (RuntimeException e) {
+            // 增量退回本地，下次一并刷新
+            deltas.forEach((key, delta) -> {
+                Counter counter = counters.get(key);
+                if (counter != null) {
+                    counter.pending.add(delta);
+                }
+            });
+            flushFailureCount.increment();
+            log.warn("quota flush failed, {} counters kept locally: {}", deltas.size(), e.getMessage());
+            return;
+        }
+        totals.forEach((key, total) -> {
+            Counter counter = counters.get(key);
+            if (counter != null) {
+                counter.flushed = total;
+            }
+        });
+        updateRank(totals);
+    }
+
+    /**
+     * 按全局用量更新排行，ZADD 使用绝对值，重复执行也不会多计
+     */
+    private void updateRank(Map<String, Long> totals) {
+        try {
+            redisBulkOperations.pipelined(connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                Set<String> rankKeys = new HashSet<>();
+                totals.forEach((key, total) -> {
+                    Counter counter = counters.get(key);
+                    if (counter != null) {
+                        String rankKey = rankKey(counter.day, counter.resource);
+                        stringConnection.zAdd(rankKey, total, counter.subject);
+                        rankKeys.add(rankKey);
+                    }
+                });
+                rankKeys.forEach(rankKey -> stringConnection.expire(rankKey, TTL_SECONDS));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("quota rank update failed: {}", e.getMessage());
+        }
+    }
+
+    private static String today() {
+        return LocalDate.now().format(DAY_FORMATTER);
+    }
+
+    private static String key(String day, String resource, String subject) {
+        return KEY_PREFIX + day + ":" + resource + ":" + subject;
+    }
+
+    private static String rankKey(String day, String resource) {
+        return KEY_PREFIX + day + ":" + resource + RANK_SUFFIX;
+    }
+
+    private static class Counter {
+
+        private final String day;
+
+        private final String resource;
+
+        private final String subject;
+
+        /**
+         * 未刷新到 Redis 的增量
+         */
+        private final LongAdder pending = new LongAdder();
+
+        /**
+         * 最近一次刷新得到的全局用量
+         */
+        private volatile long flushed;
+
+        private Counter(String day, String resource, String subject) {
+            this.day = day;
+            this.resource = resource;
+            this.subject = subject;
+        }
+
+        private long estimate() {
+            return flushed + pending.sum();
+        }
+    }
+}
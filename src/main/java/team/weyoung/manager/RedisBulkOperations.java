@@ -0,0 +1,159 @@
+package team.weyoung.manager;
+
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.RedisClientConfig;
+
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Redis 批量操作
+ * <p>
+ * 按 redis.client.batch-size 分批，每批通过一次流水线发送，用于会话清理、计数器刷新等批量场景
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Component
+public class RedisBulkOperations {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Resource
+    private RedisClientConfig redisClientConfig;
+
+    /**
+     * 批量删除
+     *
+     * @return 实际删除的 key 数
+     */
+    public long deleteAll(Collection<String> keys) {
+        long deleted = 0;
+        for (List<String> batch : partition(keys)) {
+            Long count = redisCircuitBreaker.execute(() -> stringRedisTemplate.delete(batch));
+            deleted += count == null ? 0 : count;
+        }
+        return deleted;
+    }
+
+    /**
+     * 批量读取
+     *
+     * @return key 到值的映射，不存在的 key 不出现在结果中
+     */
+    public Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> result = new HashMap<>(keys.size() * 2);
+        for (List<String> batch : partition(keys)) {
+            List<String> values = redisCircuitBreaker.execute(() -> stringRedisTemplate.opsForValue().multiGet(batch));
+            if (values == null) {
+                continue;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (values.get(i) != null) {
+                    result.put(batch.get(i), values.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量读取二进制值（如 Sa-Token 会话对象），每批一条 MGET
+     *
+     * @return key 到值的映射，不存在的 key 不出现在结果中
+     */
+    public Map<String, byte[]> getAllBytes(Collection<String> keys) {
+        Map<String, byte[]> result = new HashMap<>(keys.size() * 2);
+        for (List<String> batch : partition(keys)) {
+            byte[][] rawKeys = new byte[batch.size()][];
+            for (int i = 0; i < batch.size(); i++) {
+                rawKeys[i] = batch.get(i).getBytes(StandardCharsets.UTF_8);
+            }
+            List<byte[]> values = redisCircuitBreaker.execute(() -> stringRedisTemplate.execute(
+                    (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys)));
+            if (values == null) {
+                continue;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (values.get(i) != null) {
+                    result.put(batch.get(i), values.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量自增计数器并设置过期时间
+     *
+     * @param deltas     key 到增量的映射
+     * @param ttlSeconds 过期时间（秒）
+     * @return key 到自增后值的映射
+     */
+    public Map<String, Long> incrementAll(Map<String, Long> deltas, long ttlSeconds) {
+        Map<String, Long> result = new HashMap<>(deltas.size() * 2);
+        for (List<String> batch : partition(deltas.keySet())) {
+            List<Object> replies = pipelined(batch, (connection, key) -> {
+                connection.incrBy(key, deltas.get(key));
+                connection.expire(key, ttlSeconds);
+            });
+            // 每个 key 对应 INCRBY、EXPIRE 两条回复
+            for (int i = 0; i < batch.size(); i++) {
+                Object value = replies.get(i * 2);
+                if (value instanceof Long) {
+                    result.put(batch.get(i), (Long) value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 对一批 key 以流水线方式执行命令，返回所有命令的回复
+     */
+    public List<Object> pipelined(List<String> keys, BiConsumer<StringRedisConnection, String> command) {
+        return redisCircuitBreaker.execute(() -> stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String key : keys) {
+                command.accept(stringConnection, key);
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * 对任意操作以流水线方式执行
+     */
+    public List<Object> pipelined(RedisCallback<Object> callback) {
+        return redisCircuitBreaker.execute(() -> stringRedisTemplate.executePipelined(callback));
+    }
+
+    private List<List<String>> partition(Collection<String> keys) {
+        int batchSize = redisClientConfig.getBatchSize();
+        List<List<String>> batches = new ArrayList<>();
+        List<String> current = new ArrayList<>(Math.min(batchSize, keys.size()));
+        for (String key : keys) {
+            current.add(key);
+            if (current.size() == batchSize) {
+                batches.add(current);
+                current = new ArrayList<>(batchSize);
+            }
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+}
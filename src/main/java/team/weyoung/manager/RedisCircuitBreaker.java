@@ -0,0 +1,106 @@
+package team.weyoung.manager;
+
+import io.lettuce.core.RedisException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.config.RedisClientConfig;
+import team.weyoung.exception.BusinessException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Redis 熔断器
+ * <p>
+ * 连续失败（超时、断连）达到阈值后熔断，熔断期间直接快速失败，不再占用线程等待超时；
+ * 熔断期结束后只放行一个探测请求，成功则恢复，失败则继续熔断
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+
+    private final RedisClientConfig redisClientConfig;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    /**
+     * 熔断结束时间，0 表示未熔断
+     */
+    private final AtomicLong openUntil = new AtomicLong();
+
+    private final LongAdder rejected = new LongAdder();
+
+    public RedisCircuitBreaker(RedisClientConfig redisClientConfig) {
+        this.redisClientConfig = redisClientConfig;
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        long until = openUntil.get();
+        if (until != 0) {
+            // 熔断期内，或探测请求已被其他线程抢到
+            if (System.currentTimeMillis() < until || !openUntil.compareAndSet(until, Long.MAX_VALUE)) {
+                rejected.increment();
+                throw new BusinessException(HttpCodeEnum.SYSTEM_ERROR, "缓存服务繁忙，请稍后再试");
+            }
+        }
+        try {
+            T result = action.get();
+            onSuccess();
+            return result;
+        } catch (DataAccessException | RedisException e) {
+            onFailure(e);
+            throw e;
+        } catch (RuntimeException e) {
+            // 非 Redis 故障（如反序列化失败），说明 Redis 本身可用
+            onSuccess();
+            throw e;
+        }
+    }
+
+    public void run(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (openUntil.get() != 0) {
+            openUntil.set(0);
+            log.info("redis circuit closed");
+        }
+    }
+
+    private void onFailure(RuntimeException e) {
+        int failures = consecutiveFailures.incrementAndGet();
+        if (failures >= redisClientConfig.getCircuitFailureThreshold() || openUntil.get() == Long.MAX_VALUE) {
+            openUntil.set(System.currentTimeMillis() + redisClientConfig.getCircuitOpenMillis());
+            log.warn("redis circuit opened after {} consecutive failures: {}", failures, e.getMessage());
+        }
+    }
+
+    /**
+     * 熔断器状态：CLOSED/OPEN/HALF_OPEN
+     */
+    public String getState() {
+        long until = openUntil.get();
+        if (until == 0) {
+            return "CLOSED";
+        }
+        return until == Long.MAX_VALUE || System.currentTimeMillis() >= until ? "HALF_OPEN" : "OPEN";
+    }
+
+    /**
+     * 熔断期间被拒绝的请求数
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
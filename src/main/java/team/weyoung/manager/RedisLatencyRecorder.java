@@ -0,0 +1,48 @@
+package team.weyoung.manager;
+
+import io.lettuce.core.metrics.CommandLatencyRecorder;
+import io.lettuce.core.protocol.ProtocolKeyword;
+import org.springframework.stereotype.Component;
+import team.weyoung.model.vo.LatencySnapshotVO;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis 命令延迟统计，由 Lettuce 在每条命令完成时回调
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Component
+public class RedisLatencyRecorder implements CommandLatencyRecorder {
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private final LongAdder totalCommands = new LongAdder();
+
+    @Override
+    public void recordCommandLatency(SocketAddress local, SocketAddress remote, ProtocolKeyword commandType,
+                                     long firstResponseLatency, long completionLatency) {
+        histograms.computeIfAbsent(commandType.name(), name -> new LatencyHistogram()).record(completionLatency);
+        totalCommands.increment();
+    }
+
+    /**
+     * 已执行的命令总数
+     */
+    public long getTotalCommands() {
+        return totalCommands.sum();
+    }
+
+    /**
+     * 各命令的延迟统计
+     */
+    public Map<String, LatencySnapshotVO> snapshot() {
+        Map<String, LatencySnapshotVO> result = new TreeMap<>();
+        histograms.forEach((command, histogram) -> result.put(command, histogram.snapshot()));
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package team.weyoung.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Redis 的租约（分布式锁）
+ * <p>
+ * 获取：SET key owner NX PX ttl；续期和释放都通过脚本先比较持有者，只能操作自己持有的租约。
+ * 获取和续期在 Redis 不可用时直接抛出异常，由调用方区分“租约被占用”和“Redis 故障”
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Component
+public class RedisLease {
+
+    public static final String RENEW_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end";
+
+    public static final String RELEASE_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(RENEW_SCRIPT, Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(RELEASE_SCRIPT, Long.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 尝试获取租约
+     */
+    public boolean tryAcquire(String key, String owner, long ttlMillis) {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, owner, ttlMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 续期，租约已不属于自己时返回 false
+     */
+    public boolean renew(String key, String owner, long ttlMillis) {
+        Long result = stringRedisTemplate.execute(RENEW, Collections.singletonList(key), owner, String.valueOf(ttlMillis));
+        return result != null && result == 1;
+    }
+
+    /**
+     * 释放自己持有的租约
+     */
+    public void release(String key, String owner) {
+        try {
+            stringRedisTemplate.execute(RELEASE, Collections.singletonList(key), owner);
+        } catch (Exception e) {
+            log.warn("release lease failed, key: {}", key, e);
+        }
+    }
+}
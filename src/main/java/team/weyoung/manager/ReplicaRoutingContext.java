@@ -0,0 +1,68 @@
+package team.weyoung.manager;
+
+import java.util.function.Supplier;
+
+/**
+ * 当前线程的读写路由标记
+ * <p>
+ * 强制主库的优先级高于只读，用于读己之写：刚写过的数据即使在只读方法中也从主库读取
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    /**
+     * 在从库上执行
+     */
+    public static <T> T readOnly(Supplier<T> supplier) {
+        return execute(READ_ONLY, supplier);
+    }
+
+    /**
+     * 在主库上执行，内部的只读标记失效
+     */
+    public static <T> T primary(Supplier<T> supplier) {
+        return execute(FORCE_PRIMARY, supplier);
+    }
+
+    public static boolean isReadOnly() {
+        return READ_ONLY.get() != null;
+    }
+
+    /**
+     * 设置只读标记，必须在 finally 中清除
+     */
+    public static void setReadOnly(boolean readOnly) {
+        if (readOnly) {
+            READ_ONLY.set(Boolean.TRUE);
+        } else {
+            READ_ONLY.remove();
+        }
+    }
+
+    /**
+     * 当前线程是否应读从库
+     */
+    public static boolean isReplicaPreferred() {
+        return READ_ONLY.get() != null && FORCE_PRIMARY.get() == null;
+    }
+
+    private static <T> T execute(ThreadLocal<Boolean> flag, Supplier<T> supplier) {
+        if (flag.get() != null) {
+            return supplier.get();
+        }
+        flag.set(Boolean.TRUE);
+        try {
+            return supplier.get();
+        } finally {
+            flag.remove();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package team.weyoung.manager;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 主从路由数据源
+ * <p>
+ * 只读事务或 {@link ReplicaRoutingContext} 标记为只读的线程走从库，其余（包括读写事务）走主库。
+ * 需要外层包一层 LazyConnectionDataSourceProxy：事务开始时只读标记尚未设置，延迟到第一条语句再获取连接
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    public static final String REPLICA = "replica";
+
+    private final LongAdder primaryCount = new LongAdder();
+
+    private final LongAdder replicaCount = new LongAdder();
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean replica;
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            replica = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        } else {
+            replica = ReplicaRoutingContext.isReplicaPreferred();
+        }
+        if (replica) {
+            replicaCount.increment();
+            return REPLICA;
+        }
+        primaryCount.increment();
+        return PRIMARY;
+    }
+
+    public long getPrimaryCount() {
+        return primaryCount.sum();
+    }
+
+    public long getReplicaCount() {
+        return replicaCount.sum();
+    }
+}
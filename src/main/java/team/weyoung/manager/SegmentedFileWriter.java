@@ -0,0 +1,106 @@
+package team.weyoung.manager;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 分段追加写入的本地文件
+ * <p>
+ * 按行追加，当前分段超过 segmentBytes 后新建分段，只保留最近 maxSegments 个分段。
+ * 非线程安全，只由异步写入器的后台线程调用
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+public class SegmentedFileWriter {
+
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+
+    private final String prefix;
+
+    private final long segmentBytes;
+
+    private final int maxSegments;
+
+    private BufferedWriter writer;
+
+    private long currentBytes;
+
+    private int sequence;
+
+    public SegmentedFileWriter(Path directory, String prefix, long segmentBytes, int maxSegments) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * 追加若干行并刷新到操作系统
+     */
+    public void append(List<String> lines) throws IOException {
+        if (writer == null || currentBytes >= segmentBytes) {
+            roll();
+        }
+        for (String line : lines) {
+            writer.write(line);
+            writer.newLine();
+            // 按字符数估算分段大小
+            currentBytes += line.length() + 1;
+        }
+        writer.flush();
+    }
+
+    public void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("close segment failed", e);
+            }
+            writer = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        close();
+        Files.createDirectories(directory);
+        // 文件名按时间排序即为分段顺序
+        String name = prefix + "-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())
+                + "-" + String.format("%06d", sequence++) + SUFFIX;
+        writer = Files.newBufferedWriter(directory.resolve(name), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        currentBytes = 0;
+        deleteOldSegments();
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "-*" + SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        if (segments.size() <= maxSegments) {
+            return;
+        }
+        Collections.sort(segments);
+        for (Path path : segments.subList(0, segments.size() - maxSegments)) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package team.weyoung.manager;
+
+import com.mybatisflex.core.keygen.IKeyGenerator;
+import lombok.extern.slf4j.Slf4j;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.exception.BusinessException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 雪花 ID 生成器
+ * <p>
+ * 位布局与 MyBatis-Flex 内置实现一致：41 位毫秒时间戳 + 10 位 workerId + 12 位序列号。
+ * 时间戳和序列号合并存放在一个 AtomicLong 中，通过 CAS 一次预留一段连续序列号，全程无锁；
+ * 每个线程缓存一小段序列号，进一步降低多线程下的 CAS 竞争。
+ * 时钟回拨时继续沿用已分配过的最大时间戳（逻辑时钟），不会生成重复 id；
+ * 当前毫秒序列号耗尽时借用下一毫秒，逻辑时钟领先物理时钟过多时自旋等待
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+public class SnowflakeIdGenerator implements IKeyGenerator {
+
+    /**
+     * 在 MyBatis-Flex 中注册的名称
+     */
+    public static final String NAME = "leasedSnowflake";
+
+    public static final int MAX_WORKER_ID = 1023;
+
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final int WORKER_BITS = 10;
+
+    private static final long SEQUENCE_LIMIT = 1L << SEQUENCE_BITS;
+
+    private static final long SEQUENCE_MASK = SEQUENCE_LIMIT - 1;
+
+    /**
+     * 逻辑时钟最多领先物理时钟的毫秒数
+     */
+    private static final long MAX_AHEAD_MILLIS = 1000;
+
+    /**
+     * 回拨超过该值时打印告警
+     */
+    private static final long ROLLBACK_WARN_MILLIS = 10;
+
+    private final long epoch;
+
+    private final int blockSize;
+
+    /**
+     * (时间戳 - epoch) << 12 | 下一个可用序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * 每个线程缓存的序列号段：[下一个, 结束, 代数]
+     */
+    private final ThreadLocal<long[]> blocks = ThreadLocal.withInitial(() -> new long[]{0, 0, -1});
+
+    private volatile long workerId = -1;
+
+    /**
+     * 租约有效期，超过后停止发号，防止租约被其他节点接管后产生重复 id
+     */
+    private volatile long validUntil;
+
+    /**
+     * 更换 workerId 时递增，使各线程缓存的序列号段失效
+     */
+    private volatile long generation;
+
+    private volatile long lastRollbackWarn;
+
+    public SnowflakeIdGenerator(long epoch, int blockSize) {
+        if (blockSize < 1 || blockSize > SEQUENCE_LIMIT) {
+            throw new IllegalArgumentException("blockSize must be between 1 and " + SEQUENCE_LIMIT);
+        }
+        this.epoch = epoch;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * 设置 workerId 及其有效期
+     */
+    public synchronized void setWorker(int workerId, long validUntil) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("workerId must be between 0 and " + MAX_WORKER_ID);
+        }
+        if (this.workerId != workerId) {
+            this.workerId = workerId;
+            this.generation++;
+        }
+        this.validUntil = validUntil;
+    }
+
+    /**
+     * 续期成功后延长有效期
+     */
+    public void extendValidity(long validUntil) {
+        this.validUntil = validUntil;
+    }
+
+    public long getWorkerId() {
+        return workerId;
+    }
+
+    @Override
+    public Object generate(Object entity, String keyColumn) {
+        return nextId();
+    }
+
+    /**
+     * 生成一个 id
+     */
+    public long nextId() {
+        checkWorker();
+        long[] block = blocks.get();
+        long currentGeneration = generation;
+        if (block[0] >= block[1] || block[2] != currentGeneration) {
+            long start = reserve(blockSize);
+            block[0] = start;
+            block[1] = start + blockSize;
+            block[2] = currentGeneration;
+        }
+        return toId(block[0]++);
+    }
+
+    /**
+     * 批量预分配 id，用于批量导入
+     */
+    public long[] nextIds(int count) {
+        checkWorker();
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            int size = (int) Math.min(count - filled, SEQUENCE_LIMIT);
+            long start = reserve(size);
+            for (int i = 0; i < size; i++) {
+                ids[filled++] = toId(start + i);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 预留同一毫秒内连续的 count 个序列号，返回第一个
+     */
+    private long reserve(int count) {
+        while (true) {
+            long current = state.get();
+            long timestamp = current >>> SEQUENCE_BITS;
+            long now = System.currentTimeMillis() - epoch;
+            long start;
+            if (now > timestamp) {
+                start = now << SEQUENCE_BITS;
+            } else {
+                if (timestamp - now > ROLLBACK_WARN_MILLIS) {
+                    warnRollback(timestamp - now);
+                }
+                if (timestamp - now > MAX_AHEAD_MILLIS) {
+                    // 时钟大幅回拨或发号过快，等待物理时钟追上
+                    Thread.yield();
+                    continue;
+                }
+                start = (current & SEQUENCE_MASK) + count <= SEQUENCE_LIMIT ? current : (timestamp + 1) << SEQUENCE_BITS;
+            }
+            if (state.compareAndSet(current, start + count)) {
+                return start;
+            }
+        }
+    }
+
+    private long toId(long value) {
+        return ((value >>> SEQUENCE_BITS) << (SEQUENCE_BITS + WORKER_BITS)) | (workerId << SEQUENCE_BITS) | (value & SEQUENCE_MASK);
+    }
+
+    private void checkWorker() {
+        if (workerId < 0 || System.currentTimeMillis() >= validUntil) {
+            throw new BusinessException(HttpCodeEnum.SYSTEM_ERROR, "ID 生成服务不可用");
+        }
+    }
+
+    private void warnRollback(long millis) {
+        long now = System.currentTimeMillis();
+        if (now - lastRollbackWarn > 1000) {
+            lastRollbackWarn = now;
+            log.warn("clock moved backwards or ids issued ahead of clock by {}ms, using logical clock", millis);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package team.weyoung.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.StartupConfig;
+import team.weyoung.model.vo.StartupStepVO;
+import team.weyoung.model.vo.StartupTimelineVO;
+
+import javax.annotation.Resource;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 启动耗时报告
+ * <p>
+ * 基于 {@link BufferingApplicationStartup} 记录的启动步骤，应用就绪时输出最慢的 Bean，
+ * 懒加载的 Bean 在首次使用时创建，同样会被记录
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Component
+public class StartupTimelineReport {
+
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+
+    private static final String BEAN_NAME_TAG = "beanName";
+
+    @Resource
+    private ConfigurableApplicationContext applicationContext;
+
+    @Resource
+    private StartupConfig startupConfig;
+
+    private volatile long readyMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onReady() {
+        readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        StartupTimelineVO timeline = getTimeline(startupConfig.getReportTop(), true);
+        StringBuilder report = new StringBuilder();
+        for (StartupStepVO step : timeline.getSteps()) {
+            report.append(String.format("%n  %6dms  %s", step.getDurationMillis(), step.getBeanName()));
+        }
+        log.info("application ready in {}ms (lazy-initialization: {}, beans: {}), slowest beans:{}",
+                readyMillis, timeline.isLazyInitialization(), timeline.getBeanCount(), report);
+    }
+
+    /**
+     * 启动耗时报告
+     *
+     * @param top  返回的步骤数
+     * @param bean 为 true 时只返回 Bean 创建步骤
+     */
+    public StartupTimelineVO getTimeline(int top, boolean bean) {
+        StartupTimelineVO timelineVO = new StartupTimelineVO();
+        timelineVO.setReadyMillis(readyMillis);
+        timelineVO.setLazyInitialization(applicationContext.getEnvironment()
+                .getProperty("spring.main.lazy-initialization", Boolean.class, false));
+        List<StartupStepVO> steps = new ArrayList<>();
+        ApplicationStartup applicationStartup = applicationContext.getApplicationStartup();
+        if (applicationStartup instanceof BufferingApplicationStartup) {
+            StartupTimeline timeline = ((BufferingApplicationStartup) applicationStartup).getBufferedTimeline();
+            int beanCount = 0;
+            for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+                StartupStep startupStep = event.getStartupStep();
+                boolean beanStep = BEAN_INSTANTIATE.equals(startupStep.getName());
+                if (beanStep) {
+                    beanCount++;
+                } else if (bean) {
+                    continue;
+                }
+                StartupStepVO stepVO = new StartupStepVO();
+                stepVO.setName(startupStep.getName());
+                for (StartupStep.Tag tag : startupStep.getTags()) {
+                    if (BEAN_NAME_TAG.equals(tag.getKey())) {
+                        stepVO.setBeanName(tag.getValue());
+                    }
+                }
+                stepVO.setStartMillis(event.getStartTime().toEpochMilli() - timeline.getStartTime().toEpochMilli());
+                stepVO.setDurationMillis(event.getDuration().toMillis());
+                steps.add(stepVO);
+            }
+            timelineVO.setBeanCount(beanCount);
+        }
+        steps.sort(Comparator.comparingLong(StartupStepVO::getDurationMillis).reversed());
+        timelineVO.setSteps(new ArrayList<>(steps.subList(0, Math.min(Math.max(top, 0), steps.size()))));
+        return timelineVO;
+    }
+}
@@ -0,0 +1,31 @@
+package team.weyoung.manager;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.InputStream;
+
+/**
+ * 存储中读取出的文件，使用方负责关闭输入流
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+@AllArgsConstructor
+public class StoredFile {
+
+    /**
+     * 文件内容
+     */
+    private InputStream inputStream;
+
+    /**
+     * 文件大小，未知时为 -1
+     */
+    private long size;
+
+    /**
+     * 文件类型
+     */
+    private String contentType;
+}
@@ -0,0 +1,144 @@
+package team.weyoung.manager;
+
+import com.mybatisflex.core.query.QueryWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.ArchiveConfig;
+import team.weyoung.mapper.UserArchiveMapper;
+import team.weyoung.model.entity.UserArchive;
+import team.weyoung.utils.BloomFilter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Collection;
+import java.util.List;
+
+import static team.weyoung.model.entity.table.UserArchiveTableDef.USER_ARCHIVE;
+
+/**
+ * 已归档账号的布隆过滤器
+ * <p>
+ * 注册时先查过滤器，只有可能已归档的账号才查询归档表。过滤器在每个节点内存中，启动后从归档表构建，
+ * 归档任务新增的账号通过 {@link CacheInvalidationBus} 通知其他节点；构建完成前和关闭时一律视为可能已归档
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Component
+public class TombstoneFilter {
+
+    private static final String CHANNEL_NAME = "tombstone";
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    @Resource
+    private UserArchiveMapper userArchiveMapper;
+
+    @Resource
+    private ArchiveConfig archiveConfig;
+
+    @Resource
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private volatile BloomFilter filter;
+
+    /**
+     * 正在构建的过滤器
+     */
+    private volatile BloomFilter building;
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.register(CHANNEL_NAME, this::putLocal);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!archiveConfig.isTombstoneEnabled()) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("build tombstone filter failed", e);
+            }
+        }, "tombstone-filter-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 账号可能已归档时返回 true，返回 false 时一定未归档
+     */
+    public boolean mightContain(String userAccount) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(userAccount);
+    }
+
+    /**
+     * 加入新归档的账号并通知其他节点
+     */
+    public void putAll(Collection<String> userAccounts) {
+        for (String userAccount : userAccounts) {
+            putLocal(userAccount);
+            cacheInvalidationBus.publish(CHANNEL_NAME, userAccount);
+        }
+    }
+
+    /**
+     * 按 id 游标读取归档表的账号构建新过滤器后整体替换，构建期间的新增账号写入新旧两个过滤器
+     *
+     * @return 读取的账号数
+     */
+    public synchronized long rebuild() {
+        if (!archiveConfig.isTombstoneEnabled()) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        long total = userArchiveMapper.selectCountByQuery(QueryWrapper.create().from(USER_ARCHIVE));
+        BloomFilter newFilter = new BloomFilter(Math.max(archiveConfig.getTombstoneExpectedInsertions(), total * 2),
+                archiveConfig.getTombstoneFpp());
+        building = newFilter;
+        long lastId = 0;
+        long count = 0;
+        try {
+            while (true) {
+                QueryWrapper queryWrapper = QueryWrapper.create()
+                        .select(USER_ARCHIVE.ID, USER_ARCHIVE.USER_ACCOUNT)
+                        .from(USER_ARCHIVE)
+                        .where(USER_ARCHIVE.ID.gt(lastId))
+                        .orderBy(USER_ARCHIVE.ID.asc())
+                        .limit(REBUILD_BATCH_SIZE);
+                List<UserArchive> archives = userArchiveMapper.selectListByQuery(queryWrapper);
+                for (UserArchive archive : archives) {
+                    newFilter.put(archive.getUserAccount());
+                }
+                count += archives.size();
+                if (archives.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+                lastId = archives.get(archives.size() - 1).getId();
+            }
+            filter = newFilter;
+        } finally {
+            building = null;
+        }
+        log.info("tombstone filter built, accounts: {}, bits: {}, hashes: {}, cost: {}ms", count,
+                newFilter.getBitCount(), newFilter.getHashCount(), System.currentTimeMillis() - start);
+        return count;
+    }
+
+    private void putLocal(String userAccount) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(userAccount);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(userAccount);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package team.weyoung.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.UserCacheConfig;
+import team.weyoung.mapper.UserMapper;
+import team.weyoung.model.entity.User;
+
+import javax.annotation.Resource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 用户批量加载器（DataLoader 风格）
+ * <p>
+ * 窗口期内并发到达的单 id 查询合并为一条 WHERE id IN (...) 查询，相同 id 共享同一个结果。
+ * 查询走从库，批次中有刚写过的用户时整批走主库
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Component
+public class UserBatchLoader implements DisposableBean {
+
+    private static final int LOADER_THREADS = 4;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private UserCache userCache;
+
+    private final UserCacheConfig userCacheConfig;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+
+    /**
+     * 当前窗口内等待查询的 id
+     */
+    private Map<Long, CompletableFuture<User>> pending = new HashMap<>();
+
+    public UserBatchLoader(UserCacheConfig userCacheConfig) {
+        this.userCacheConfig = userCacheConfig;
+        AtomicInteger counter = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(LOADER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "user-batch-loader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 加载单个用户
+     *
+     * @return 用户不存在时结果为 null
+     */
+    public CompletableFuture<User> load(long id) {
+        CompletableFuture<User> future;
+        boolean firstInWindow = false;
+        boolean full = false;
+        synchronized (lock) {
+            future = pending.get(id);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                pending.put(id, future);
+                firstInWindow = pending.size() == 1;
+                full = pending.size() >= userCacheConfig.getMaxBatchSize();
+            }
+        }
+        if (full) {
+            scheduler.execute(this::flush);
+        } else if (firstInWindow) {
+            scheduler.schedule(this::flush, userCacheConfig.getBatchWindowMillis(), TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    private void flush() {
+        Map<Long, CompletableFuture<User>> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+        try {
+            Set<Long> ids = batch.keySet();
+            List<User> userList = userCache.isAnyRecentlyWritten(ids) ? userMapper.selectListByIds(ids)
+                    : ReplicaRoutingContext.readOnly(() -> userMapper.selectListByIds(ids));
+            for (User user : userList) {
+                CompletableFuture<User> future = batch.remove(user.getId());
+                if (future != null) {
+                    future.complete(user);
+                }
+            }
+            // 剩余的 id 不存在
+            batch.values().forEach(future -> future.complete(null));
+        } catch (Exception e) {
+            log.error("batch load user failed, size: {}", batch.size(), e);
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,135 @@
+package team.weyoung.manager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.DataSourceRoutingConfig;
+import team.weyoung.config.UserCacheConfig;
+import team.weyoung.model.entity.User;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 用户本地缓存
+ * <p>
+ * 缓存中的 User 为共享实例，调用方只能读取，不能修改；更新用户后需调用 invalidate，
+ * 失效会通过 {@link CacheInvalidationBus} 同步到其他节点（如封号后各节点立即读到新角色）。
+ * 失效的用户在 datasource-routing.sticky-millis 内记为刚写过，读取时走主库，避免从库延迟把旧数据重新放入缓存。
+ * 每次失效递增版本号并记在该用户上，读库前取 {@link #startLoad()}，写入缓存时若读库后用户又被失效过则丢弃，
+ * 避免失效前读到的旧数据在失效后才放入缓存
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Component
+public class UserCache {
+
+    private static final String CACHE_NAME = "user";
+
+    private static final String ID_SEPARATOR = ",";
+
+    private final Cache<Long, User> cache;
+
+    /**
+     * 最近写过的用户 id
+     */
+    private final Cache<Long, Boolean> recentlyWritten;
+
+    /**
+     * 用户最近一次失效时的版本号，保留时间与缓存过期时间相同
+     */
+    private final Cache<Long, Long> invalidatedGenerations;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public UserCache(UserCacheConfig userCacheConfig, DataSourceRoutingConfig dataSourceRoutingConfig,
+                     CacheInvalidationBus cacheInvalidationBus) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(userCacheConfig.getMaximumSize())
+                .expireAfterWrite(userCacheConfig.getExpireSeconds(), TimeUnit.SECONDS)
+                .build();
+        this.recentlyWritten = Caffeine.newBuilder()
+                .maximumSize(userCacheConfig.getMaximumSize())
+                .expireAfterWrite(dataSourceRoutingConfig.getStickyMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.invalidatedGenerations = Caffeine.newBuilder()
+                .maximumSize(userCacheConfig.getMaximumSize())
+                .expireAfterWrite(userCacheConfig.getExpireSeconds(), TimeUnit.SECONDS)
+                .build();
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.register(CACHE_NAME, ids -> invalidateLocal(Arrays.stream(ids.split(ID_SEPARATOR))
+                .map(Long::valueOf)
+                .collect(Collectors.toList())));
+    }
+
+    public User get(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    public Map<Long, User> getAll(Collection<Long> ids) {
+        return cache.getAllPresent(ids);
+    }
+
+    /**
+     * 读库前调用，返回的版本号传给 {@link #put(User, long)}
+     */
+    public long startLoad() {
+        return generation.get();
+    }
+
+    /**
+     * 放入从库中读到的用户，读库后该用户被失效过时丢弃
+     *
+     * @param loadGeneration 读库前 {@link #startLoad()} 的返回值
+     */
+    public void put(User user, long loadGeneration) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        // 失效先记版本号再清除缓存，清除与这里的 compute 对同一个 key 互斥，因此不会留下旧数据
+        cache.asMap().compute(user.getId(), (id, current) -> {
+            Long invalidated = invalidatedGenerations.getIfPresent(id);
+            return invalidated != null && invalidated > loadGeneration ? current : user;
+        });
+    }
+
+    /**
+     * 是否在读己之写窗口内，是则应从主库读取
+     */
+    public boolean isRecentlyWritten(Long id) {
+        return recentlyWritten.getIfPresent(id) != null;
+    }
+
+    public boolean isAnyRecentlyWritten(Collection<Long> ids) {
+        return !recentlyWritten.getAllPresent(ids).isEmpty();
+    }
+
+    public void invalidate(Long id) {
+        invalidateLocal(Collections.singletonList(id));
+        cacheInvalidationBus.publish(CACHE_NAME, String.valueOf(id));
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        invalidateLocal(ids);
+        cacheInvalidationBus.publish(CACHE_NAME, ids.stream().map(String::valueOf).collect(Collectors.joining(ID_SEPARATOR)));
+    }
+
+    private void invalidateLocal(Collection<Long> ids) {
+        long invalidated = generation.incrementAndGet();
+        for (Long id : ids) {
+            recentlyWritten.put(id, Boolean.TRUE);
+            invalidatedGenerations.put(id, invalidated);
+        }
+        cache.invalidateAll(ids);
+    }
+}
@@ -0,0 +1,36 @@
+package team.weyoung.mapper;
+
+import com.mybatisflex.core.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import team.weyoung.model.entity.EventRollup;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 事件汇总数据库操作
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public interface EventRollupMapper extends BaseMapper<EventRollup> {
+
+    /**
+     * 批量写入各时间段本进程的累计次数，已存在时覆盖；写入的是总数，重复执行结果不变
+     */
+    @Insert("<script>INSERT INTO event_rollup (metric, granularity, bucket_time, node, event_count, update_time) VALUES "
+            + "<foreach collection='rollups' item='item' separator=','>"
+            + "(#{item.metric}, #{item.granularity}, #{item.bucketTime}, #{item.node}, #{item.eventCount}, #{item.updateTime})"
+            + "</foreach> "
+            + "ON DUPLICATE KEY UPDATE event_count = VALUES(event_count), update_time = VALUES(update_time)</script>")
+    int upsertAll(@Param("rollups") List<EventRollup> rollups);
+
+    /**
+     * 从 start 起各时间段所有进程的次数之和
+     */
+    @Select("SELECT bucket_time AS bucketTime, SUM(event_count) AS eventCount FROM event_rollup "
+            + "WHERE metric = #{metric} AND granularity = #{granularity} AND bucket_time >= #{start} GROUP BY bucket_time")
+    List<EventRollup> sumByBucket(@Param("metric") String metric, @Param("granularity") String granularity,
+                                  @Param("start") Date start);
+}
@@ -0,0 +1,12 @@
+package team.weyoung.mapper;
+
+
+import com.mybatisflex.core.BaseMapper;
+import team.weyoung.model.entity.JobRun;
+
+/**
+ * 后台任务运行记录数据库操作
+ *
+ */
+public interface JobRunMapper extends BaseMapper<JobRun> {
+}
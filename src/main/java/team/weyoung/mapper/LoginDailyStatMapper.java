@@ -0,0 +1,29 @@
+package team.weyoung.mapper;
+
+
+import com.mybatisflex.core.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import team.weyoung.model.entity.LoginDailyStat;
+
+import java.util.Date;
+
+/**
+ * 每日登录统计数据库操作
+ *
+ */
+public interface LoginDailyStatMapper extends BaseMapper<LoginDailyStat> {
+
+    /**
+     * 从登录记录汇总 [start, end) 内的登录次数、用户数和设备数
+     */
+    @Select("SELECT COUNT(*) AS login_count, COUNT(DISTINCT user_id) AS user_count, COUNT(DISTINCT device_id) AS device_count "
+            + "FROM user_device_login WHERE login_time >= #{start} AND login_time < #{end}")
+    LoginDailyStat aggregate(@Param("start") Date start, @Param("end") Date end);
+
+    /**
+     * 已汇总的最新日期
+     */
+    @Select("SELECT MAX(stat_date) FROM login_daily_stat")
+    Date selectLatestDate();
+}
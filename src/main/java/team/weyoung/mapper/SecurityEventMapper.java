@@ -0,0 +1,12 @@
+package team.weyoung.mapper;
+
+
+import com.mybatisflex.core.BaseMapper;
+import team.weyoung.model.entity.SecurityEvent;
+
+/**
+ * 安全事件数据库操作
+ *
+ */
+public interface SecurityEventMapper extends BaseMapper<SecurityEvent> {
+}
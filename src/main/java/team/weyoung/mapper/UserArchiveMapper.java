@@ -0,0 +1,12 @@
+package team.weyoung.mapper;
+
+
+import com.mybatisflex.core.BaseMapper;
+import team.weyoung.model.entity.UserArchive;
+
+/**
+ * 已归档用户数据库操作
+ *
+ */
+public interface UserArchiveMapper extends BaseMapper<UserArchive> {
+}
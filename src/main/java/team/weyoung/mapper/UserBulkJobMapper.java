@@ -0,0 +1,12 @@
+package team.weyoung.mapper;
+
+import com.mybatisflex.core.BaseMapper;
+import team.weyoung.model.entity.UserBulkJob;
+
+/**
+ * 用户批量操作任务数据库操作
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public interface UserBulkJobMapper extends BaseMapper<UserBulkJob> {
+}
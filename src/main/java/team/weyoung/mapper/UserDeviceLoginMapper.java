@@ -0,0 +1,12 @@
+package team.weyoung.mapper;
+
+import com.mybatisflex.core.BaseMapper;
+import team.weyoung.model.entity.UserDeviceLogin;
+
+/**
+ * 用户设备登录记录数据库操作
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public interface UserDeviceLoginMapper extends BaseMapper<UserDeviceLogin> {
+}
@@ -0,0 +1,45 @@
+package team.weyoung.model.dto.event;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import team.weyoung.common.PageRequest;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 安全事件查询请求
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class SecurityEventQueryRequest extends PageRequest implements Serializable {
+
+    /**
+     * 事件类型
+     */
+    private String eventType;
+
+    /**
+     * 涉及的用户 id
+     */
+    private Long userId;
+
+    /**
+     * 操作人 id
+     */
+    private Long operatorId;
+
+    /**
+     * 开始时间（含）
+     */
+    private Date startTime;
+
+    /**
+     * 结束时间（不含）
+     */
+    private Date endTime;
+
+    private static final long serialVersionUID = 1L;
+}
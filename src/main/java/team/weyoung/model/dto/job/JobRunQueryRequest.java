@@ -0,0 +1,29 @@
+package team.weyoung.model.dto.job;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import team.weyoung.common.PageRequest;
+
+import java.io.Serializable;
+
+/**
+ * 后台任务运行记录查询请求
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class JobRunQueryRequest extends PageRequest implements Serializable {
+
+    /**
+     * 任务名称
+     */
+    private String jobName;
+
+    /**
+     * 运行状态
+     */
+    private String status;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,37 @@
+package team.weyoung.model.dto.user;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 用户批量操作请求，按 id 列表或筛选条件选择用户，同时给出时取交集
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+public class UserBulkRequest implements Serializable {
+
+    /**
+     * 用户 id 列表
+     */
+    private List<Long> ids;
+
+    /**
+     * 用户昵称（模糊匹配）
+     */
+    private String userName;
+
+    /**
+     * 简介（模糊匹配）
+     */
+    private String userProfile;
+
+    /**
+     * 用户角色：user/admin/ban
+     */
+    private String userRole;
+
+    private static final long serialVersionUID = 1L;
+}
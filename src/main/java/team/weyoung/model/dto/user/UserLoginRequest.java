@@ -16,4 +16,9 @@ public class UserLoginRequest implements Serializable {
     private String userAccount;
 
     private String userPassword;
+
+    /**
+     * 设备指纹，由客户端生成
+     */
+    private String deviceId;
 }
@@ -0,0 +1,55 @@
+package team.weyoung.model.entity;
+
+import com.mybatisflex.annotation.Id;
+import com.mybatisflex.annotation.KeyType;
+import com.mybatisflex.annotation.Table;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 事件按小时、按天汇总的次数
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+@Table("event_rollup")
+public class EventRollup implements Serializable {
+
+    /**
+     * 指标，见 EventMetricEnum
+     */
+    @Id(keyType = KeyType.None)
+    private String metric;
+
+    /**
+     * 粒度：hour/day
+     */
+    @Id(keyType = KeyType.None)
+    private String granularity;
+
+    /**
+     * 时间段起点
+     */
+    @Id(keyType = KeyType.None)
+    private Date bucketTime;
+
+    /**
+     * 写入的进程（pid@host-启动时间）
+     */
+    @Id(keyType = KeyType.None)
+    private String node;
+
+    /**
+     * 该进程在该时间段内的次数
+     */
+    private Long eventCount;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,73 @@
+package team.weyoung.model.entity;
+
+import com.mybatisflex.annotation.Id;
+import com.mybatisflex.annotation.KeyType;
+import com.mybatisflex.annotation.Table;
+import lombok.Data;
+import team.weyoung.manager.SnowflakeIdGenerator;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 后台任务运行记录
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+@Table("job_run")
+public class JobRun implements Serializable {
+
+    /**
+     * id
+     */
+    @Id(keyType = KeyType.Generator, value = SnowflakeIdGenerator.NAME)
+    private Long id;
+
+    /**
+     * 任务名称
+     */
+    private String jobName;
+
+    /**
+     * 运行状态，见 JobStatusEnum
+     */
+    private String status;
+
+    /**
+     * 运行节点
+     */
+    private String node;
+
+    /**
+     * 已处理条数
+     */
+    private Long processed;
+
+    /**
+     * 检查点，进程中断或失败后下次运行从这里继续
+     */
+    private String checkpoint;
+
+    /**
+     * 结果或错误信息
+     */
+    private String message;
+
+    /**
+     * 开始时间
+     */
+    private Date startTime;
+
+    /**
+     * 结束时间
+     */
+    private Date endTime;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private Long durationMillis;
+
+    private static final long serialVersionUID = 1L;
+}
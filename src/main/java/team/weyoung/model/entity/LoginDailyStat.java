@@ -0,0 +1,47 @@
+package team.weyoung.model.entity;
+
+import com.mybatisflex.annotation.Id;
+import com.mybatisflex.annotation.KeyType;
+import com.mybatisflex.annotation.Table;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 每日登录统计
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+@Table("login_daily_stat")
+public class LoginDailyStat implements Serializable {
+
+    /**
+     * 统计日期
+     */
+    @Id(keyType = KeyType.None)
+    private Date statDate;
+
+    /**
+     * 登录次数
+     */
+    private Long loginCount;
+
+    /**
+     * 登录用户数
+     */
+    private Long userCount;
+
+    /**
+     * 登录设备数
+     */
+    private Long deviceCount;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,58 @@
+package team.weyoung.model.entity;
+
+import com.mybatisflex.annotation.Id;
+import com.mybatisflex.annotation.KeyType;
+import com.mybatisflex.annotation.Table;
+import lombok.Data;
+import team.weyoung.manager.SnowflakeIdGenerator;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 安全事件（只追加）
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+@Table("security_event")
+public class SecurityEvent implements Serializable {
+
+    /**
+     * id
+     */
+    @Id(keyType = KeyType.Generator, value = SnowflakeIdGenerator.NAME)
+    private Long id;
+
+    /**
+     * 事件类型，见 SecurityEventTypeEnum
+     */
+    private String eventType;
+
+    /**
+     * 事件涉及的用户 id
+     */
+    private Long userId;
+
+    /**
+     * 操作人 id，未登录时为空
+     */
+    private Long operatorId;
+
+    /**
+     * 请求 IP
+     */
+    private String ip;
+
+    /**
+     * 详情
+     */
+    private String detail;
+
+    /**
+     * 发生时间
+     */
+    private Date createTime;
+
+    private static final long serialVersionUID = 1L;
+}
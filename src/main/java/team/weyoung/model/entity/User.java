@@ -4,9 +4,9 @@ import com.alibaba.excel.annotation.ExcelIgnore;
 import com.alibaba.excel.annotation.ExcelProperty;
 import com.alibaba.excel.annotation.write.style.ColumnWidth;
 import com.mybatisflex.annotation.*;
-import com.mybatisflex.core.keygen.KeyGenerators;
 import com.mybatisflex.core.mask.Masks;
 import lombok.Data;
+import team.weyoung.manager.SnowflakeIdGenerator;
 
 import java.io.Serializable;
 import java.util.Date;
@@ -23,7 +23,7 @@ public class User implements Serializable {
     /**
      * id
      */
-    @Id(keyType = KeyType.Generator, value = KeyGenerators.snowFlakeId)
+    @Id(keyType = KeyType.Generator, value = SnowflakeIdGenerator.NAME)
     @ExcelIgnore
     private Long id;
 
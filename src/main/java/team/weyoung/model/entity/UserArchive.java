@@ -0,0 +1,122 @@
+package team.weyoung.model.entity;
+
+import com.mybatisflex.annotation.Id;
+import com.mybatisflex.annotation.KeyType;
+import com.mybatisflex.annotation.Table;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 已归档用户（逻辑删除超过保留期后从用户表移入）
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+@Table("user_archive")
+public class UserArchive implements Serializable {
+
+    /**
+     * 原用户 id
+     */
+    @Id(keyType = KeyType.None)
+    private Long id;
+
+    /**
+     * 用户账号
+     */
+    private String userAccount;
+
+    /**
+     * 用户密码
+     */
+    private String userPassword;
+
+    /**
+     * 用户昵称
+     */
+    private String userName;
+
+    /**
+     * 用户头像
+     */
+    private String userAvatar;
+
+    /**
+     * 用户简介
+     */
+    private String userProfile;
+
+    /**
+     * 用户角色：user/admin/ban
+     */
+    private String userRole;
+
+    /**
+     * 用户性别
+     */
+    private Integer gender;
+
+    /**
+     * 地址
+     */
+    private String address;
+
+    /**
+     * 标签
+     */
+    private String tags;
+
+    /**
+     * 生日
+     */
+    private Date birthday;
+
+    /**
+     * 公司
+     */
+    private String company;
+
+    /**
+     * 职位
+     */
+    private String position;
+
+    /**
+     * 就读学校
+     */
+    private String school;
+
+    /**
+     * 电话
+     */
+    private String phone;
+
+    /**
+     * 邮箱
+     */
+    private String email;
+
+    /**
+     * 个人网站(Json)
+     */
+    private String website;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    /**
+     * 更新时间（即删除时间）
+     */
+    private Date updateTime;
+
+    /**
+     * 归档时间
+     */
+    private Date archiveTime;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,67 @@
+package team.weyoung.model.entity;
+
+import com.mybatisflex.annotation.Id;
+import com.mybatisflex.annotation.KeyType;
+import com.mybatisflex.annotation.Table;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 用户批量操作任务的参数，任务中断后据此重建并从检查点继续
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+@Table("user_bulk_job")
+public class UserBulkJob implements Serializable {
+
+    /**
+     * 任务名称
+     */
+    @Id(keyType = KeyType.None)
+    private String jobName;
+
+    /**
+     * 操作类型：ban/unban/delete
+     */
+    private String action;
+
+    /**
+     * 请求参数（JSON，id 列表已去重排序）
+     */
+    private String request;
+
+    /**
+     * 操作人 id
+     */
+    private Long operatorId;
+
+    /**
+     * 目标用户数
+     */
+    private Long total;
+
+    /**
+     * 是否已完成：0-未完成、1-已完成
+     */
+    private Integer finished;
+
+    /**
+     * 已提交但副作用（缓存失效、会话吊销、安全事件）尚未完成的一批（JSON），恢复运行时先补做
+     */
+    private String pending;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,53 @@
+package team.weyoung.model.entity;
+
+import com.mybatisflex.annotation.Id;
+import com.mybatisflex.annotation.KeyType;
+import com.mybatisflex.annotation.Table;
+import lombok.Data;
+import team.weyoung.manager.SnowflakeIdGenerator;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 用户设备登录记录（只追加）
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+@Table("user_device_login")
+public class UserDeviceLogin implements Serializable {
+
+    /**
+     * id
+     */
+    @Id(keyType = KeyType.Generator, value = SnowflakeIdGenerator.NAME)
+    private Long id;
+
+    /**
+     * 用户 id
+     */
+    private Long userId;
+
+    /**
+     * 设备指纹
+     */
+    private String deviceId;
+
+    /**
+     * 登录 IP
+     */
+    private String ip;
+
+    /**
+     * User-Agent
+     */
+    private String userAgent;
+
+    /**
+     * 登录时间
+     */
+    private Date loginTime;
+
+    private static final long serialVersionUID = 1L;
+}
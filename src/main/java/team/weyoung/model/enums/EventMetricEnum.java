@@ -0,0 +1,47 @@
+package team.weyoung.model.enums;
+
+import org.apache.commons.lang3.ObjectUtils;
+
+/**
+ * 事件指标枚举
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public enum EventMetricEnum {
+
+    REGISTER("注册", "register"),
+    LOGIN_FAILURE("登录失败", "login_failure"),
+    BAN("封号", "ban");
+
+    private final String text;
+
+    private final String value;
+
+    EventMetricEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 根据 value 获取枚举
+     */
+    public static EventMetricEnum getEnumByValue(String value) {
+        if (ObjectUtils.isEmpty(value)) {
+            return null;
+        }
+        for (EventMetricEnum anEnum : EventMetricEnum.values()) {
+            if (anEnum.value.equals(value)) {
+                return anEnum;
+            }
+        }
+        return null;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
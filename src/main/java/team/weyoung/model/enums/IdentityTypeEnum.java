@@ -0,0 +1,39 @@
+package team.weyoung.model.enums;
+
+/**
+ * 身份标识类型枚举
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public enum IdentityTypeEnum {
+
+    PHONE("手机号", "phone"),
+    EMAIL("邮箱", "email"),
+    DEVICE("设备", "device");
+
+    private final String text;
+
+    private final String value;
+
+    IdentityTypeEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 生成索引 key，不同类型的标识互不冲突
+     *
+     * @param normalized 归一化后的标识
+     */
+    public String key(String normalized) {
+        return value + ":" + normalized;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
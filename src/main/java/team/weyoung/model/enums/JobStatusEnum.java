@@ -0,0 +1,33 @@
+package team.weyoung.model.enums;
+
+/**
+ * 后台任务运行状态枚举
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public enum JobStatusEnum {
+
+    PENDING("排队中", "pending"),
+    RUNNING("运行中", "running"),
+    SUCCESS("成功", "success"),
+    FAILED("失败", "failed"),
+    STOPPED("已停止", "stopped"),
+    INTERRUPTED("进程中断", "interrupted");
+
+    private final String text;
+
+    private final String value;
+
+    JobStatusEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
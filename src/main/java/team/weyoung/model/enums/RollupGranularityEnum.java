@@ -0,0 +1,47 @@
+package team.weyoung.model.enums;
+
+import org.apache.commons.lang3.ObjectUtils;
+
+/**
+ * 统计粒度枚举
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public enum RollupGranularityEnum {
+
+    MINUTE("分钟", "minute"),
+    HOUR("小时", "hour"),
+    DAY("天", "day");
+
+    private final String text;
+
+    private final String value;
+
+    RollupGranularityEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 根据 value 获取枚举
+     */
+    public static RollupGranularityEnum getEnumByValue(String value) {
+        if (ObjectUtils.isEmpty(value)) {
+            return null;
+        }
+        for (RollupGranularityEnum anEnum : RollupGranularityEnum.values()) {
+            if (anEnum.value.equals(value)) {
+                return anEnum;
+            }
+        }
+        return null;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
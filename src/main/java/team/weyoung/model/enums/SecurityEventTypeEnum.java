@@ -0,0 +1,50 @@
+package team.weyoung.model.enums;
+
+import org.apache.commons.lang3.ObjectUtils;
+
+/**
+ * 安全事件类型枚举
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public enum SecurityEventTypeEnum {
+
+    LOGIN_SUCCESS("登录成功", "login_success"),
+    LOGIN_FAILURE("登录失败", "login_failure"),
+    LOGOUT("注销", "logout"),
+    PASSWORD_CHANGE("修改密码", "password_change"),
+    ROLE_CHANGE("角色变更", "role_change"),
+    USER_DELETE("删除用户", "user_delete");
+
+    private final String text;
+
+    private final String value;
+
+    SecurityEventTypeEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 根据 value 获取枚举
+     */
+    public static SecurityEventTypeEnum getEnumByValue(String value) {
+        if (ObjectUtils.isEmpty(value)) {
+            return null;
+        }
+        for (SecurityEventTypeEnum anEnum : SecurityEventTypeEnum.values()) {
+            if (anEnum.value.equals(value)) {
+                return anEnum;
+            }
+        }
+        return null;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,47 @@
+package team.weyoung.model.enums;
+
+import org.apache.commons.lang3.ObjectUtils;
+
+/**
+ * 用户批量操作类型枚举
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public enum UserBulkActionEnum {
+
+    BAN("封号", "ban"),
+    UNBAN("解封", "unban"),
+    DELETE("删除", "delete");
+
+    private final String text;
+
+    private final String value;
+
+    UserBulkActionEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 根据 value 获取枚举
+     */
+    public static UserBulkActionEnum getEnumByValue(String value) {
+        if (ObjectUtils.isEmpty(value)) {
+            return null;
+        }
+        for (UserBulkActionEnum anEnum : UserBulkActionEnum.values()) {
+            if (anEnum.value.equals(value)) {
+                return anEnum;
+            }
+        }
+        return null;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
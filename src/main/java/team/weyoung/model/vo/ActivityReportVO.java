@@ -0,0 +1,58 @@
+package team.weyoung.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 活跃用户报告视图，人数均为 HyperLogLog 估算值（标准误差约 0.81%）
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+public class ActivityReportVO implements Serializable {
+
+    /**
+     * 日期，yyyyMMdd
+     */
+    private String date;
+
+    /**
+     * 日活跃用户数
+     */
+    private Long dailyActiveUsers;
+
+    /**
+     * 角色 -> 日活跃用户数
+     */
+    private Map<String, Long> dailyActiveUsersByRole;
+
+    /**
+     * 0 ~ 23 时每小时的活跃用户数
+     */
+    private List<Long> hourlyActiveUsers;
+
+    /**
+     * 所在自然月的月活跃用户数
+     */
+    private Long monthlyActiveUsers;
+
+    /**
+     * 当天登录的独立 IP 数
+     */
+    private Long uniqueIps;
+
+    /**
+     * 本节点缓冲区已满丢弃的记录数
+     */
+    private long droppedCount;
+
+    /**
+     * 本节点刷新失败次数
+     */
+    private long flushFailureCount;
+
+    private static final long serialVersionUID = 1L;
+}
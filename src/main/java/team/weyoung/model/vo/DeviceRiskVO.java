@@ -0,0 +1,37 @@
+package team.weyoung.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 设备风险视图
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+public class DeviceRiskVO implements Serializable {
+
+    /**
+     * 设备指纹
+     */
+    private String deviceId;
+
+    /**
+     * 窗口内登录过的账号数
+     */
+    private int accountCount;
+
+    /**
+     * 是否为风险设备
+     */
+    private boolean risky;
+
+    /**
+     * 窗口内登录过的账号 id，按最近登录时间升序
+     */
+    private List<Long> userIds;
+
+    private static final long serialVersionUID = 1L;
+}
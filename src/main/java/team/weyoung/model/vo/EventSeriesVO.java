@@ -0,0 +1,38 @@
+package team.weyoung.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 事件时间序列视图
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+public class EventSeriesVO implements Serializable {
+
+    /**
+     * 指标
+     */
+    private String metric;
+
+    /**
+     * 粒度：minute/hour/day
+     */
+    private String granularity;
+
+    /**
+     * 第一个时间段的起点
+     */
+    private Date start;
+
+    /**
+     * 从 start 起每个时间段的次数，没有事件的时间段为 0；按分钟统计的只含本节点
+     */
+    private List<Long> counts;
+
+    private static final long serialVersionUID = 1L;
+}
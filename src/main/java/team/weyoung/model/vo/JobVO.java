@@ -0,0 +1,42 @@
+package team.weyoung.model.vo;
+
+import lombok.Data;
+import team.weyoung.model.entity.JobRun;
+
+import java.io.Serializable;
+
+/**
+ * 后台任务视图
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+public class JobVO implements Serializable {
+
+    /**
+     * 任务名称
+     */
+    private String name;
+
+    /**
+     * cron 表达式，为空表示只能手动触发
+     */
+    private String cron;
+
+    /**
+     * 是否集群内只运行一次
+     */
+    private boolean clusterSingleton;
+
+    /**
+     * 是否正在本节点运行
+     */
+    private boolean running;
+
+    /**
+     * 最近一次运行
+     */
+    private JobRun lastRun;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,46 @@
+package team.weyoung.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 延迟统计视图
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+public class LatencySnapshotVO implements Serializable {
+
+    /**
+     * 次数
+     */
+    private long count;
+
+    /**
+     * 平均耗时（微秒）
+     */
+    private double avgMicros;
+
+    /**
+     * p50（微秒）
+     */
+    private long p50Micros;
+
+    /**
+     * p95（微秒）
+     */
+    private long p95Micros;
+
+    /**
+     * p99（微秒）
+     */
+    private long p99Micros;
+
+    /**
+     * 最大耗时（微秒）
+     */
+    private long maxMicros;
+
+    private static final long serialVersionUID = 1L;
+}
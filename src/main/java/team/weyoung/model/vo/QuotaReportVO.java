@@ -0,0 +1,53 @@
+package team.weyoung.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 配额报告视图
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+public class QuotaReportVO implements Serializable {
+
+    /**
+     * 日期，yyyyMMdd
+     */
+    private String date;
+
+    /**
+     * 配额资源名
+     */
+    private String resource;
+
+    /**
+     * 角色 -> 每日上限
+     */
+    private Map<String, Long> limits;
+
+    /**
+     * 用量最高的主体
+     */
+    private List<QuotaUsageVO> top;
+
+    /**
+     * 本节点的计数器个数
+     */
+    private int localCounters;
+
+    /**
+     * 本节点拒绝的请求数
+     */
+    private long rejectedCount;
+
+    /**
+     * 本节点刷新失败次数
+     */
+    private long flushFailureCount;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,26 @@
+package team.weyoung.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 配额使用量视图
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+public class QuotaUsageVO implements Serializable {
+
+    /**
+     * 计数主体，用户 id 或 ip:地址
+     */
+    private String subject;
+
+    /**
+     * 当日已用次数（已刷新到 Redis 的部分）
+     */
+    private long used;
+
+    private static final long serialVersionUID = 1L;
+}
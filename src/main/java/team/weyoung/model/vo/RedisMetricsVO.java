@@ -0,0 +1,37 @@
+package team.weyoung.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Redis 客户端指标视图
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+public class RedisMetricsVO implements Serializable {
+
+    /**
+     * 连接模式：shared/pool
+     */
+    private String mode;
+
+    /**
+     * 熔断器状态：CLOSED/OPEN/HALF_OPEN
+     */
+    private String circuitState;
+
+    /**
+     * 熔断期间被拒绝的请求数
+     */
+    private long circuitRejected;
+
+    /**
+     * 各命令延迟统计
+     */
+    private Map<String, LatencySnapshotVO> commands;
+
+    private static final long serialVersionUID = 1L;
+}
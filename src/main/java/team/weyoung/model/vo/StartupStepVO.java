@@ -0,0 +1,36 @@
+package team.weyoung.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 启动步骤视图
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+public class StartupStepVO implements Serializable {
+
+    /**
+     * 步骤名，如 spring.beans.instantiate
+     */
+    private String name;
+
+    /**
+     * Bean 名称，非 Bean 创建步骤为空
+     */
+    private String beanName;
+
+    /**
+     * 相对启动开始的偏移（毫秒）
+     */
+    private long startMillis;
+
+    /**
+     * 耗时（毫秒），Bean 创建步骤包含其依赖 Bean 的创建时间
+     */
+    private long durationMillis;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,37 @@
+package team.weyoung.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 启动耗时报告视图
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+public class StartupTimelineVO implements Serializable {
+
+    /**
+     * JVM 启动到应用就绪的耗时（毫秒）
+     */
+    private long readyMillis;
+
+    /**
+     * 是否开启了懒加载
+     */
+    private boolean lazyInitialization;
+
+    /**
+     * 已记录的 Bean 创建次数
+     */
+    private int beanCount;
+
+    /**
+     * 按耗时倒序的启动步骤
+     */
+    private List<StartupStepVO> steps;
+
+    private static final long serialVersionUID = 1L;
+}
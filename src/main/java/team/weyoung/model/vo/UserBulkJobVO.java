@@ -0,0 +1,42 @@
+package team.weyoung.model.vo;
+
+import lombok.Data;
+import team.weyoung.model.entity.JobRun;
+
+import java.io.Serializable;
+
+/**
+ * 用户批量操作任务视图
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+public class UserBulkJobVO implements Serializable {
+
+    /**
+     * 任务名称，用于查询进度，也可在后台任务运行记录中按名称查询
+     */
+    private String jobName;
+
+    /**
+     * 操作类型：ban/unban/delete
+     */
+    private String action;
+
+    /**
+     * 提交时统计的目标用户数，提交任务的节点之外查询时为空
+     */
+    private Long total;
+
+    /**
+     * 任务状态，尚未开始运行时为 pending
+     */
+    private String status;
+
+    /**
+     * 运行记录，processed 为已处理的用户数；尚未开始运行时为空
+     */
+    private JobRun run;
+
+    private static final long serialVersionUID = 1L;
+}
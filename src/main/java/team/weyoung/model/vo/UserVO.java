@@ -3,6 +3,7 @@ package team.weyoung.model.vo;
 import java.io.Serializable;
 import java.util.Date;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.mybatisflex.annotation.ColumnMask;
 import com.mybatisflex.core.mask.Masks;
@@ -10,12 +11,17 @@ import lombok.Data;
 
 /**
  * 用户视图（脱敏）
+ * <p>
+ * 支持稀疏字段集，见 {@link team.weyoung.annotation.SparseFields}
  *
  * @author <a href="https://github.com/Tunan81">图南</a>
  */
 @Data
+@JsonFilter(UserVO.FIELD_FILTER)
 public class UserVO implements Serializable {
 
+    public static final String FIELD_FILTER = "userVOFields";
+
     /**
      * id
      */
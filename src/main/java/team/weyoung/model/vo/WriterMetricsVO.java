@@ -0,0 +1,61 @@
+package team.weyoung.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 异步写入器指标视图
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Data
+public class WriterMetricsVO implements Serializable {
+
+    /**
+     * 写入器名称
+     */
+    private String name;
+
+    /**
+     * 缓冲区容量
+     */
+    private int capacity;
+
+    /**
+     * 当前积压条数
+     */
+    private int queued;
+
+    /**
+     * 积压条数的最大值
+     */
+    private long maxQueued;
+
+    /**
+     * 已接收条数
+     */
+    private long offered;
+
+    /**
+     * 缓冲区满被丢弃的条数
+     */
+    private long dropped;
+
+    /**
+     * 已写入条数
+     */
+    private long written;
+
+    /**
+     * 写入失败的条数
+     */
+    private long failed;
+
+    /**
+     * 已写入批次数
+     */
+    private long batches;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,53 @@
+package team.weyoung.satoken;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * 紧凑的二进制会话编解码器
+ * <p>
+ * 格式：1 字节魔数 + 1 字节版本号 + Smile 二进制负载（含 4 字节 Smile 头，解析端据此得知是否启用了字符串回引用）。
+ * Smile 对重复出现的属性名和短字符串使用回引用，且不写入 null 字段，体积和编解码耗时都明显小于 JSON。读取时遇到 JSON 格式的旧数据会自动按旧格式解析，
+ * 因此可以直接滚动升级，旧会话在下次写入时转换为新格式
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class CompactSessionCodec extends JacksonSessionCodec {
+
+    static final byte MAGIC = (byte) 0xA7;
+
+    static final byte VERSION = 1;
+
+    private static final int HEADER_LENGTH = 2;
+
+    private final JacksonSessionCodec legacyCodec = new JacksonSessionCodec();
+
+    public CompactSessionCodec() {
+        // 共享字符串值的开关记录在 Smile 头中，关闭头部时 Jackson 拒绝启用
+        super(new ObjectMapper(new SmileFactory()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)), true);
+    }
+
+    @Override
+    public byte[] encode(Object object) {
+        byte[] payload = super.encode(object);
+        byte[] bytes = new byte[payload.length + HEADER_LENGTH];
+        bytes[0] = MAGIC;
+        bytes[1] = VERSION;
+        System.arraycopy(payload, 0, bytes, HEADER_LENGTH, payload.length);
+        return bytes;
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        if (bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC) {
+            if (bytes[1] != VERSION) {
+                throw new IllegalStateException("unsupported session codec version: " + bytes[1]);
+            }
+            return decode(bytes, HEADER_LENGTH);
+        }
+        // 升级前由 sa-token-redis-jackson 写入的 JSON
+        return legacyCodec.decode(bytes);
+    }
+}
@@ -0,0 +1,76 @@
+package team.weyoung.satoken;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 基于 Jackson JSON 的会话编解码器，与原 sa-token-redis-jackson 的存储格式兼容
+ * <p>
+ * 仅用于读取升级前写入 Redis 的旧会话，以及作为基准测试的对照组
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class JacksonSessionCodec implements SessionCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public JacksonSessionCodec() {
+        this(new ObjectMapper(), false);
+    }
+
+    protected JacksonSessionCodec(ObjectMapper objectMapper, boolean skipNulls) {
+        this.objectMapper = configure(objectMapper, skipNulls);
+    }
+
+    /**
+     * 按字段序列化并写入类型信息，反序列化时只允许项目、Sa-Token 和 JDK 的类型
+     */
+    static ObjectMapper configure(ObjectMapper objectMapper, boolean skipNulls) {
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        objectMapper.activateDefaultTyping(BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("cn.dev33.satoken.")
+                        .allowIfSubType("team.weyoung.")
+                        .allowIfSubType("java.util.")
+                        .allowIfSubType("java.lang.")
+                        .build(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        if (skipNulls) {
+            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        }
+        return objectMapper;
+    }
+
+    @Override
+    public byte[] encode(Object object) {
+        try {
+            return objectMapper.writeValueAsBytes(object);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        return decode(bytes, 0);
+    }
+
+    protected Object decode(byte[] bytes, int offset) {
+        try {
+            return objectMapper.readValue(bytes, offset, bytes.length - offset, Object.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package team.weyoung.satoken;
+
+import cn.dev33.satoken.exception.NotLoginException;
+import cn.dev33.satoken.stp.StpLogic;
+import cn.dev33.satoken.stp.StpUtil;
+import org.springframework.stereotype.Component;
+import team.weyoung.service.SessionRevocationService;
+
+import javax.annotation.Resource;
+
+/**
+ * 检查会话吊销的 StpLogic，由 Sa-Token 的 SaBeanInject 注入 StpUtil
+ * <p>
+ * token 解析出 loginId 后先查本地拒绝集合，已吊销的用户按被踢下线处理：isLogin 返回 false，getLoginId 抛出 NotLoginException
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Component
+public class RevocationAwareStpLogic extends StpLogic {
+
+    @Resource
+    private SessionRevocationService sessionRevocationService;
+
+    public RevocationAwareStpLogic() {
+        super(StpUtil.TYPE);
+    }
+
+    @Override
+    public String getLoginIdNotHandle(String tokenValue) {
+        String loginId = super.getLoginIdNotHandle(tokenValue);
+        if (loginId == null || NotLoginException.ABNORMAL_LIST.contains(loginId)) {
+            return loginId;
+        }
+        try {
+            if (sessionRevocationService.isRevoked(Long.parseLong(loginId))) {
+                return NotLoginException.KICK_OUT;
+            }
+        } catch (NumberFormatException e) {
+            return loginId;
+        }
+        return loginId;
+    }
+}
@@ -0,0 +1,188 @@
+package team.weyoung.satoken;
+
+import cn.dev33.satoken.dao.SaTokenDao;
+import cn.dev33.satoken.util.SaFoxUtil;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Component;
+import team.weyoung.manager.RedisCircuitBreaker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sa-Token 持久层 Redis 实现
+ * <p>
+ * 字符串值（token -> loginId 等）原样存储，会话等对象使用 {@link CompactSessionCodec} 编码为紧凑的二进制格式，
+ * 替代 sa-token-redis-jackson 的 JSON 存储。读操作优先走 {@link SaTokenNearCache}，写操作会使其失效；
+ * 所有 Redis 访问经过 {@link RedisCircuitBreaker}，Redis 故障时快速失败
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Component
+public class SaTokenDaoRedisCompact implements SaTokenDao {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final RedisTemplate<String, byte[]> bytesRedisTemplate;
+
+    private final SessionCodec sessionCodec = new CompactSessionCodec();
+
+    private final SaTokenNearCache nearCache;
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    public SaTokenDaoRedisCompact(RedisConnectionFactory connectionFactory, SaTokenNearCache nearCache,
+                                  RedisCircuitBreaker circuitBreaker) {
+        this.nearCache = nearCache;
+        this.circuitBreaker = circuitBreaker;
+        this.stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        this.bytesRedisTemplate = template;
+    }
+
+    // region 字符串
+
+    @Override
+    public String get(String key) {
+        return nearCache.getValue(key, k -> circuitBreaker.execute(() -> stringRedisTemplate.opsForValue().get(k)));
+    }
+
+    /**
+     * 新写入的 key（如登录时的 token）其他节点不会缓存过，只失效本节点
+     */
+    @Override
+    public void set(String key, String value, long timeout) {
+        if (write(key, value, timeout)) {
+            nearCache.invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public void update(String key, String value) {
+        long expire = getTimeout(key);
+        if (expire == NOT_VALUE_EXPIRE) {
+            return;
+        }
+        if (write(key, value, expire)) {
+            nearCache.invalidate(key);
+        }
+    }
+
+    private boolean write(String key, String value, long timeout) {
+        if (timeout == 0 || timeout <= NOT_VALUE_EXPIRE) {
+            return false;
+        }
+        circuitBreaker.run(() -> {
+            if (timeout == NEVER_EXPIRE) {
+                stringRedisTemplate.opsForValue().set(key, value);
+            } else {
+                stringRedisTemplate.opsForValue().set(key, value, timeout, TimeUnit.SECONDS);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public void delete(String key) {
+        circuitBreaker.execute(() -> stringRedisTemplate.delete(key));
+        nearCache.invalidate(key);
+    }
+
+    @Override
+    public long getTimeout(String key) {
+        Long expire = circuitBreaker.execute(() -> stringRedisTemplate.getExpire(key));
+        return expire == null ? NOT_VALUE_EXPIRE : expire;
+    }
+
+    @Override
+    public void updateTimeout(String key, long timeout) {
+        if (timeout == NEVER_EXPIRE) {
+            circuitBreaker.execute(() -> stringRedisTemplate.persist(key));
+            return;
+        }
+        circuitBreaker.execute(() -> stringRedisTemplate.expire(key, timeout, TimeUnit.SECONDS));
+    }
+
+    // endregion
+
+    // region 对象
+
+    @Override
+    public Object getObject(String key) {
+        return nearCache.getObject(key, k -> {
+            byte[] bytes = circuitBreaker.execute(() -> bytesRedisTemplate.opsForValue().get(k));
+            return bytes == null ? null : sessionCodec.decode(bytes);
+        });
+    }
+
+    /**
+     * 新建的会话其他节点不会缓存过，只失效本节点
+     */
+    @Override
+    public void setObject(String key, Object object, long timeout) {
+        if (writeObject(key, object, timeout)) {
+            nearCache.invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public void updateObject(String key, Object object) {
+        long expire = getObjectTimeout(key);
+        if (expire == NOT_VALUE_EXPIRE) {
+            return;
+        }
+        if (writeObject(key, object, expire)) {
+            nearCache.invalidate(key);
+        }
+    }
+
+    private boolean writeObject(String key, Object object, long timeout) {
+        if (timeout == 0 || timeout <= NOT_VALUE_EXPIRE) {
+            return false;
+        }
+        byte[] bytes = sessionCodec.encode(object);
+        circuitBreaker.run(() -> {
+            if (timeout == NEVER_EXPIRE) {
+                bytesRedisTemplate.opsForValue().set(key, bytes);
+            } else {
+                bytesRedisTemplate.opsForValue().set(key, bytes, timeout, TimeUnit.SECONDS);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public void deleteObject(String key) {
+        circuitBreaker.execute(() -> bytesRedisTemplate.delete(key));
+        nearCache.invalidate(key);
+    }
+
+    @Override
+    public long getObjectTimeout(String key) {
+        return getTimeout(key);
+    }
+
+    @Override
+    public void updateObjectTimeout(String key, long timeout) {
+        updateTimeout(key, timeout);
+    }
+
+    // endregion
+
+    @Override
+    public List<String> searchData(String prefix, String keyword, int start, int size, boolean sortType) {
+        Set<String> keys = circuitBreaker.execute(() -> stringRedisTemplate.keys(prefix + "*" + keyword + "*"));
+        List<String> list = keys == null ? new ArrayList<>() : new ArrayList<>(keys);
+        return SaFoxUtil.searchList(list, start, size, sortType);
+    }
+}
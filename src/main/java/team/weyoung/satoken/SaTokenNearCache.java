@@ -0,0 +1,133 @@
+package team.weyoung.satoken;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import team.weyoung.config.NearCacheConfig;
+import team.weyoung.manager.CacheInvalidationBus;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Sa-Token 持久层的本地近端缓存
+ * <p>
+ * 热路径上 token -> loginId 和会话对象的读取直接命中本地缓存，不访问 Redis；
+ * 不存在的 key（伪造或过期的 token）做负缓存，避免无效 token 反复打到 Redis。
+ * 修改和删除（注销、踢人下线、封号等）会失效本地缓存并通过 {@link CacheInvalidationBus} 通知其他节点；
+ * 新写入的 key（登录时的 token 和会话）其他节点不会缓存过，只失效本节点，不额外发布消息
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Component
+public class SaTokenNearCache {
+
+    public static final String CACHE_NAME = "satoken";
+
+    private final boolean enabled;
+
+    private final Cache<String, String> values;
+
+    private final Cache<String, Boolean> misses;
+
+    private final Cache<String, Object> objects;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public SaTokenNearCache(NearCacheConfig nearCacheConfig, CacheInvalidationBus cacheInvalidationBus) {
+        this.enabled = nearCacheConfig.isEnabled();
+        this.values = Caffeine.newBuilder()
+                .maximumSize(nearCacheConfig.getMaximumSize())
+                .expireAfterWrite(nearCacheConfig.getValueTtlMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.misses = Caffeine.newBuilder()
+                .maximumSize(nearCacheConfig.getMaximumSize())
+                .expireAfterWrite(nearCacheConfig.getMissTtlMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.objects = Caffeine.newBuilder()
+                .maximumSize(nearCacheConfig.getMaximumSize())
+                .expireAfterWrite(nearCacheConfig.getObjectTtlMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.register(CACHE_NAME, this::evictLocal);
+    }
+
+    /**
+     * 读取字符串值，未命中时通过 loader 从 Redis 加载
+     */
+    public String getValue(String key, Function<String, String> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+        String value = values.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        if (misses.getIfPresent(key) != null) {
+            return null;
+        }
+        value = loader.apply(key);
+        if (value == null) {
+            misses.put(key, Boolean.TRUE);
+        } else {
+            values.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * 读取对象，未命中时通过 loader 从 Redis 加载
+     */
+    public Object getObject(String key, Function<String, Object> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+        Object object = objects.getIfPresent(key);
+        if (object != null) {
+            return object;
+        }
+        object = loader.apply(key);
+        if (object != null) {
+            objects.put(key, object);
+        }
+        return object;
+    }
+
+    /**
+     * key 被修改或删除后调用，失效本节点和其他节点的缓存
+     */
+    public void invalidate(String key) {
+        if (!enabled) {
+            return;
+        }
+        evictLocal(key);
+        cacheInvalidationBus.publish(CACHE_NAME, key);
+    }
+
+    /**
+     * 只失效本节点的缓存，用于新写入的 key
+     */
+    public void invalidateLocal(String key) {
+        if (!enabled) {
+            return;
+        }
+        evictLocal(key);
+    }
+
+    /**
+     * 只失效本节点的缓存，用于批量删除后不逐个广播的场景，其他节点依赖过期时间或调用方自己的广播
+     */
+    public void invalidateLocal(Collection<String> keys) {
+        if (!enabled) {
+            return;
+        }
+        keys.forEach(this::evictLocal);
+    }
+
+    private void evictLocal(String key) {
+        values.invalidate(key);
+        misses.invalidate(key);
+        objects.invalidate(key);
+    }
+}
@@ -0,0 +1,19 @@
+package team.weyoung.satoken;
+
+/**
+ * Sa-Token 会话对象编解码器
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public interface SessionCodec {
+
+    /**
+     * 编码
+     */
+    byte[] encode(Object object);
+
+    /**
+     * 解码
+     */
+    Object decode(byte[] bytes);
+}
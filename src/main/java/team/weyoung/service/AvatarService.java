@@ -0,0 +1,34 @@
+package team.weyoung.service;
+
+import org.springframework.web.multipart.MultipartFile;
+import team.weyoung.manager.StoredFile;
+
+/**
+ * 头像服务
+ *
+ */
+public interface AvatarService {
+
+    /**
+     * 上传头像并更新用户头像地址
+     *
+     * @param file   头像文件
+     * @param userId 用户 id
+     * @return 头像访问地址
+     */
+    String uploadAvatar(MultipartFile file, long userId);
+
+    /**
+     * 获取头像
+     *
+     * @param hash 头像内容哈希
+     * @param size 缩略图边长，0 表示原图
+     * @return 头像文件，不存在时返回 null；缩略图未生成时返回原图
+     */
+    StoredFile getAvatar(String hash, int size);
+
+    /**
+     * 头像实际对应的尺寸是否就是请求的尺寸（缩略图可能尚未生成）
+     */
+    boolean isThumbnailReady(String hash, int size);
+}
@@ -0,0 +1,28 @@
+package team.weyoung.service;
+
+import team.weyoung.model.vo.DeviceRiskVO;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 登录设备服务
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public interface DeviceLoginService {
+
+    /**
+     * 登录前校验设备，开启 device.block-risky-login 时拒绝风险设备登录新账号
+     */
+    void checkLogin(String deviceId, long userId);
+
+    /**
+     * 记录一次成功登录，只写内存和异步队列，不阻塞请求
+     */
+    void recordLogin(String deviceId, long userId, HttpServletRequest request);
+
+    /**
+     * 查询设备风险（只查内存）
+     */
+    DeviceRiskVO getDeviceRisk(String deviceId);
+}
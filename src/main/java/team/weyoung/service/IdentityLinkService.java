@@ -0,0 +1,41 @@
+package team.weyoung.service;
+
+import team.weyoung.model.entity.User;
+import team.weyoung.model.enums.IdentityTypeEnum;
+
+import java.util.Set;
+
+/**
+ * 关联账号检测服务
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public interface IdentityLinkService {
+
+    /**
+     * 用户注册或更新后索引其手机号、邮箱和账号，user 中为 null 的字段视为未修改
+     */
+    void onUserChanged(User user);
+
+    /**
+     * 用户删除后移除其标识
+     */
+    void onUserRemoved(long userId);
+
+    /**
+     * 追加一个标识（如登录设备），不替换已有标识
+     */
+    void addIdentifier(long userId, IdentityTypeEnum type, String value);
+
+    /**
+     * 与用户关联的其他账号 id
+     */
+    Set<Long> getLinkedUserIds(long userId);
+
+    /**
+     * 从用户表流式重建索引
+     *
+     * @return 读取的用户数
+     */
+    int rebuild();
+}
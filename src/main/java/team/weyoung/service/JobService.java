@@ -0,0 +1,31 @@
+package team.weyoung.service;
+
+import com.mybatisflex.core.paginate.Page;
+import team.weyoung.model.dto.job.JobRunQueryRequest;
+import team.weyoung.model.entity.JobRun;
+import team.weyoung.model.vo.JobVO;
+
+import java.util.List;
+
+/**
+ * 后台任务服务
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public interface JobService {
+
+    /**
+     * 全部任务及其最近一次运行
+     */
+    List<JobVO> listJobs();
+
+    /**
+     * 立即触发一次，异步运行；其他节点正在运行时本次不会执行
+     */
+    void trigger(String name);
+
+    /**
+     * 分页查询运行记录，按开始时间倒序
+     */
+    Page<JobRun> listRuns(JobRunQueryRequest jobRunQueryRequest);
+}
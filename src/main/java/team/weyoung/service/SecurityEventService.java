@@ -0,0 +1,28 @@
+package team.weyoung.service;
+
+import com.mybatisflex.core.paginate.Page;
+import team.weyoung.model.dto.event.SecurityEventQueryRequest;
+import team.weyoung.model.entity.SecurityEvent;
+import team.weyoung.model.enums.SecurityEventTypeEnum;
+
+/**
+ * 安全事件服务
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public interface SecurityEventService {
+
+    /**
+     * 记录一条安全事件，只放入异步写入缓冲区，不阻塞请求
+     *
+     * @param type   事件类型
+     * @param userId 涉及的用户 id
+     * @param detail 详情，超长部分截断
+     */
+    void record(SecurityEventTypeEnum type, Long userId, String detail);
+
+    /**
+     * 分页查询安全事件，按发生顺序倒序
+     */
+    Page<SecurityEvent> listEvents(SecurityEventQueryRequest securityEventQueryRequest);
+}
@@ -0,0 +1,28 @@
+package team.weyoung.service;
+
+import java.util.Collection;
+
+/**
+ * 会话吊销服务
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public interface SessionRevocationService {
+
+    /**
+     * 立即吊销用户的全部会话：加入各节点的本地拒绝集合，并分批删除其在 Redis 中的 token 和会话
+     *
+     * @throws team.weyoung.exception.BusinessException 删除会话重试后仍失败，拒绝集合已生效，调用方应重新吊销
+     */
+    void revoke(Collection<Long> userIds);
+
+    /**
+     * 解除吊销（如解封），用户可以重新登录
+     */
+    void restore(Collection<Long> userIds);
+
+    /**
+     * 用户是否已被吊销，只查本地内存
+     */
+    boolean isRevoked(long userId);
+}
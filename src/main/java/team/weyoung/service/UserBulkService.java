@@ -0,0 +1,28 @@
+package team.weyoung.service;
+
+import team.weyoung.model.dto.user.UserBulkRequest;
+import team.weyoung.model.enums.UserBulkActionEnum;
+import team.weyoung.model.vo.UserBulkJobVO;
+
+/**
+ * 用户批量操作服务
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public interface UserBulkService {
+
+    /**
+     * 提交批量封号、解封或删除，小的 id 列表同步完成，其余在后台分批运行
+     *
+     * @param action     操作类型
+     * @param request    id 列表或筛选条件
+     * @param operatorId 操作人 id，不会对自己操作
+     * @return 任务信息，同步完成时带运行记录
+     */
+    UserBulkJobVO submit(UserBulkActionEnum action, UserBulkRequest request, long operatorId);
+
+    /**
+     * 查询批量任务进度
+     */
+    UserBulkJobVO getJob(String jobName);
+}
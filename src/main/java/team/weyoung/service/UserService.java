@@ -6,6 +6,7 @@ import team.weyoung.model.vo.LoginUserVO;
 import team.weyoung.model.vo.UserVO;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -29,9 +30,10 @@ public interface UserService extends IService<User> {
      *
      * @param userAccount  用户账户
      * @param userPassword 用户密码
+     * @param deviceId     设备指纹，可为空
      * @return 脱敏后的用户信息
      */
-    LoginUserVO userLogin(String userAccount, String userPassword, HttpServletRequest request);
+    LoginUserVO userLogin(String userAccount, String userPassword, String deviceId, HttpServletRequest request);
 
     /**
      * 获取当前登录用户
@@ -73,6 +75,16 @@ public interface UserService extends IService<User> {
      */
     List<UserVO> getUserVO(List<User> userList);
 
+    /**
+     * 批量获取脱敏的用户信息，按传入顺序返回，不存在的 id 会被忽略
+     */
+    List<UserVO> getUserVOs(Collection<Long> ids);
+
+    /**
+     * 只查本地缓存，未命中时返回 null，不访问数据库
+     */
+    User getCachedById(long id);
+
     boolean updatePassword(String oldPassword, String newPassword);
 
 }
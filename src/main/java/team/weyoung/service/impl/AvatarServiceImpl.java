@@ -0,0 +1,304 @@
+package team.weyoung.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.config.AvatarConfig;
+import team.weyoung.exception.BusinessException;
+import team.weyoung.exception.ThrowUtils;
+import team.weyoung.manager.FileStorage;
+import team.weyoung.manager.StoredFile;
+import team.weyoung.model.entity.User;
+import team.weyoung.service.AvatarService;
+import team.weyoung.service.UserService;
+
+import javax.annotation.Resource;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+
+/**
+ * 头像服务实现
+ * <p>
+ * 头像按内容 SHA-256 寻址存储：原图为 avatar/{hash}/original，缩略图为 avatar/{hash}/{size}.jpg，
+ * 同一内容只存一份，且地址对应的内容永不变化，可以放心交给 CDN 长期缓存。
+ * 解码前先从文件头读取宽高，像素数超过 file.avatar.max-pixels 的图片不解码，防止小文件解码出巨大的位图
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Service
+public class AvatarServiceImpl implements AvatarService {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("^[0-9a-f]{64}$");
+
+    private static final String KEY_PREFIX = "avatar/";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    @Resource
+    private FileStorage fileStorage;
+
+    @Resource
+    private AvatarConfig avatarConfig;
+
+    @Resource
+    private UserService userService;
+
+    @Resource
+    private ThreadPoolTaskExecutor avatarExecutor;
+
+    /**
+     * 正在生成缩略图的头像，避免重复提交
+     */
+    private final Set<String> processing = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public String uploadAvatar(MultipartFile file, long userId) {
+        ThrowUtils.throwIf(file == null || file.isEmpty(), HttpCodeEnum.PARAMS_ERROR, "文件为空");
+        ThrowUtils.throwIf(file.getSize() > avatarConfig.getMaxSize(), HttpCodeEnum.PARAMS_ERROR, "头像过大");
+        // 1. 第一遍读取：计算内容哈希并识别图片类型（multipart 文件已落盘，这里只是流式读取）
+        String hash;
+        String contentType;
+        try (InputStream inputStream = file.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read = inputStream.read(buffer);
+            contentType = detectContentType(buffer, read);
+            ThrowUtils.throwIf(contentType == null, HttpCodeEnum.PARAMS_ERROR, "仅支持 jpg/png/gif 格式的图片");
+            while (read != -1) {
+                digest.update(buffer, 0, read);
+                read = inputStream.read(buffer);
+            }
+            hash = toHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.error("read avatar failed, userId: {}", userId, e);
+            throw new BusinessException(HttpCodeEnum.SYSTEM_ERROR, "头像读取失败");
+        }
+        // 2. 只读取文件头中的宽高，拒绝超大图片
+        checkDimensions(file, userId);
+        // 3. 内容不存在时流式写入存储
+        String originalKey = originalKey(hash);
+        if (!fileStorage.exists(originalKey)) {
+            try (InputStream inputStream = file.getInputStream()) {
+                fileStorage.putObject(originalKey, inputStream, file.getSize(), contentType);
+            } catch (IOException e) {
+                log.error("store avatar failed, userId: {}, key: {}", userId, originalKey, e);
+                throw new BusinessException(HttpCodeEnum.SYSTEM_ERROR, "头像上传失败");
+            }
+        }
+        // 4. 异步生成缩略图
+        submitThumbnails(hash);
+        // 5. 更新用户头像
+        String url = avatarConfig.getUrlPrefix() + hash;
+        User user = new User();
+        user.setId(userId);
+        user.setUserAvatar(url);
+        boolean result = userService.updateById(user);
+        ThrowUtils.throwIf(!result, HttpCodeEnum.OPERATION_ERROR);
+        return url;
+    }
+
+    @Override
+    public StoredFile getAvatar(String hash, int size) {
+        checkRequest(hash, size);
+        try {
+            if (size > 0) {
+                StoredFile thumbnail = fileStorage.getObject(thumbnailKey(hash, size));
+                if (thumbnail != null) {
+                    return thumbnail;
+                }
+                // 缩略图尚未生成（或之前被线程池丢弃），补一次生成任务，本次先返回原图
+                submitThumbnails(hash);
+            }
+            return fileStorage.getObject(originalKey(hash));
+        } catch (IOException e) {
+            log.error("read avatar failed, hash: {}, size: {}", hash, size, e);
+            throw new BusinessException(HttpCodeEnum.SYSTEM_ERROR);
+        }
+    }
+
+    @Override
+    public boolean isThumbnailReady(String hash, int size) {
+        checkRequest(hash, size);
+        return size == 0 || fileStorage.exists(thumbnailKey(hash, size));
+    }
+
+    private void checkRequest(String hash, int size) {
+        ThrowUtils.throwIf(hash == null || !HASH_PATTERN.matcher(hash).matches(), HttpCodeEnum.PARAMS_ERROR);
+        ThrowUtils.throwIf(size != 0 && !avatarConfig.getThumbnailSizes().contains(size), HttpCodeEnum.PARAMS_ERROR);
+    }
+
+    private void submitThumbnails(String hash) {
+        if (!processing.add(hash)) {
+            return;
+        }
+        try {
+            avatarExecutor.execute(() -> {
+                try {
+                    generateThumbnails(hash);
+                } finally {
+                    processing.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            processing.remove(hash);
+        }
+    }
+
+    /**
+     * 生成各尺寸缩略图（居中裁剪为正方形后缩放）
+     */
+    private void generateThumbnails(String hash) {
+        BufferedImage source = null;
+        for (Integer size : avatarConfig.getThumbnailSizes()) {
+            String key = thumbnailKey(hash, size);
+            if (fileStorage.exists(key)) {
+                continue;
+            }
+            try {
+                if (source == null) {
+                    StoredFile original = fileStorage.getObject(originalKey(hash));
+                    if (original == null) {
+                        return;
+                    }
+                    try (InputStream inputStream = original.getInputStream();
+                         ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+                        source = decode(imageInputStream, hash);
+                    }
+                    if (source == null) {
+                        return;
+                    }
+                }
+                byte[] bytes = resize(source, size);
+                fileStorage.putObject(key, new ByteArrayInputStream(bytes), bytes.length, "image/jpeg");
+            } catch (IOException e) {
+                log.error("generate avatar thumbnail failed, hash: {}, size: {}", hash, size, e);
+            }
+        }
+    }
+
+    private void checkDimensions(MultipartFile file, long userId) {
+        try (InputStream inputStream = file.getInputStream();
+             ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+            ImageReader reader = openReader(imageInputStream);
+            ThrowUtils.throwIf(reader == null, HttpCodeEnum.PARAMS_ERROR, "图片无法识别");
+            try {
+                ThrowUtils.throwIf(isOversized(reader), HttpCodeEnum.PARAMS_ERROR, "图片尺寸过大");
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            log.warn("read avatar dimensions failed, userId: {}", userId, e);
+            throw new BusinessException(HttpCodeEnum.PARAMS_ERROR, "图片无法识别");
+        }
+    }
+
+    /**
+     * 解码第一帧，无法识别或超过像素上限时返回 null
+     */
+    private BufferedImage decode(ImageInputStream imageInputStream, String hash) throws IOException {
+        ImageReader reader = openReader(imageInputStream);
+        if (reader == null) {
+            log.warn("avatar cannot be decoded, hash: {}", hash);
+            return null;
+        }
+        try {
+            // 上线像素检查前存入的原图也可能超限
+            if (isOversized(reader)) {
+                log.warn("avatar too large to decode, hash: {}, width: {}, height: {}", hash,
+                        reader.getWidth(0), reader.getHeight(0));
+                return null;
+            }
+            return reader.read(0);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * 宽高只读取文件头，不解码像素
+     */
+    private boolean isOversized(ImageReader reader) throws IOException {
+        return (long) reader.getWidth(0) * reader.getHeight(0) > avatarConfig.getMaxPixels();
+    }
+
+    private static ImageReader openReader(ImageInputStream imageInputStream) {
+        if (imageInputStream == null) {
+            return null;
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(imageInputStream, true, true);
+        return reader;
+    }
+
+    private byte[] resize(BufferedImage source, int size) throws IOException {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+        BufferedImage target = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, size, size, x, y, x + side, y + side, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(target, "jpg", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static String originalKey(String hash) {
+        return KEY_PREFIX + hash + "/original";
+    }
+
+    private static String thumbnailKey(String hash, int size) {
+        return KEY_PREFIX + hash + "/" + size + ".jpg";
+    }
+
+    /**
+     * 根据文件头识别图片类型，不信任客户端上传的 Content-Type
+     */
+    private static String detectContentType(byte[] header, int length) {
+        if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return "image/png";
+        }
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (length >= 4 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8') {
+            return "image/gif";
+        }
+        return null;
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,176 @@
+package team.weyoung.service.impl;
+
+import com.mybatisflex.core.query.QueryWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.config.DeviceConfig;
+import team.weyoung.exception.BusinessException;
+import team.weyoung.manager.AsyncBatchWriter;
+import team.weyoung.manager.CacheInvalidationBus;
+import team.weyoung.manager.DeviceLoginTracker;
+import team.weyoung.mapper.UserDeviceLoginMapper;
+import team.weyoung.model.entity.UserDeviceLogin;
+import team.weyoung.model.enums.IdentityTypeEnum;
+import team.weyoung.model.vo.DeviceRiskVO;
+import team.weyoung.service.DeviceLoginService;
+import team.weyoung.service.IdentityLinkService;
+import team.weyoung.utils.NetUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static team.weyoung.model.entity.table.UserDeviceLoginTableDef.USER_DEVICE_LOGIN;
+
+/**
+ * 登录设备服务实现
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Service
+public class DeviceLoginServiceImpl implements DeviceLoginService {
+
+    private static final int MAX_DEVICE_ID_LENGTH = 128;
+
+    private static final int MAX_IP_LENGTH = 64;
+
+    private static final int MAX_USER_AGENT_LENGTH = 512;
+
+    private static final int WARM_UP_BATCH_SIZE = 1000;
+
+    private static final String CHANNEL_NAME = "device-login";
+
+    /**
+     * 登录通知的分隔符：userId:loginTime:deviceId，设备标识可能包含分隔符，放在最后
+     */
+    private static final String SEPARATOR = ":";
+
+    @Resource
+    private DeviceConfig deviceConfig;
+
+    @Resource
+    private DeviceLoginTracker deviceLoginTracker;
+
+    @Resource
+    private AsyncBatchWriter<UserDeviceLogin> deviceLoginWriter;
+
+    @Resource
+    private UserDeviceLoginMapper userDeviceLoginMapper;
+
+    @Resource
+    private IdentityLinkService identityLinkService;
+
+    @Resource
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.register(CHANNEL_NAME, this::onRemoteLogin);
+    }
+
+    /**
+     * 启动后从登录记录表加载统计窗口内的登录，重启后风险判断不会清零
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread thread = new Thread(() -> {
+            try {
+                Date since = new Date(System.currentTimeMillis()
+                        - TimeUnit.MINUTES.toMillis(deviceConfig.getWindowMinutes()));
+                long lastId = 0;
+                int count = 0;
+                while (true) {
+                    QueryWrapper queryWrapper = QueryWrapper.create()
+                            .select(USER_DEVICE_LOGIN.ID, USER_DEVICE_LOGIN.USER_ID, USER_DEVICE_LOGIN.DEVICE_ID,
+                                    USER_DEVICE_LOGIN.LOGIN_TIME)
+                            .from(USER_DEVICE_LOGIN)
+                            .where(USER_DEVICE_LOGIN.ID.gt(lastId))
+                            .and(USER_DEVICE_LOGIN.LOGIN_TIME.ge(since))
+                            .orderBy(USER_DEVICE_LOGIN.ID.asc())
+                            .limit(WARM_UP_BATCH_SIZE);
+                    List<UserDeviceLogin> logins = userDeviceLoginMapper.selectListByQuery(queryWrapper);
+                    for (UserDeviceLogin login : logins) {
+                        deviceLoginTracker.record(login.getDeviceId(), login.getUserId(), login.getLoginTime().getTime());
+                    }
+                    count += logins.size();
+                    if (logins.size() < WARM_UP_BATCH_SIZE) {
+                        break;
+                    }
+                    lastId = logins.get(logins.size() - 1).getId();
+                }
+                log.info("device login tracker warmed up with {} logins", count);
+            } catch (Exception e) {
+                log.error("warm up device login tracker failed", e);
+            }
+        }, "device-login-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void checkLogin(String deviceId, long userId) {
+        if (!deviceConfig.isBlockRiskyLogin() || StringUtils.isBlank(deviceId)) {
+            return;
+        }
+        Map<Long, Long> accounts = deviceLoginTracker.getRecentAccounts(StringUtils.left(deviceId.trim(), MAX_DEVICE_ID_LENGTH));
+        if (accounts.size() >= deviceConfig.getRiskAccountThreshold() && !accounts.containsKey(userId)) {
+            throw new BusinessException(HttpCodeEnum.FORBIDDEN_ERROR, "该设备登录账号过多，请稍后再试");
+        }
+    }
+
+    @Override
+    public void recordLogin(String deviceId, long userId, HttpServletRequest request) {
+        if (StringUtils.isBlank(deviceId)) {
+            return;
+        }
+        // 超长字段会导致整批写入失败，写入队列前截断
+        String device = StringUtils.left(deviceId.trim(), MAX_DEVICE_ID_LENGTH);
+        long now = System.currentTimeMillis();
+        int accountCount = deviceLoginTracker.record(device, userId, now);
+        // 同步到其他节点的统计，否则负载均衡分散后单节点计数达不到阈值
+        cacheInvalidationBus.publish(CHANNEL_NAME, userId + SEPARATOR + now + SEPARATOR + device);
+        if (accountCount == deviceConfig.getRiskAccountThreshold()) {
+            log.warn("risky device detected, deviceId: {}, accounts in {} minutes: {}", device,
+                    deviceConfig.getWindowMinutes(), accountCount);
+        }
+        UserDeviceLogin login = new UserDeviceLogin();
+        login.setUserId(userId);
+        login.setDeviceId(device);
+        login.setIp(StringUtils.left(NetUtils.getIpAddress(request), MAX_IP_LENGTH));
+        login.setUserAgent(StringUtils.left(request.getHeader(HttpHeaders.USER_AGENT), MAX_USER_AGENT_LENGTH));
+        login.setLoginTime(new Date(now));
+        deviceLoginWriter.offer(login);
+        identityLinkService.addIdentifier(userId, IdentityTypeEnum.DEVICE, device);
+    }
+
+    @Override
+    public DeviceRiskVO getDeviceRisk(String deviceId) {
+        // 与记录时一致，否则超长或带空白的设备标识查不到
+        String device = StringUtils.left(deviceId.trim(), MAX_DEVICE_ID_LENGTH);
+        Map<Long, Long> accounts = deviceLoginTracker.getRecentAccounts(device);
+        DeviceRiskVO deviceRiskVO = new DeviceRiskVO();
+        deviceRiskVO.setDeviceId(device);
+        deviceRiskVO.setAccountCount(accounts.size());
+        deviceRiskVO.setRisky(accounts.size() >= deviceConfig.getRiskAccountThreshold());
+        deviceRiskVO.setUserIds(new ArrayList<>(accounts.keySet()));
+        return deviceRiskVO;
+    }
+
+    private void onRemoteLogin(String message) {
+        String[] parts = message.split(SEPARATOR, 3);
+        if (parts.length == 3) {
+            deviceLoginTracker.record(parts[2], Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        }
+    }
+}
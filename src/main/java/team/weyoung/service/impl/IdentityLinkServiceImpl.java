@@ -0,0 +1,256 @@
+package team.weyoung.service.impl;
+
+import com.mybatisflex.core.mask.MaskManager;
+import com.mybatisflex.core.query.QueryWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import team.weyoung.config.IdentityLinkConfig;
+import team.weyoung.manager.CacheInvalidationBus;
+import team.weyoung.manager.IdentityLinkIndex;
+import team.weyoung.mapper.UserDeviceLoginMapper;
+import team.weyoung.mapper.UserMapper;
+import team.weyoung.model.entity.User;
+import team.weyoung.model.entity.UserDeviceLogin;
+import team.weyoung.model.enums.IdentityTypeEnum;
+import team.weyoung.service.IdentityLinkService;
+import team.weyoung.utils.IdentityNormalizer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static team.weyoung.model.entity.table.UserDeviceLoginTableDef.USER_DEVICE_LOGIN;
+import static team.weyoung.model.entity.table.UserTableDef.USER;
+
+/**
+ * 关联账号检测服务实现
+ * <p>
+ * 索引在每个节点内存中维护，本节点的变更直接写入并通过 {@link CacheInvalidationBus} 通知其他节点从库中重新加载该用户；
+ * 通知丢失时由定期重建兜底
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Service
+public class IdentityLinkServiceImpl implements IdentityLinkService {
+
+    private static final String CHANNEL_NAME = "identity";
+
+    private static final String FIELD_PHONE = "phone";
+
+    private static final String FIELD_EMAIL = "email";
+
+    private static final String FIELD_ACCOUNT = "account";
+
+    /**
+     * 通知中追加标识的分隔符：userId:type:value
+     */
+    private static final String SEPARATOR = ":";
+
+    /**
+     * 重建后追平更新时向前多取的时间，容忍应用与数据库的时钟偏差
+     */
+    private static final long CATCH_UP_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private UserDeviceLoginMapper userDeviceLoginMapper;
+
+    @Resource
+    private IdentityLinkConfig identityLinkConfig;
+
+    @Resource
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private volatile IdentityLinkIndex index = new IdentityLinkIndex();
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.register(CHANNEL_NAME, this::onRemoteChange);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!identityLinkConfig.isRebuildOnStartup()) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("rebuild identity link index failed", e);
+            }
+        }, "identity-link-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void onUserChanged(User user) {
+        if (user == null || user.getId() == null
+                || (user.getPhone() == null && user.getEmail() == null && user.getUserAccount() == null)) {
+            return;
+        }
+        index(index, user, true);
+        cacheInvalidationBus.publish(CHANNEL_NAME, String.valueOf(user.getId()));
+    }
+
+    @Override
+    public void onUserRemoved(long userId) {
+        index.remove(userId);
+        cacheInvalidationBus.publish(CHANNEL_NAME, String.valueOf(userId));
+    }
+
+    @Override
+    public void addIdentifier(long userId, IdentityTypeEnum type, String value) {
+        if (StringUtils.isBlank(value)) {
+            return;
+        }
+        // 重复的标识（如同一设备再次登录）不再通知其他节点
+        if (!put(index, userId, type, value.trim())) {
+            return;
+        }
+        cacheInvalidationBus.publish(CHANNEL_NAME, userId + SEPARATOR + type.getValue() + SEPARATOR + value.trim());
+    }
+
+    @Override
+    public Set<Long> getLinkedUserIds(long userId) {
+        return index.getLinkedUserIds(userId, identityLinkConfig.getMaxLinkedResults());
+    }
+
+    /**
+     * 按 id 游标分批读取，构建新索引后整体替换，再追平重建期间的更新；同一时间只允许一次重建
+     */
+    @Override
+    public synchronized int rebuild() {
+        long start = System.currentTimeMillis();
+        IdentityLinkIndex newIndex = new IdentityLinkIndex();
+        int count = scan(newIndex, null);
+        int devices = scanDevices(newIndex, new Date(start
+                - TimeUnit.HOURS.toMillis(identityLinkConfig.getDeviceLookbackHours())));
+        index = newIndex;
+        // 重建期间写入旧索引的变更，按更新时间从库中补齐
+        Date catchUpSince = new Date(start - CATCH_UP_MARGIN_MILLIS);
+        int caughtUp = scan(newIndex, catchUpSince) + scanDevices(newIndex, catchUpSince);
+        log.info("identity link index rebuilt, users: {}, device logins: {}, caught up: {}, cost: {}ms", count,
+                devices, caughtUp, System.currentTimeMillis() - start);
+        return count;
+    }
+
+    /**
+     * 流式读取用户写入索引
+     *
+     * @param updatedSince 为 null 时读取全部用户，否则只读取此后更新过的用户
+     */
+    private int scan(IdentityLinkIndex target, Date updatedSince) {
+        int batchSize = identityLinkConfig.getBatchSize();
+        long lastId = 0;
+        int count = 0;
+        while (true) {
+            QueryWrapper queryWrapper = QueryWrapper.create()
+                    .select(USER.ID, USER.USER_ACCOUNT, USER.PHONE, USER.EMAIL)
+                    .from(USER)
+                    .where(USER.ID.gt(lastId))
+                    .and(USER.UPDATE_TIME.ge(updatedSince).when(updatedSince != null))
+                    .orderBy(USER.ID.asc())
+                    .limit(batchSize);
+            // 手机号和邮箱有脱敏配置，需读取原值
+            List<User> users = MaskManager.execWithoutMask(() -> userMapper.selectListByQuery(queryWrapper));
+            for (User user : users) {
+                index(target, user, false);
+            }
+            count += users.size();
+            if (users.size() < batchSize) {
+                return count;
+            }
+            lastId = users.get(users.size() - 1).getId();
+        }
+    }
+
+    /**
+     * 流式读取近期的设备登录记录写入索引
+     */
+    private int scanDevices(IdentityLinkIndex target, Date since) {
+        int batchSize = identityLinkConfig.getBatchSize();
+        long lastId = 0;
+        int count = 0;
+        while (true) {
+            QueryWrapper queryWrapper = QueryWrapper.create()
+                    .select(USER_DEVICE_LOGIN.ID, USER_DEVICE_LOGIN.USER_ID, USER_DEVICE_LOGIN.DEVICE_ID)
+                    .from(USER_DEVICE_LOGIN)
+                    .where(USER_DEVICE_LOGIN.ID.gt(lastId))
+                    .and(USER_DEVICE_LOGIN.LOGIN_TIME.ge(since))
+                    .orderBy(USER_DEVICE_LOGIN.ID.asc())
+                    .limit(batchSize);
+            List<UserDeviceLogin> logins = userDeviceLoginMapper.selectListByQuery(queryWrapper);
+            for (UserDeviceLogin login : logins) {
+                put(target, login.getUserId(), IdentityTypeEnum.DEVICE, login.getDeviceId());
+            }
+            count += logins.size();
+            if (logins.size() < batchSize) {
+                return count;
+            }
+            lastId = logins.get(logins.size() - 1).getId();
+        }
+    }
+
+    private void onRemoteChange(String message) {
+        String[] parts = message.split(SEPARATOR, 3);
+        long userId = Long.parseLong(parts[0]);
+        if (parts.length == 3) {
+            for (IdentityTypeEnum type : IdentityTypeEnum.values()) {
+                if (type.getValue().equals(parts[1])) {
+                    put(index, userId, type, parts[2]);
+                }
+            }
+            return;
+        }
+        User user = MaskManager.execWithoutMask(() -> userMapper.selectOneById(userId));
+        if (user == null) {
+            index.remove(userId);
+        } else {
+            index(index, user, false);
+        }
+    }
+
+    /**
+     * 追加一个标识，设备只保留每个用户最近的 max-devices-per-user 个
+     *
+     * @return 标识是否为新增
+     */
+    private boolean put(IdentityLinkIndex target, long userId, IdentityTypeEnum type, String value) {
+        String identifier = type.key(value);
+        if (type == IdentityTypeEnum.DEVICE) {
+            return target.putDevice(userId, identifier, identityLinkConfig.getMaxDevicesPerUser());
+        }
+        return target.put(userId, identifier, identifier);
+    }
+
+    /**
+     * @param partial 为 true 时 null 字段视为未修改，否则视为清空
+     */
+    private static void index(IdentityLinkIndex target, User user, boolean partial) {
+        long userId = user.getId();
+        if (!partial || user.getPhone() != null) {
+            String phone = IdentityNormalizer.normalizePhone(user.getPhone());
+            target.put(userId, FIELD_PHONE, phone == null ? null : IdentityTypeEnum.PHONE.key(phone));
+        }
+        if (!partial || user.getEmail() != null) {
+            String email = IdentityNormalizer.normalizeEmail(user.getEmail());
+            target.put(userId, FIELD_EMAIL, email == null ? null : IdentityTypeEnum.EMAIL.key(email));
+        }
+        if (!partial || user.getUserAccount() != null) {
+            String account = IdentityNormalizer.normalizeAccount(user.getUserAccount());
+            IdentityTypeEnum type = account != null && account.contains("@") ? IdentityTypeEnum.EMAIL : IdentityTypeEnum.PHONE;
+            target.put(userId, FIELD_ACCOUNT, account == null ? null : type.key(account));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package team.weyoung.service.impl;
+
+import com.mybatisflex.core.paginate.Page;
+import com.mybatisflex.core.query.QueryWrapper;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.config.JobConfig;
+import team.weyoung.exception.ThrowUtils;
+import team.weyoung.job.BackgroundJob;
+import team.weyoung.job.JobRunner;
+import team.weyoung.job.JobScheduler;
+import team.weyoung.mapper.JobRunMapper;
+import team.weyoung.model.dto.job.JobRunQueryRequest;
+import team.weyoung.model.entity.JobRun;
+import team.weyoung.model.vo.JobVO;
+import team.weyoung.service.JobService;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static team.weyoung.model.entity.table.JobRunTableDef.JOB_RUN;
+
+/**
+ * 后台任务服务实现
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Service
+public class JobServiceImpl implements JobService {
+
+    @Resource
+    private JobScheduler jobScheduler;
+
+    @Resource
+    private JobRunner jobRunner;
+
+    @Resource
+    private JobConfig jobConfig;
+
+    @Resource
+    private JobRunMapper jobRunMapper;
+
+    @Override
+    public List<JobVO> listJobs() {
+        List<JobVO> jobVOList = new ArrayList<>();
+        for (BackgroundJob job : jobScheduler.getJobs().values()) {
+            JobVO jobVO = new JobVO();
+            jobVO.setName(job.getName());
+            jobVO.setCron(jobConfig.getCron().get(job.getName()));
+            jobVO.setClusterSingleton(job.isClusterSingleton());
+            jobVO.setRunning(jobRunner.isRunning(job.getName()));
+            jobVO.setLastRun(jobRunMapper.selectOneByQuery(QueryWrapper.create()
+                    .from(JOB_RUN)
+                    .where(JOB_RUN.JOB_NAME.eq(job.getName()))
+                    .orderBy(JOB_RUN.ID.desc())
+                    .limit(1)));
+            jobVOList.add(jobVO);
+        }
+        return jobVOList;
+    }
+
+    @Override
+    public void trigger(String name) {
+        ThrowUtils.throwIf(!jobScheduler.trigger(name), HttpCodeEnum.NOT_FOUND_ERROR, "任务不存在");
+    }
+
+    @Override
+    public Page<JobRun> listRuns(JobRunQueryRequest jobRunQueryRequest) {
+        String jobName = jobRunQueryRequest.getJobName();
+        String status = jobRunQueryRequest.getStatus();
+        QueryWrapper queryWrapper = QueryWrapper.create()
+                .from(JOB_RUN)
+                .where(JOB_RUN.JOB_NAME.eq(jobName).when(StringUtils.isNotBlank(jobName)))
+                .and(JOB_RUN.STATUS.eq(status).when(StringUtils.isNotBlank(status)))
+                .orderBy(JOB_RUN.ID.desc());
+        return jobRunMapper.paginate(jobRunQueryRequest.getPageNumber(), jobRunQueryRequest.getPageSize(), queryWrapper);
+    }
+}
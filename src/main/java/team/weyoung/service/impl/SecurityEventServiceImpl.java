@@ -0,0 +1,97 @@
+package team.weyoung.service.impl;
+
+import cn.dev33.satoken.stp.StpUtil;
+import com.mybatisflex.core.paginate.Page;
+import com.mybatisflex.core.query.QueryWrapper;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import team.weyoung.manager.AsyncBatchWriter;
+import team.weyoung.mapper.SecurityEventMapper;
+import team.weyoung.model.dto.event.SecurityEventQueryRequest;
+import team.weyoung.model.entity.SecurityEvent;
+import team.weyoung.model.enums.SecurityEventTypeEnum;
+import team.weyoung.service.SecurityEventService;
+import team.weyoung.utils.NetUtils;
+
+import javax.annotation.Resource;
+import java.util.Date;
+
+import static team.weyoung.model.entity.table.SecurityEventTableDef.SECURITY_EVENT;
+
+/**
+ * 安全事件服务实现
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Service
+public class SecurityEventServiceImpl implements SecurityEventService {
+
+    private static final int MAX_IP_LENGTH = 64;
+
+    private static final int MAX_DETAIL_LENGTH = 512;
+
+    @Resource
+    private AsyncBatchWriter<SecurityEvent> securityEventWriter;
+
+    @Resource
+    private SecurityEventMapper securityEventMapper;
+
+    @Override
+    public void record(SecurityEventTypeEnum type, Long userId, String detail) {
+        SecurityEvent event = new SecurityEvent();
+        event.setEventType(type.getValue());
+        event.setUserId(userId);
+        event.setOperatorId(getOperatorId());
+        event.setIp(StringUtils.left(getIp(), MAX_IP_LENGTH));
+        event.setDetail(StringUtils.left(detail, MAX_DETAIL_LENGTH));
+        event.setCreateTime(new Date());
+        // 队列满时丢弃，不逐条打印日志，丢弃数见写入器的 dropped 指标
+        securityEventWriter.offer(event);
+    }
+
+    @Override
+    public Page<SecurityEvent> listEvents(SecurityEventQueryRequest securityEventQueryRequest) {
+        String eventType = securityEventQueryRequest.getEventType();
+        QueryWrapper queryWrapper = QueryWrapper.create()
+                .from(SECURITY_EVENT)
+                .where(SECURITY_EVENT.EVENT_TYPE.eq(eventType).when(StringUtils.isNotBlank(eventType)))
+                .and(SECURITY_EVENT.USER_ID.eq(securityEventQueryRequest.getUserId())
+                        .when(securityEventQueryRequest.getUserId() != null))
+                .and(SECURITY_EVENT.OPERATOR_ID.eq(securityEventQueryRequest.getOperatorId())
+                        .when(securityEventQueryRequest.getOperatorId() != null))
+                .and(SECURITY_EVENT.CREATE_TIME.ge(securityEventQueryRequest.getStartTime())
+                        .when(securityEventQueryRequest.getStartTime() != null))
+                .and(SECURITY_EVENT.CREATE_TIME.lt(securityEventQueryRequest.getEndTime())
+                        .when(securityEventQueryRequest.getEndTime() != null))
+                // 雪花 id 按时间递增，按 id 倒序即按发生时间倒序
+                .orderBy(SECURITY_EVENT.ID.desc());
+        return securityEventMapper.paginate(securityEventQueryRequest.getPageNumber(),
+                securityEventQueryRequest.getPageSize(), queryWrapper);
+    }
+
+    /**
+     * 当前登录用户，不在请求线程或未登录时为空
+     */
+    private Long getOperatorId() {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return null;
+        }
+        try {
+            Object loginId = StpUtil.getLoginIdDefaultNull();
+            return loginId == null ? null : Long.valueOf(loginId.toString());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String getIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        return NetUtils.getIpAddress(((ServletRequestAttributes) attributes).getRequest());
+    }
+}
@@ -0,0 +1,189 @@
+package team.weyoung.service.impl;
+
+import cn.dev33.satoken.session.SaSession;
+import cn.dev33.satoken.session.TokenSign;
+import cn.dev33.satoken.stp.StpLogic;
+import cn.dev33.satoken.stp.StpUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.config.RedisClientConfig;
+import team.weyoung.config.SessionRevocationConfig;
+import team.weyoung.exception.BusinessException;
+import team.weyoung.manager.CacheInvalidationBus;
+import team.weyoung.manager.RedisBulkOperations;
+import team.weyoung.satoken.CompactSessionCodec;
+import team.weyoung.satoken.SaTokenNearCache;
+import team.weyoung.satoken.SessionCodec;
+import team.weyoung.service.SessionRevocationService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 会话吊销服务实现
+ * <p>
+ * 吊销时先把用户 id 加入本节点的拒绝集合，并通过 {@link CacheInvalidationBus} 广播（每条消息最多 redis.client.batch-size 个 id），
+ * 各节点在解析出 loginId 后只查本地集合即可拒绝，不访问数据库和 Redis；
+ * 然后按批 MGET 读出这些用户的会话、取出全部 token，再按批 DEL 删除 token、token 会话、活跃时间和账号会话。
+ * 拒绝集合按 session-revocation.deny-ttl-seconds 过期，届时 token 已删除，各节点的近端缓存也已过期
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Service
+public class SessionRevocationServiceImpl implements SessionRevocationService {
+
+    private static final String CHANNEL_NAME = "session-revocation";
+
+    /**
+     * 广播消息格式：+id,id,... 为吊销，-id,id,... 为解除
+     */
+    private static final char REVOKE = '+';
+
+    private static final char RESTORE = '-';
+
+    private static final String ID_SEPARATOR = ",";
+
+    /**
+     * 删除会话的最大尝试次数
+     */
+    private static final int MAX_DELETE_ATTEMPTS = 3;
+
+    private static final long DELETE_RETRY_MILLIS = 200;
+
+    private final SessionCodec sessionCodec = new CompactSessionCodec();
+
+    @Resource
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Resource
+    private RedisBulkOperations redisBulkOperations;
+
+    @Resource
+    private SaTokenNearCache saTokenNearCache;
+
+    @Resource
+    private RedisClientConfig redisClientConfig;
+
+    @Resource
+    private SessionRevocationConfig sessionRevocationConfig;
+
+    private Cache<Long, Boolean> revokedUsers;
+
+    @PostConstruct
+    public void init() {
+        revokedUsers = Caffeine.newBuilder()
+                .maximumSize(sessionRevocationConfig.getMaximumSize())
+                .expireAfterWrite(sessionRevocationConfig.getDenyTtlSeconds(), TimeUnit.SECONDS)
+                .build();
+        cacheInvalidationBus.register(CHANNEL_NAME, this::onMessage);
+    }
+
+    @Override
+    public void revoke(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        for (Long userId : userIds) {
+            revokedUsers.put(userId, Boolean.TRUE);
+        }
+        broadcast(REVOKE, userIds);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                deleteSessions(userIds);
+                return;
+            } catch (Exception e) {
+                // 拒绝集合过期后残留的 token 会重新可用，重试仍失败时交给调用方处理
+                if (attempt >= MAX_DELETE_ATTEMPTS) {
+                    log.error("delete sessions failed, users: {}, attempts: {}", userIds.size(), attempt, e);
+                    throw new BusinessException(HttpCodeEnum.SYSTEM_ERROR, "会话吊销失败，请稍后重试");
+                }
+                log.warn("delete sessions failed, users: {}, attempt: {}", userIds.size(), attempt, e);
+            }
+            try {
+                Thread.sleep(DELETE_RETRY_MILLIS * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException(HttpCodeEnum.SYSTEM_ERROR, "会话吊销失败，请稍后重试");
+            }
+        }
+    }
+
+    @Override
+    public void restore(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        revokedUsers.invalidateAll(userIds);
+        broadcast(RESTORE, userIds);
+    }
+
+    @Override
+    public boolean isRevoked(long userId) {
+        return revokedUsers.getIfPresent(userId) != null;
+    }
+
+    private void deleteSessions(Collection<Long> userIds) {
+        StpLogic stpLogic = StpUtil.getStpLogic();
+        Map<String, Long> sessionKeys = new LinkedHashMap<>(userIds.size() * 2);
+        for (Long userId : userIds) {
+            sessionKeys.put(stpLogic.splicingKeySession(userId), userId);
+        }
+        List<String> keys = new ArrayList<>(sessionKeys.keySet());
+        for (Map.Entry<String, byte[]> entry : redisBulkOperations.getAllBytes(sessionKeys.keySet()).entrySet()) {
+            Object session = sessionCodec.decode(entry.getValue());
+            if (!(session instanceof SaSession)) {
+                continue;
+            }
+            for (TokenSign tokenSign : ((SaSession) session).getTokenSignList()) {
+                String tokenValue = tokenSign.getValue();
+                keys.add(stpLogic.splicingKeyTokenValue(tokenValue));
+                keys.add(stpLogic.splicingKeyTokenSession(tokenValue));
+                keys.add(stpLogic.splicingKeyLastActiveTime(tokenValue));
+            }
+        }
+        long deleted = redisBulkOperations.deleteAll(keys);
+        saTokenNearCache.invalidateLocal(keys);
+        log.info("sessions revoked, users: {}, keys deleted: {}", userIds.size(), deleted);
+    }
+
+    private void broadcast(char action, Collection<Long> userIds) {
+        int batchSize = redisClientConfig.getBatchSize();
+        List<Long> ids = new ArrayList<>(userIds);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            String body = ids.subList(from, Math.min(from + batchSize, ids.size())).stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(ID_SEPARATOR));
+            cacheInvalidationBus.publish(CHANNEL_NAME, action + body);
+        }
+    }
+
+    private void onMessage(String message) {
+        if (message.isEmpty()) {
+            return;
+        }
+        char action = message.charAt(0);
+        for (String id : message.substring(1).split(ID_SEPARATOR)) {
+            try {
+                if (action == REVOKE) {
+                    revokedUsers.put(Long.parseLong(id), Boolean.TRUE);
+                } else if (action == RESTORE) {
+                    revokedUsers.invalidate(Long.parseLong(id));
+                }
+            } catch (NumberFormatException e) {
+                log.warn("invalid session revocation message: {}", message);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package team.weyoung.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybatisflex.core.query.QueryCondition;
+import com.mybatisflex.core.query.QueryWrapper;
+import com.mybatisflex.core.update.UpdateChain;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.config.UserBulkConfig;
+import team.weyoung.constant.UserConstant;
+import team.weyoung.exception.BusinessException;
+import team.weyoung.exception.ThrowUtils;
+import team.weyoung.job.BackgroundJob;
+import team.weyoung.job.JobContext;
+import team.weyoung.job.JobRunner;
+import team.weyoung.manager.EventCounter;
+import team.weyoung.manager.SnowflakeIdGenerator;
+import team.weyoung.manager.UserCache;
+import team.weyoung.mapper.JobRunMapper;
+import team.weyoung.mapper.UserBulkJobMapper;
+import team.weyoung.mapper.UserMapper;
+import team.weyoung.model.dto.user.UserBulkRequest;
+import team.weyoung.model.entity.JobRun;
+import team.weyoung.model.entity.User;
+import team.weyoung.model.entity.UserBulkJob;
+import team.weyoung.model.enums.EventMetricEnum;
+import team.weyoung.model.enums.JobStatusEnum;
+import team.weyoung.model.enums.SecurityEventTypeEnum;
+import team.weyoung.model.enums.UserBulkActionEnum;
+import team.weyoung.model.enums.UserRoleEnum;
+import team.weyoung.model.vo.UserBulkJobVO;
+import team.weyoung.service.IdentityLinkService;
+import team.weyoung.service.SecurityEventService;
+import team.weyoung.service.SessionRevocationService;
+import team.weyoung.service.UserBulkService;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static team.weyoung.model.entity.table.JobRunTableDef.JOB_RUN;
+import static team.weyoung.model.entity.table.UserBulkJobTableDef.USER_BULK_JOB;
+import static team.weyoung.model.entity.table.UserTableDef.USER;
+
+/**
+ * 用户批量操作服务实现
+ * <p>
+ * 每次提交作为一个独立的后台任务由 {@link JobRunner} 运行（任务名 user-bulk-{操作}-{id}），沿用其租约、运行记录、检查点和连接池节流：
+ * 按 id 游标分批，每批先查出满足条件的用户，再在一个事务中加锁重新读取仍满足条件的用户及其原角色，只对这些行执行
+ * 一条 UPDATE / 逻辑删除 ... WHERE id IN (...)，提交后对实际变更的用户批量失效缓存、通过 {@link SessionRevocationService}
+ * 吊销或恢复会话并记录安全事件。不会对管理员和操作人自己执行封号或删除。
+ * <p>
+ * 任务参数保存在 user_bulk_job，全部批次完成后标记为已完成；各节点按 user.bulk.resume-interval-millis 扫描保留期内未完成的任务
+ * （节点宕机、租约丢失、失败）并重建运行，由租约保证只有一个节点运行，从上次的检查点继续。每批更新都带条件，重复执行不会重复变更
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@Slf4j
+@Service
+public class UserBulkServiceImpl implements UserBulkService {
+
+    private static final String JOB_NAME_PREFIX = "user-bulk-";
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private JobRunMapper jobRunMapper;
+
+    @Resource
+    private UserBulkJobMapper userBulkJobMapper;
+
+    @Resource
+    private ObjectMapper jacksonObjectMapper;
+
+    @Resource
+    private JobRunner jobRunner;
+
+    @Resource
+    private ThreadPoolTaskScheduler jobTaskScheduler;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private SnowflakeIdGenerator snowflakeIdGenerator;
+
+    @Resource
+    private UserCache userCache;
+
+    @Resource
+    private IdentityLinkService identityLinkService;
+
+    @Resource
+    private SecurityEventService securityEventService;
+
+    @Resource
+    private EventCounter eventCounter;
+
+    @Resource
+    private SessionRevocationService sessionRevocationService;
+
+    @Resource
+    private UserBulkConfig userBulkConfig;
+
+    /**
+     * 启动后立即恢复一次，之后定时扫描
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleResume() {
+        if (!userBulkConfig.isResumeEnabled()) {
+            return;
+        }
+        jobTaskScheduler.scheduleWithFixedDelay(this::resumeUnfinished, Instant.now(),
+                Duration.ofMillis(userBulkConfig.getResumeIntervalMillis()));
+    }
+
+    @Override
+    public UserBulkJobVO submit(UserBulkActionEnum action, UserBulkRequest request, long operatorId) {
+        ThrowUtils.throwIf(action == null || request == null, HttpCodeEnum.PARAMS_ERROR);
+        List<Long> ids = request.getIds() == null ? null : request.getIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        boolean hasFilter = StringUtils.isNotBlank(request.getUserName()) || StringUtils.isNotBlank(request.getUserProfile())
+                || StringUtils.isNotBlank(request.getUserRole());
+        // 不允许不带条件地操作全部用户
+        ThrowUtils.throwIf((ids == null || ids.isEmpty()) && !hasFilter, HttpCodeEnum.PARAMS_ERROR, "请指定用户 id 或筛选条件");
+        ThrowUtils.throwIf(ids != null && ids.size() > userBulkConfig.getMaxIds(), HttpCodeEnum.PARAMS_ERROR,
+                "单次最多操作 " + userBulkConfig.getMaxIds() + " 个用户，请使用筛选条件");
+        ThrowUtils.throwIf(StringUtils.isNotBlank(request.getUserRole())
+                && UserRoleEnum.getEnumByValue(request.getUserRole()) == null, HttpCodeEnum.PARAMS_ERROR, "用户角色错误");
+
+        UserBulkRequest normalized = new UserBulkRequest();
+        normalized.setIds(ids != null && !ids.isEmpty() ? ids : null);
+        normalized.setUserName(request.getUserName());
+        normalized.setUserProfile(request.getUserProfile());
+        normalized.setUserRole(request.getUserRole());
+        String jobName = JOB_NAME_PREFIX + action.getValue() + "-" + snowflakeIdGenerator.nextId();
+        BulkJob job = new BulkJob(jobName, action, normalized, operatorId);
+        long total = job.ids != null ? job.ids.size()
+                : userMapper.selectCountByQuery(QueryWrapper.create().from(USER).where(job.condition()));
+        UserBulkJob userBulkJob = new UserBulkJob();
+        userBulkJob.setJobName(jobName);
+        userBulkJob.setAction(action.getValue());
+        userBulkJob.setRequest(toJson(normalized));
+        userBulkJob.setOperatorId(operatorId);
+        userBulkJob.setTotal(total);
+        userBulkJob.setFinished(0);
+        userBulkJob.setCreateTime(new Date());
+        userBulkJob.setUpdateTime(userBulkJob.getCreateTime());
+        userBulkJobMapper.insert(userBulkJob);
+        if (job.ids != null && job.ids.size() <= userBulkConfig.getSyncThreshold()) {
+            if (!jobRunner.run(job)) {
+                // 未获得租约，任务没有运行，删除参数记录，避免调用方收到失败后仍被恢复扫描执行
+                userBulkJobMapper.deleteById(jobName);
+                throw new BusinessException(HttpCodeEnum.OPERATION_ERROR, "批量任务启动失败，请稍后重试");
+            }
+        } else {
+            jobTaskScheduler.execute(() -> jobRunner.run(job));
+        }
+        log.info("user bulk job submitted, name: {}, total: {}, operator: {}", jobName, total, operatorId);
+        return getJob(jobName);
+    }
+
+    @Override
+    public UserBulkJobVO getJob(String jobName) {
+        ThrowUtils.throwIf(StringUtils.isBlank(jobName) || !jobName.startsWith(JOB_NAME_PREFIX), HttpCodeEnum.PARAMS_ERROR);
+        JobRun jobRun = jobRunMapper.selectOneByQuery(QueryWrapper.create()
+                .from(JOB_RUN)
+                .where(JOB_RUN.JOB_NAME.eq(jobName))
+                .orderBy(JOB_RUN.ID.desc())
+                .limit(1));
+        UserBulkJob userBulkJob = userBulkJobMapper.selectOneById(jobName);
+        if (userBulkJob == null) {
+            throw new BusinessException(HttpCodeEnum.NOT_FOUND_ERROR, "任务不存在");
+        }
+        UserBulkJobVO userBulkJobVO = new UserBulkJobVO();
+        userBulkJobVO.setJobName(jobName);
+        userBulkJobVO.setAction(userBulkJob.getAction());
+        userBulkJobVO.setTotal(userBulkJob.getTotal());
+        userBulkJobVO.setStatus(jobRun == null ? JobStatusEnum.PENDING.getValue() : jobRun.getStatus());
+        userBulkJobVO.setRun(jobRun);
+        return userBulkJobVO;
+    }
+
+    /**
+     * 重建并运行保留期内未完成的任务，本节点正在运行的跳过，其他节点正在运行的由租约拒绝
+     */
+    private void resumeUnfinished() {
+        try {
+            Date since = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(userBulkConfig.getJobRetentionHours()));
+            List<UserBulkJob> unfinished = userBulkJobMapper.selectListByQuery(QueryWrapper.create()
+                    .from(USER_BULK_JOB)
+                    .where(USER_BULK_JOB.FINISHED.eq(0))
+                    .and(USER_BULK_JOB.CREATE_TIME.ge(since))
+                    .orderBy(USER_BULK_JOB.CREATE_TIME.asc()));
+            for (UserBulkJob userBulkJob : unfinished) {
+                if (jobRunner.isRunning(userBulkJob.getJobName())) {
+                    continue;
+                }
+                // 扫描后可能已被其他节点完成，运行前再确认一次
+                UserBulkJob latest = userBulkJobMapper.selectOneById(userBulkJob.getJobName());
+                if (latest == null || latest.getFinished() != 0) {
+                    continue;
+                }
+                UserBulkActionEnum action = UserBulkActionEnum.getEnumByValue(latest.getAction());
+                if (action == null) {
+                    log.warn("unknown user bulk action, name: {}, action: {}", latest.getJobName(), latest.getAction());
+                    continue;
+                }
+                BulkJob job = new BulkJob(latest.getJobName(), action,
+                        jacksonObjectMapper.readValue(latest.getRequest(), UserBulkRequest.class), latest.getOperatorId());
+                if (jobRunner.run(job)) {
+                    log.info("user bulk job resumed, name: {}", latest.getJobName());
+                }
+            }
+        } catch (Exception e) {
+            log.error("resume user bulk jobs failed", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return jacksonObjectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(HttpCodeEnum.SYSTEM_ERROR, "批量任务参数序列化失败");
+        }
+    }
+
+    /**
+     * 一次批量操作，检查点为已处理的最大 id
+     */
+    private class BulkJob implements BackgroundJob {
+
+        private final String name;
+
+        private final UserBulkActionEnum action;
+
+        /**
+         * 升序去重的 id 列表，按筛选条件操作时为空
+         */
+        private final List<Long> ids;
+
+        private final UserBulkRequest request;
+
+        private final long operatorId;
+
+        private BulkJob(String name, UserBulkActionEnum action, UserBulkRequest request, long operatorId) {
+            this.name = name;
+            this.action = action;
+            this.ids = request.getIds() == null || request.getIds().isEmpty() ? null : request.getIds();
+            this.request = request;
+            this.operatorId = operatorId;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void execute(JobContext context) throws JsonProcessingException {
+            if (process(context)) {
+                // 仍持有租约时标记完成，之后的恢复扫描不会再运行
+                UserBulkJob finished = new UserBulkJob();
+                finished.setJobName(name);
+                finished.setFinished(1);
+                userBulkJobMapper.update(finished);
+            }
+        }
+
+        /**
+         * 分批处理到结束或被停止
+         *
+         * @return 是否已处理完全部批次
+         */
+        private boolean process(JobContext context) throws JsonProcessingException {
+            replayPending();
+            int batchSize = Math.min(userBulkConfig.getBatchSize(), context.getChunkSize());
+            long lastId = context.getCheckpoint() == null ? 0 : Long.parseLong(context.getCheckpoint());
+            while (!context.isStopped()) {
+                QueryWrapper queryWrapper = QueryWrapper.create()
+                        .select(USER.ID)
+                        .from(USER)
+                        .where(USER.ID.gt(lastId))
+                        .and(condition());
+                long scanned;
+                long nextId;
+                if (ids != null) {
+                    List<Long> slice = nextSlice(lastId, batchSize);
+                    if (slice.isEmpty()) {
+                        return true;
+                    }
+                    queryWrapper.and(USER.ID.in(slice));
+                    scanned = slice.size();
+                    nextId = slice.get(slice.size() - 1);
+                } else {
+                    queryWrapper.orderBy(USER.ID.asc()).limit(batchSize);
+                    scanned = 0;
+                    nextId = lastId;
+                }
+                List<Long> targets = userMapper.selectListByQuery(queryWrapper).stream()
+                        .map(User::getId)
+                        .collect(Collectors.toList());
+                if (ids == null) {
+                    if (targets.isEmpty()) {
+                        return true;
+                    }
+                    scanned = targets.size();
+                    nextId = targets.get(targets.size() - 1);
+                }
+                if (!targets.isEmpty()) {
+                    BatchResult result = transactionTemplate.execute(status -> apply(targets));
+                    if (result != null && !result.getChanged().isEmpty()) {
+                        afterCommit(result);
+                        clearPending();
+                    }
+                }
+                lastId = nextId;
+                context.commit(String.valueOf(lastId), scanned);
+            }
+            return false;
+        }
+
+        /**
+         * 操作对象：满足筛选条件、当前状态需要变更，且不是管理员和操作人自己
+         */
+        private QueryCondition condition() {
+            String userName = request.getUserName();
+            String userProfile = request.getUserProfile();
+            String userRole = request.getUserRole();
+            QueryCondition condition = USER.USER_NAME.like(userName).when(StringUtils.isNotBlank(userName))
+                    .and(USER.USER_PROFILE.like(userProfile).when(StringUtils.isNotBlank(userProfile)))
+                    .and(USER.USER_ROLE.eq(userRole).when(StringUtils.isNotBlank(userRole)));
+            switch (action) {
+                case BAN:
+                    return condition.and(USER.USER_ROLE.notIn(UserConstant.ADMIN_ROLE, UserConstant.BAN_ROLE))
+                            .and(USER.ID.ne(operatorId));
+                case UNBAN:
+                    return condition.and(USER.USER_ROLE.eq(UserConstant.BAN_ROLE));
+                case DELETE:
+                default:
+                    return condition.and(USER.USER_ROLE.ne(UserConstant.ADMIN_ROLE))
+                            .and(USER.ID.ne(operatorId));
+            }
+        }
+
+        private List<Long> nextSlice(long lastId, int batchSize) {
+            List<Long> slice = new ArrayList<>(batchSize);
+            for (Long id : ids) {
+                if (id > lastId) {
+                    slice.add(id);
+                    if (slice.size() >= batchSize) {
+                        break;
+                    }
+                }
+            }
+            return slice;
+        }
+
+        /**
+         * 加锁读出仍满足条件的用户及其原角色（查询之后被改为管理员等情况不会被误操作），只变更这些行；
+         * 执行结果在同一事务中写入任务的 pending 字段，提交后、副作用完成前宕机时由恢复运行补做
+         *
+         * @return 实际变更的用户及原角色和影响行数
+         */
+        private BatchResult apply(List<Long> targets) {
+            List<User> changed = userMapper.selectListByQuery(QueryWrapper.create()
+                    .select(USER.ID, USER.USER_ROLE)
+                    .from(USER)
+                    .where(USER.ID.in(targets))
+                    .and(condition())
+                    .forUpdate());
+            BatchResult result = new BatchResult();
+            if (changed.isEmpty()) {
+                return result;
+            }
+            changed.forEach(user -> result.getChanged().put(user.getId(), user.getUserRole()));
+            QueryWrapper queryWrapper = QueryWrapper.create().where(USER.ID.in(result.getChanged().keySet()));
+            if (action == UserBulkActionEnum.DELETE) {
+                result.setAffectedRows(userMapper.deleteByQuery(queryWrapper));
+            } else {
+                User user = new User();
+                user.setUserRole(action == UserBulkActionEnum.BAN ? UserConstant.BAN_ROLE : UserConstant.DEFAULT_ROLE);
+                result.setAffectedRows(userMapper.updateByQuery(user, queryWrapper));
+            }
+            UserBulkJob pending = new UserBulkJob();
+            pending.setJobName(name);
+            pending.setPending(toJson(result));
+            userBulkJobMapper.update(pending);
+            return result;
+        }
+
+        /**
+         * 上次运行在事务提交后、副作用完成前中断时，先补做该批的副作用；变更过的用户不再满足条件，
+         * 从检查点重新扫描时不会再处理它们
+         */
+        private void replayPending() throws JsonProcessingException {
+            UserBulkJob userBulkJob = userBulkJobMapper.selectOneById(name);
+            if (userBulkJob == null || StringUtils.isBlank(userBulkJob.getPending())) {
+                return;
+            }
+            BatchResult pending = jacksonObjectMapper.readValue(userBulkJob.getPending(), BatchResult.class);
+            log.info("replay user bulk job side effects, name: {}, users: {}", name, pending.getChanged().size());
+            afterCommit(pending);
+            clearPending();
+        }
+
+        private void clearPending() {
+            UpdateChain.of(userBulkJobMapper)
+                    .set(USER_BULK_JOB.PENDING, null)
+                    .where(USER_BULK_JOB.JOB_NAME.eq(name))
+                    .update();
+        }
+
+        /**
+         * 缓存失效、会话吊销和安全事件，重复执行时只会多记录事件
+         */
+        private void afterCommit(BatchResult result) {
+            Map<Long, String> changed = result.getChanged();
+            if (changed.isEmpty()) {
+                return;
+            }
+            List<Long> changedIds = new ArrayList<>(changed.keySet());
+            userCache.invalidateAll(changedIds);
+            if (action == UserBulkActionEnum.UNBAN) {
+                sessionRevocationService.restore(changedIds);
+            } else {
+                sessionRevocationService.revoke(changedIds);
+            }
+            if (action == UserBulkActionEnum.BAN) {
+                eventCounter.add(EventMetricEnum.BAN, result.getAffectedRows());
+            }
+            String detail = "bulk job: " + name + ", operator: " + operatorId;
+            for (Map.Entry<Long, String> user : changed.entrySet()) {
+                switch (action) {
+                    case BAN:
+                        securityEventService.record(SecurityEventTypeEnum.ROLE_CHANGE, user.getKey(),
+                                user.getValue() + " -> " + UserConstant.BAN_ROLE + ", " + detail);
+                        break;
+                    case UNBAN:
+                        securityEventService.record(SecurityEventTypeEnum.ROLE_CHANGE, user.getKey(),
+                                user.getValue() + " -> " + UserConstant.DEFAULT_ROLE + ", " + detail);
+                        break;
+                    case DELETE:
+                    default:
+                        identityLinkService.onUserRemoved(user.getKey());
+                        securityEventService.record(SecurityEventTypeEnum.USER_DELETE, user.getKey(), detail);
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 一批的执行结果，以 JSON 保存在任务的 pending 字段
+     */
+    @Data
+    private static class BatchResult {
+
+        /**
+         * 实际变更的用户 id -> 原角色
+         */
+        private Map<Long, String> changed = new LinkedHashMap<>();
+
+        /**
+         * 影响行数
+         */
+        private int affectedRows;
+    }
+}
@@ -3,6 +3,7 @@ package team.weyoung.service.impl;
 import cn.dev33.satoken.stp.SaTokenInfo;
 import cn.dev33.satoken.stp.StpUtil;
 import com.github.xiaoymin.knife4j.core.util.CollectionUtils;
+import com.mybatisflex.core.paginate.Page;
 import com.mybatisflex.core.query.QueryWrapper;
 import com.mybatisflex.spring.service.impl.ServiceImpl;
 import lombok.extern.slf4j.Slf4j;
@@ -10,21 +11,48 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.util.DigestUtils;
+import team.weyoung.annotation.ReadOnly;
 import team.weyoung.common.HttpCodeEnum;
+import team.weyoung.config.UserCacheConfig;
 import team.weyoung.exception.BusinessException;
+import team.weyoung.manager.ActivityAnalytics;
+import team.weyoung.manager.EventCounter;
+import team.weyoung.manager.ReplicaRoutingContext;
+import team.weyoung.manager.TombstoneFilter;
+import team.weyoung.manager.UserBatchLoader;
+import team.weyoung.manager.UserCache;
+import team.weyoung.mapper.UserArchiveMapper;
 import team.weyoung.mapper.UserMapper;
 import team.weyoung.model.entity.User;
+import team.weyoung.model.enums.EventMetricEnum;
+import team.weyoung.model.enums.SecurityEventTypeEnum;
 import team.weyoung.model.enums.UserRoleEnum;
 import team.weyoung.model.vo.LoginUserVO;
 import team.weyoung.model.vo.UserVO;
+import team.weyoung.service.DeviceLoginService;
+import team.weyoung.service.IdentityLinkService;
+import team.weyoung.service.SecurityEventService;
+import team.weyoung.service.SessionRevocationService;
 import team.weyoung.service.UserService;
+import team.weyoung.utils.NetUtils;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
+import static team.weyoung.model.entity.table.UserArchiveTableDef.USER_ARCHIVE;
 import static team.weyoung.model.entity.table.UserTableDef.USER;
 
 
@@ -44,6 +72,39 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     @Resource
     private UserMapper userMapper;
 
+    @Resource
+    private UserCache userCache;
+
+    @Resource
+    private UserBatchLoader userBatchLoader;
+
+    @Resource
+    private UserCacheConfig userCacheConfig;
+
+    @Resource
+    private IdentityLinkService identityLinkService;
+
+    @Resource
+    private DeviceLoginService deviceLoginService;
+
+    @Resource
+    private SecurityEventService securityEventService;
+
+    @Resource
+    private SessionRevocationService sessionRevocationService;
+
+    @Resource
+    private UserArchiveMapper userArchiveMapper;
+
+    @Resource
+    private TombstoneFilter tombstoneFilter;
+
+    @Resource
+    private ActivityAnalytics activityAnalytics;
+
+    @Resource
+    private EventCounter eventCounter;
+
     @Override
     public long userRegister(String userAccount, String userPassword, String checkPassword) {
         // 1. 校验
@@ -67,6 +128,11 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             if (count > 0) {
                 throw new BusinessException(HttpCodeEnum.PARAMS_ERROR, "账号重复");
             }
+            // 已归档的账号不能重新注册，过滤器判定不存在时不查询归档表
+            if (tombstoneFilter.mightContain(userAccount) && userArchiveMapper.selectCountByQuery(
+                    QueryWrapper.create().from(USER_ARCHIVE).where(USER_ARCHIVE.USER_ACCOUNT.eq(userAccount))) > 0) {
+                throw new BusinessException(HttpCodeEnum.PARAMS_ERROR, "账号已注销，不能重新注册");
+            }
             // 2. 加密
             String encryptPassword = DigestUtils.md5DigestAsHex((SALT + userPassword).getBytes());
             // 3. 插入数据
@@ -78,12 +144,14 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             if (!saveResult) {
                 throw new BusinessException(HttpCodeEnum.SYSTEM_ERROR, "注册失败，数据库错误");
             }
+            identityLinkService.onUserChanged(user);
+            eventCounter.record(EventMetricEnum.REGISTER);
             return user.getId();
         }
     }
 
     @Override
-    public LoginUserVO userLogin(String userAccount, String userPassword, HttpServletRequest request) {
+    public LoginUserVO userLogin(String userAccount, String userPassword, String deviceId, HttpServletRequest request) {
         // 1. 校验
         if (StringUtils.isAnyBlank(userAccount, userPassword)) {
             throw new BusinessException(HttpCodeEnum.PARAMS_ERROR, "参数为空");
@@ -102,17 +170,47 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         // 用户不存在
         if (user == null) {
             log.info("user login failed, userAccount cannot match userPassword");
+            securityEventService.record(SecurityEventTypeEnum.LOGIN_FAILURE, null, "account: " + userAccount);
+            eventCounter.record(EventMetricEnum.LOGIN_FAILURE);
             throw new BusinessException(HttpCodeEnum.PARAMS_ERROR, "用户不存在或密码错误");
         }
+        if (UserRoleEnum.BAN.getValue().equals(user.getUserRole())) {
+            securityEventService.record(SecurityEventTypeEnum.LOGIN_FAILURE, user.getId(), "banned");
+            eventCounter.record(EventMetricEnum.LOGIN_FAILURE);
+            throw new BusinessException(HttpCodeEnum.FORBIDDEN_ERROR, "账号已被封禁");
+        }
+        try {
+            deviceLoginService.checkLogin(deviceId, user.getId());
+        } catch (BusinessException e) {
+            securityEventService.record(SecurityEventTypeEnum.LOGIN_FAILURE, user.getId(), "risky device: " + deviceId);
+            eventCounter.record(EventMetricEnum.LOGIN_FAILURE);
+            throw e;
+        }
         // 3. 记录用户的登录态
         StpUtil.login(user.getId());
-        StpUtil.getSession().set("user", user);
+        StpUtil.getSession().set("user", toSessionUser(user));
+        deviceLoginService.recordLogin(deviceId, user.getId(), request);
+        securityEventService.record(SecurityEventTypeEnum.LOGIN_SUCCESS, user.getId(), null);
+        activityAnalytics.recordLogin(user, NetUtils.getIpAddress(request));
         SaTokenInfo tokenInfo = StpUtil.getTokenInfo();
         LoginUserVO loginUserVO = this.getLoginUserVO(user);
         loginUserVO.setToken(tokenInfo);
         return loginUserVO;
     }
 
+    /**
+     * 会话中只保存鉴权需要的字段，不保存密码和个人信息
+     */
+    private User toSessionUser(User user) {
+        User sessionUser = new User();
+        sessionUser.setId(user.getId());
+        sessionUser.setUserAccount(user.getUserAccount());
+        sessionUser.setUserName(user.getUserName());
+        sessionUser.setUserAvatar(user.getUserAvatar());
+        sessionUser.setUserRole(user.getUserRole());
+        return sessionUser;
+    }
+
     /**
      * 获取当前登录用户
      */
@@ -123,6 +221,11 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         if (currentUser == null) {
             throw new BusinessException(HttpCodeEnum.NOT_LOGIN_ERROR);
         }
+        // 用户来自本地缓存，会话吊销未生效（如删除失败）时也不放行已封禁的账号
+        if (UserRoleEnum.BAN.getValue().equals(currentUser.getUserRole())) {
+            throw new BusinessException(HttpCodeEnum.FORBIDDEN_ERROR, "账号已被封禁");
+        }
+        activityAnalytics.recordActive(currentUser);
         return currentUser;
     }
 
@@ -135,9 +238,11 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         if (StpUtil.isLogin()) {
             long userId = StpUtil.getLoginIdAsLong();
             User currentUser = this.getById(userId);
-            if (currentUser == null || currentUser.getId() == null) {
+            if (currentUser == null || currentUser.getId() == null
+                    || UserRoleEnum.BAN.getValue().equals(currentUser.getUserRole())) {
                 return null;
             }
+            activityAnalytics.recordActive(currentUser);
             return currentUser;
         }
         return null;
@@ -163,7 +268,11 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
      */
     @Override
     public boolean userLogout(HttpServletRequest request) {
+        Object loginId = StpUtil.getLoginIdDefaultNull();
         StpUtil.logout();
+        if (loginId != null) {
+            securityEventService.record(SecurityEventTypeEnum.LOGOUT, Long.valueOf(loginId.toString()), null);
+        }
         return true;
     }
 
@@ -195,6 +304,117 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         return userList.stream().map(this::getUserVO).collect(Collectors.toList());
     }
 
+    /**
+     * 缓存未命中的用户走从库，其中有刚写过的用户时走主库
+     */
+    @Override
+    @ReadOnly
+    public List<UserVO> getUserVOs(Collection<Long> ids) {
+        if (CollectionUtils.isEmpty(ids)) {
+            return new ArrayList<>();
+        }
+        Set<Long> idSet = new LinkedHashSet<>(ids);
+        Map<Long, User> userMap = new HashMap<>(userCache.getAll(idSet));
+        List<Long> missIds = idSet.stream().filter(id -> !userMap.containsKey(id)).collect(Collectors.toList());
+        if (!missIds.isEmpty()) {
+            long loadGeneration = userCache.startLoad();
+            List<User> missUsers = userCache.isAnyRecentlyWritten(missIds)
+                    ? ReplicaRoutingContext.primary(() -> userMapper.selectListByIds(missIds))
+                    : userMapper.selectListByIds(missIds);
+            for (User user : missUsers) {
+                userCache.put(user, loadGeneration);
+                userMap.put(user.getId(), user);
+            }
+        }
+        List<UserVO> userVOList = new ArrayList<>(idSet.size());
+        for (Long id : idSet) {
+            User user = userMap.get(id);
+            if (user != null) {
+                userVOList.add(getUserVO(user));
+            }
+        }
+        return userVOList;
+    }
+
+    @Override
+    public User getCachedById(long id) {
+        return userCache.get(id);
+    }
+
+    /**
+     * 先查本地缓存，未命中时通过批量加载器与并发的其他查询合并为一次 IN 查询
+     */
+    @Override
+    public User getById(Serializable id) {
+        if (!(id instanceof Number)) {
+            return super.getById(id);
+        }
+        long userId = ((Number) id).longValue();
+        User user = userCache.get(userId);
+        if (user != null) {
+            return user;
+        }
+        long loadGeneration = userCache.startLoad();
+        try {
+            user = userBatchLoader.load(userId).get(userCacheConfig.getBatchTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("batch load user failed, fallback to direct query, userId: {}", userId, e);
+            user = userCache.isRecentlyWritten(userId) ? userMapper.selectOneById(userId)
+                    : ReplicaRoutingContext.readOnly(() -> userMapper.selectOneById(userId));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(HttpCodeEnum.SYSTEM_ERROR);
+        }
+        userCache.put(user, loadGeneration);
+        return user;
+    }
+
+    /**
+     * 分页列表走从库
+     */
+    @Override
+    @ReadOnly
+    public Page<User> page(Page<User> page, QueryWrapper query) {
+        return super.page(page, query);
+    }
+
+    @Override
+    public boolean updateById(User entity) {
+        // 角色变更需要记录原角色，只有更新角色时才查询
+        User oldUser = entity.getUserRole() == null || entity.getId() == null ? null : this.getById(entity.getId());
+        boolean result = super.updateById(entity);
+        userCache.invalidate(entity.getId());
+        if (result) {
+            identityLinkService.onUserChanged(entity);
+            if (oldUser != null && !entity.getUserRole().equals(oldUser.getUserRole())) {
+                securityEventService.record(SecurityEventTypeEnum.ROLE_CHANGE, entity.getId(),
+                        oldUser.getUserRole() + " -> " + entity.getUserRole());
+                // 封号立即让已登录的会话失效，解封后允许重新登录
+                if (UserRoleEnum.BAN.getValue().equals(entity.getUserRole())) {
+                    sessionRevocationService.revoke(Collections.singletonList(entity.getId()));
+                    eventCounter.record(EventMetricEnum.BAN);
+                } else if (UserRoleEnum.BAN.getValue().equals(oldUser.getUserRole())) {
+                    sessionRevocationService.restore(Collections.singletonList(entity.getId()));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        if (id instanceof Number) {
+            userCache.invalidate(((Number) id).longValue());
+            if (result) {
+                identityLinkService.onUserRemoved(((Number) id).longValue());
+                sessionRevocationService.revoke(Collections.singletonList(((Number) id).longValue()));
+                securityEventService.record(SecurityEventTypeEnum.USER_DELETE, ((Number) id).longValue(), null);
+            }
+        }
+        return result;
+    }
+
     @Override
     public boolean updatePassword(String oldPassword, String newPassword) {
         // 1. 校验
@@ -214,8 +434,14 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         if (!encryptOldPassword.equals(user.getUserPassword())) {
             throw new BusinessException(HttpCodeEnum.PARAMS_ERROR, "旧密码错误");
         }
-        // 5. 更新密码
-        user.setUserPassword(encryptNewPassword);
-        return this.updateById(user);
+        // 5. 更新密码（user 可能是缓存中的共享实例，不能直接修改）
+        User updateUser = new User();
+        updateUser.setId(userId);
+        updateUser.setUserPassword(encryptNewPassword);
+        boolean result = this.updateById(updateUser);
+        if (result) {
+            securityEventService.record(SecurityEventTypeEnum.PASSWORD_CHANGE, userId, null);
+        }
+        return result;
     }
 }
@@ -0,0 +1,60 @@
+package team.weyoung.utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 并查集（不可删除，非线程安全）
+ * <p>
+ * 每个元素直接指向所在集合，合并时把小集合的元素并入大集合，查询所在集合为 O(1)，
+ * 每个元素最多被移动 log2(n) 次
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class DisjointSet {
+
+    private final Map<Long, Set<Long>> groups = new HashMap<>();
+
+    /**
+     * 合并两个元素所在的集合，元素不存在时自动加入
+     */
+    public void union(long a, long b) {
+        Set<Long> groupA = groupOf(a);
+        Set<Long> groupB = groupOf(b);
+        if (groupA == groupB) {
+            return;
+        }
+        Set<Long> large = groupA.size() >= groupB.size() ? groupA : groupB;
+        Set<Long> small = large == groupA ? groupB : groupA;
+        large.addAll(small);
+        for (Long member : small) {
+            groups.put(member, large);
+        }
+    }
+
+    /**
+     * 元素所在集合（含自身），元素不存在时返回空集合
+     */
+    public Set<Long> members(long element) {
+        Set<Long> group = groups.get(element);
+        return group == null ? Collections.emptySet() : Collections.unmodifiableSet(group);
+    }
+
+    /**
+     * 元素个数
+     */
+    public int size() {
+        return groups.size();
+    }
+
+    private Set<Long> groupOf(long element) {
+        return groups.computeIfAbsent(element, key -> {
+            Set<Long> group = new HashSet<>();
+            group.add(key);
+            return group;
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package team.weyoung.utils;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 身份标识归一化
+ * <p>
+ * 同一个人换写法注册的手机号、邮箱归一化后相同，用于关联账号检测。
+ * 脱敏后的值（含 *）无法还原，返回 null
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class IdentityNormalizer {
+
+    private static final String MASK_CHAR = "*";
+
+    /**
+     * 中国大陆国家码
+     */
+    private static final String CN_COUNTRY_CODE = "86";
+
+    private static final int CN_MOBILE_LENGTH = 11;
+
+    /**
+     * 去掉国家码后仍过短的号码不参与关联，避免 0、110 之类的占位值把大量账号连在一起
+     */
+    private static final int MIN_PHONE_LENGTH = 6;
+
+    /**
+     * 忽略本地部分中点号的邮箱服务商（其他服务商的点号有意义，不能去掉）
+     */
+    private static final String DOT_INSENSITIVE_DOMAIN = "gmail.com";
+
+    private static final Map<String, String> DOMAIN_ALIASES = new HashMap<>();
+
+    static {
+        DOMAIN_ALIASES.put("googlemail.com", "gmail.com");
+        DOMAIN_ALIASES.put("vip.qq.com", "qq.com");
+        DOMAIN_ALIASES.put("foxmail.com", "qq.com");
+    }
+
+    /**
+     * 手机号归一化：只保留数字，去掉 00 国际前缀和大陆手机号的 86 国家码
+     *
+     * @return 无法归一化时返回 null
+     */
+    public static String normalizePhone(String phone) {
+        if (StringUtils.isBlank(phone) || phone.contains(MASK_CHAR)) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        String result = digits.toString();
+        if (result.startsWith("00")) {
+            result = result.substring(2);
+        }
+        if (result.length() == CN_MOBILE_LENGTH + CN_COUNTRY_CODE.length() && result.startsWith(CN_COUNTRY_CODE + "1")) {
+            result = result.substring(CN_COUNTRY_CODE.length());
+        }
+        return result.length() < MIN_PHONE_LENGTH ? null : result;
+    }
+
+    /**
+     * 邮箱归一化：转小写、去掉 + 后的标签、合并域名别名，gmail 去掉本地部分的点号
+     *
+     * @return 无法归一化时返回 null
+     */
+    public static String normalizeEmail(String email) {
+        if (StringUtils.isBlank(email) || email.contains(MASK_CHAR)) {
+            return null;
+        }
+        String value = email.trim().toLowerCase(Locale.ROOT);
+        int at = value.lastIndexOf('@');
+        if (at <= 0 || at == value.length() - 1) {
+            return null;
+        }
+        String local = value.substring(0, at);
+        String domain = value.substring(at + 1);
+        domain = DOMAIN_ALIASES.getOrDefault(domain, domain);
+        int plus = local.indexOf('+');
+        if (plus >= 0) {
+            local = local.substring(0, plus);
+        }
+        if (DOT_INSENSITIVE_DOMAIN.equals(domain)) {
+            local = local.replace(".", "");
+        }
+        return local.isEmpty() ? null : local + "@" + domain;
+    }
+
+    /**
+     * 账号可能直接使用手机号或邮箱注册，按形态归一化
+     *
+     * @return 既不像手机号也不像邮箱时返回 null
+     */
+    public static String normalizeAccount(String account) {
+        if (StringUtils.isBlank(account)) {
+            return null;
+        }
+        if (account.indexOf('@') > 0) {
+            return normalizeEmail(account);
+        }
+        String trimmed = account.trim();
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (!(c >= '0' && c <= '9') && c != '+' && c != '-' && c != ' ') {
+                return null;
+            }
+        }
+        return normalizePhone(trimmed);
+    }
+}
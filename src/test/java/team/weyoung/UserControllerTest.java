@@ -1,8 +1,319 @@
 package team.weyoung;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mybatisflex.core.audit.AuditManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import team.weyoung.constant.UserConstant;
+import team.weyoung.model.entity.User;
+import team.weyoung.service.UserService;
+import team.weyoung.support.EmbeddedRedisServer;
+import team.weyoung.support.LoadTestEnvironment;
 
-@SpringBootTest
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 用户接口性能预算：在进程内（内存 H2 + embedded-redis）以固定的小负载逐个请求接口，断言每次请求的 SQL 条数、
+ * Redis 命令数和平均分配字节数；指定 -Dperf.latency=true 时还断言 p95 延迟不超过基线的 perf.tolerance 倍（默认 3 倍）
+ * <p>
+ * SQL 条数和 Redis 命令数取测量期间单次请求的最大值，多出一次查询（N+1、重复查询用户）即会失败；
+ * 异步批量写入线程（名称以 -writer 结尾）的 SQL 已被摊薄，不计入。分配字节数测不出（JVM 不支持线程分配统计）时直接失败。
+ * 延迟基线见 perf/user-controller-baseline.properties，是在基准机器上测得的绝对值，机器繁忙时会超出，
+ * 因此默认只记录不断言；在基准机器上开启时缺少基线直接失败。
+ * 每次运行的实测值写入 target/perf/user-controller.properties，可在基准机器上复制为新的基线
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@SpringBootTest(properties = {
+        // 排除后台线程访问 Redis 的干扰：固定 workerId 不续租，配额计数、活跃统计、事件汇总和批量任务恢复不在测量期间运行
+        "id-generator.worker-id=1",
+        "quota.flush-interval-millis=3600000",
+        "analytics.flush-interval-millis=3600000",
+        "event-rollup.flush-interval-millis=3600000",
+        "user.bulk.resume-interval-millis=3600000",
+        // 测量期间用户缓存不过期，读接口的 SQL 预算才是确定的
+        "user.cache.expire-seconds=3600"
+})
+@ActiveProfiles(LoadTestEnvironment.PROFILE)
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class UserControllerTest {
 
+    private static final String TOKEN_HEADER = "satoken";
+
+    private static final String PASSWORD = "perf-test-password";
+
+    private static final int USER_COUNT = 20;
+
+    private static final int WARMUP_ITERATIONS = 50;
+
+    private static final int MEASURE_ITERATIONS = 200;
+
+    private static final String BASELINE_RESOURCE = "/perf/user-controller-baseline.properties";
+
+    private static final Path MEASURED_FILE = Paths.get("target", "perf", "user-controller.properties");
+
+    private static final String WRITER_THREAD_SUFFIX = "-writer";
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final EmbeddedRedisServer REDIS_SERVER;
+
+    static {
+        try {
+            REDIS_SERVER = EmbeddedRedisServer.start(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final AtomicLong sqlCount = new AtomicLong();
+
+    private final Properties baseline = new Properties();
+
+    private final Properties measured = new Properties();
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    private boolean latencyChecked;
+
+    private double tolerance;
+
+    private String userToken;
+
+    private String adminToken;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.redis.port", REDIS_SERVER::getPort);
+    }
+
+    @BeforeAll
+    void setUp() throws Exception {
+        latencyChecked = Boolean.parseBoolean(System.getProperty("perf.latency", "false"));
+        tolerance = Double.parseDouble(System.getProperty("perf.tolerance", "3"));
+        try (InputStream in = getClass().getResourceAsStream(BASELINE_RESOURCE)) {
+            assertNotNull(in, BASELINE_RESOURCE + " not found");
+            baseline.load(in);
+        }
+        for (int i = 0; i < USER_COUNT; i++) {
+            String account = "perf" + i;
+            JsonNode data = call(post("/user/register").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"userAccount\":\"" + account + "\",\"userPassword\":\"" + PASSWORD
+                            + "\",\"checkPassword\":\"" + PASSWORD + "\"}"));
+            userIds.add(data.asLong());
+        }
+        User admin = new User();
+        admin.setId(userIds.get(1));
+        admin.setUserRole(UserConstant.ADMIN_ROLE);
+        assertTrue(userService.updateById(admin));
+        userToken = login("perf0");
+        adminToken = login("perf1");
+        // 应用启动时注册了打印 SQL 的收集器，这里替换为计数收集器
+        AuditManager.setMessageCollector(auditMessage -> {
+            if (!Thread.currentThread().getName().endsWith(WRITER_THREAD_SUFFIX)) {
+                sqlCount.incrementAndGet();
+            }
+        });
+    }
+
+    @AfterAll
+    void writeMeasured() throws IOException {
+        Files.createDirectories(MEASURED_FILE.getParent());
+        try (OutputStream out = Files.newOutputStream(MEASURED_FILE)) {
+            measured.store(out, "UserControllerTest measured values, p95 in microseconds");
+        }
+    }
+
+    @Test
+    void userLogin() throws Exception {
+        // Sa-Token 登录本身的命令：创建会话、加入 token、写入 user 各一次 GET/SETEX，其中修改已有会话的两次
+        // 发布近端缓存失效（新 key 只失效本节点），更新会话前读 TTL，以及 getTokenInfo 读取 token、会话、
+        // 活跃时间的剩余有效期；另有设备登录同步到其他节点的一次发布，共 15 条
+        assertBudget("login", 1, 15, 1024 * 1024, i -> post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userAccount\":\"perf2\",\"userPassword\":\"" + PASSWORD + "\",\"deviceId\":\"perf-device\"}"));
+    }
+
+    @Test
+    void getLoginUser() throws Exception {
+        assertBudget("get-login", 0, 1, 256 * 1024, i -> get("/user/get/login").header(TOKEN_HEADER, userToken));
+    }
+
+    @Test
+    void getMyUser() throws Exception {
+        assertBudget("get-my", 0, 1, 256 * 1024, i -> get("/user/get/my").header(TOKEN_HEADER, userToken));
+    }
+
+    @Test
+    void getUserVOById() throws Exception {
+        assertBudget("get-vo", 0, 0, 256 * 1024, i -> get("/user/get/vo").param("id", String.valueOf(userIds.get(3))));
+    }
+
+    @Test
+    void getUserVOByIds() throws Exception {
+        String ids = userIds.subList(3, 8).stream().map(String::valueOf).collect(Collectors.joining(","));
+        assertBudget("get-vo-batch", 0, 1, 512 * 1024,
+                i -> get("/user/get/vo/batch").param("ids", ids).header(TOKEN_HEADER, userToken));
+    }
+
+    @Test
+    void listUserVOByPage() throws Exception {
+        // 分页查询固定为 COUNT + SELECT，逐条补查关联数据会超出预算
+        assertBudget("list-page-vo", 2, 1, 1024 * 1024, i -> post("/user/list/page/vo")
+                .contentType(MediaType.APPLICATION_JSON).header(TOKEN_HEADER, userToken)
+                .content("{\"pageNumber\":" + (1 + i % 2) + ",\"pageSize\":10}"));
+    }
+
+    @Test
+    void updateMyUser() throws Exception {
+        // 更新后缓存失效，下一次请求取登录用户回源一次，加上 UPDATE 共两条；Redis 为读 token 和失效广播
+        assertBudget("update-my", 2, 2, 512 * 1024, i -> post("/user/update/my")
+                .contentType(MediaType.APPLICATION_JSON).header(TOKEN_HEADER, userToken)
+                .content("{\"userProfile\":\"profile " + i + "\"}"));
+    }
+
+    @Test
+    void getUserById() throws Exception {
+        assertBudget("get", 0, 1, 256 * 1024,
+                i -> get("/user/get").param("id", String.valueOf(userIds.get(3))).header(TOKEN_HEADER, adminToken));
+    }
+
+    @Test
+    void listUserByPage() throws Exception {
+        assertBudget("list-page", 2, 1, 1024 * 1024, i -> post("/user/list/page")
+                .contentType(MediaType.APPLICATION_JSON).header(TOKEN_HEADER, adminToken)
+                .content("{\"pageNumber\":" + (1 + i % 2) + ",\"pageSize\":10}"));
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+
+        MockHttpServletRequestBuilder create(int iteration);
+    }
+
+    /**
+     * 预热后逐个发送请求并统计，单次请求的 SQL / Redis 取最大值，分配字节数取平均值
+     */
+    private void assertBudget(String name, int maxSql, int maxRedis, long maxAllocatedBytes,
+                              RequestFactory requestFactory) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            call(requestFactory.create(i));
+        }
+        long[] latencies = new long[MEASURE_ITERATIONS];
+        long sqlMax = 0;
+        long redisMax = 0;
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            MockHttpServletRequestBuilder request = requestFactory.create(WARMUP_ITERATIONS + i);
+            long sqlBefore = sqlCount.get();
+            long redisBefore = REDIS_SERVER.getCommandCount();
+            long start = System.nanoTime();
+            call(request);
+            latencies[i] = System.nanoTime() - start;
+            sqlMax = Math.max(sqlMax, sqlCount.get() - sqlBefore);
+            redisMax = Math.max(redisMax, REDIS_SERVER.getCommandCount() - redisBefore);
+        }
+        long allocatedPerRequest = (allocatedBytes() - allocatedBefore) / MEASURE_ITERATIONS;
+        Arrays.sort(latencies);
+        long p95Micros = latencies[(int) Math.ceil(MEASURE_ITERATIONS * 0.95) - 1] / 1000;
+
+        measured.setProperty(name + ".sql", String.valueOf(sqlMax));
+        measured.setProperty(name + ".redis", String.valueOf(redisMax));
+        measured.setProperty(name + ".allocated-bytes", String.valueOf(allocatedPerRequest));
+        measured.setProperty(name + ".p95-micros", String.valueOf(p95Micros));
+
+        assertTrue(sqlMax <= maxSql, name + ": " + sqlMax + " SQL statements per request, budget " + maxSql);
+        assertTrue(redisMax <= maxRedis, name + ": " + redisMax + " redis commands per request, budget " + maxRedis);
+        assertTrue(allocatedPerRequest > 0, name + ": allocated bytes not measured (" + allocatedPerRequest + ")");
+        assertTrue(allocatedPerRequest <= maxAllocatedBytes,
+                name + ": " + allocatedPerRequest + " bytes allocated per request, budget " + maxAllocatedBytes);
+        if (!latencyChecked) {
+            return;
+        }
+        String baselineP95 = baseline.getProperty(name + ".p95-micros");
+        assertNotNull(baselineP95, name + ": no p95 baseline in " + BASELINE_RESOURCE);
+        long limit = (long) (Long.parseLong(baselineP95.trim()) * tolerance);
+        assertTrue(p95Micros <= limit, name + ": p95 " + p95Micros + "us, baseline " + baselineP95.trim()
+                + "us x " + tolerance);
+    }
+
+    /**
+     * 发送请求（异步接口等待结果后再分派），断言业务成功并返回 data
+     */
+    private JsonNode call(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertEquals(200, result.getResponse().getStatus(), body);
+        JsonNode root = objectMapper.readTree(body);
+        assertEquals(0, root.path("code").asInt(-1), body);
+        return root.path("data");
+    }
+
+    private String login(String account) throws Exception {
+        JsonNode data = call(post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userAccount\":\"" + account + "\",\"userPassword\":\"" + PASSWORD + "\"}"));
+        return data.path("token").path("tokenValue").asText();
+    }
+
+    /**
+     * 所有线程累计分配的字节数，包含执行器和批量查询线程
+     */
+    private static long allocatedBytes() {
+        assertTrue(THREAD_MX_BEAN.isThreadAllocatedMemorySupported() && THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled(),
+                "thread allocated memory measurement is not supported by this JVM");
+        long total = 0;
+        for (long bytes : THREAD_MX_BEAN.getThreadAllocatedBytes(THREAD_MX_BEAN.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
 }
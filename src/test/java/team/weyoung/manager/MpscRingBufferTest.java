@@ -0,0 +1,125 @@
+package team.weyoung.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 环形缓冲区：槽位回绕、满时丢弃、多生产者单消费者下不丢不重
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+class MpscRingBufferTest {
+
+    @Test
+    void capacityRoundsUpToPowerOfTwo() {
+        assertEquals(8, new MpscRingBuffer<Integer>(5).capacity());
+        assertEquals(8, new MpscRingBuffer<Integer>(8).capacity());
+    }
+
+    @Test
+    void wrapAroundKeepsOrder() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+        int next = 0;
+        // 每轮写入 3 个、取出 3 个，序号多次越过容量后仍按写入顺序取出
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(buffer.offer(next++));
+            }
+            assertEquals(3, buffer.drainTo(drained, Integer.MAX_VALUE));
+            assertEquals(0, buffer.size());
+        }
+        for (int i = 0; i < next; i++) {
+            assertEquals(i, drained.get(i));
+        }
+    }
+
+    @Test
+    void dropsWhenFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        // 取出一部分后腾出的槽位可以再次写入
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, buffer.drainTo(drained, 2));
+        assertTrue(buffer.offer(5));
+        assertTrue(buffer.offer(6));
+        assertFalse(buffer.offer(7));
+        assertEquals(4, buffer.drainTo(drained, Integer.MAX_VALUE));
+        assertEquals(Arrays.asList(0, 1, 2, 3, 5, 6), drained);
+    }
+
+    @Test
+    void concurrentProducersSingleConsumer() throws Exception {
+        int producers = 4;
+        int perProducer = 100_000;
+        MpscRingBuffer<Long> buffer = new MpscRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long base = (long) p * perProducer;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (long i = 0; i < perProducer; i++) {
+                        // 满时重试，保证每个元素最终都写入
+                        while (!buffer.offer(base + i)) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            long[] lastSeen = new long[producers];
+            Arrays.fill(lastSeen, -1);
+            boolean[] seen = new boolean[producers * perProducer];
+            List<Long> batch = new ArrayList<>();
+            int received = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (received < producers * perProducer) {
+                assertTrue(System.nanoTime() < deadline, "timed out, received " + received);
+                batch.clear();
+                if (buffer.drainTo(batch, 256) == 0) {
+                    Thread.yield();
+                    continue;
+                }
+                for (long value : batch) {
+                    int index = (int) value;
+                    assertFalse(seen[index], "duplicate " + value);
+                    seen[index] = true;
+                    // 同一生产者的元素按写入顺序取出
+                    int producer = index / perProducer;
+                    assertTrue(value > lastSeen[producer], "out of order " + value);
+                    lastSeen[producer] = value;
+                }
+                received += batch.size();
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(0, buffer.size());
+            assertEquals(0, buffer.drainTo(batch, Integer.MAX_VALUE));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package team.weyoung.manager;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import team.weyoung.mapper.UserMapper;
+import team.weyoung.model.entity.User;
+import team.weyoung.model.vo.UserVO;
+import team.weyoung.service.UserService;
+import team.weyoung.support.EmbeddedRedisServer;
+import team.weyoung.support.LoadTestEnvironment;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 读写分离路由：主库、从库为两个内存 H2，同一 id 的用户在两边昵称不同，由读到的昵称判断查询落在哪个库
+ * <p>
+ * 只读方法、只读事务走从库；刚写过的用户、读写事务、未标记只读的查询走主库
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+@SpringBootTest(properties = {
+        "id-generator.worker-id=1",
+        "user.bulk.resume-interval-millis=3600000"
+})
+@ActiveProfiles(LoadTestEnvironment.PROFILE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaRoutingDataSourceTest {
+
+    private static final String H2_OPTIONS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;"
+            + "NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;INIT=RUNSCRIPT FROM 'classpath:db/schema-h2.sql'";
+
+    /**
+     * 与 UserControllerTest 使用的库分开，避免共用同一个内存库
+     */
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary" + H2_OPTIONS;
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing_replica" + H2_OPTIONS;
+
+    private static final String PRIMARY_NAME = "on-primary";
+
+    private static final String REPLICA_NAME = "on-replica";
+
+    private static final long FIRST_ID = 7_000_001L;
+
+    private static final int USER_COUNT = 6;
+
+    private static final EmbeddedRedisServer REDIS_SERVER;
+
+    static {
+        try {
+            REDIS_SERVER = EmbeddedRedisServer.start(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.redis.port", REDIS_SERVER::getPort);
+        registry.add("spring.datasource.url", () -> PRIMARY_URL);
+        registry.add("spring.datasource.replica.jdbc-url", () -> REPLICA_URL);
+        registry.add("spring.datasource.replica.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.replica.username", () -> "sa");
+        registry.add("spring.datasource.replica.pool-name", () -> "ReplicaHikariCP");
+    }
+
+    @BeforeAll
+    void setUp() throws SQLException {
+        routingDataSource = assertInstanceOf(ReplicaRoutingDataSource.class,
+                assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource).getTargetDataSource());
+        // 直接写入两个库，不经过应用，用户缓存中没有这些用户
+        insertUsers(PRIMARY_URL, PRIMARY_NAME);
+        insertUsers(REPLICA_URL, REPLICA_NAME);
+    }
+
+    @Test
+    void readOnlyMethodUsesReplica() {
+        long replicaCount = routingDataSource.getReplicaCount();
+        assertEquals(REPLICA_NAME, loadVO(FIRST_ID));
+        assertTrue(routingDataSource.getReplicaCount() > replicaCount);
+    }
+
+    @Test
+    void recentlyWrittenUserUsesPrimary() {
+        long id = FIRST_ID + 1;
+        User user = new User();
+        user.setId(id);
+        user.setUserProfile("updated");
+        assertTrue(userService.updateById(user));
+        // 读己之写窗口内即使在只读方法中也读主库
+        assertEquals(PRIMARY_NAME, loadVO(id));
+        // 窗口外的其他用户仍走从库
+        assertEquals(REPLICA_NAME, loadVO(FIRST_ID + 2));
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        long primaryCount = routingDataSource.getPrimaryCount();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        String userName = transactionTemplate.execute(status -> loadVO(FIRST_ID + 3));
+        assertEquals(PRIMARY_NAME, userName);
+        assertTrue(routingDataSource.getPrimaryCount() > primaryCount);
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        String userName = transactionTemplate.execute(status -> userMapper.selectOneById(FIRST_ID + 4).getUserName());
+        assertEquals(REPLICA_NAME, userName);
+    }
+
+    @Test
+    void unmarkedQueryUsesPrimary() {
+        assertEquals(PRIMARY_NAME, userMapper.selectOneById(FIRST_ID + 5).getUserName());
+        // 强制主库的优先级高于只读标记
+        assertEquals(PRIMARY_NAME, ReplicaRoutingContext.readOnly(() -> ReplicaRoutingContext.primary(
+                () -> userMapper.selectOneById(FIRST_ID + 5).getUserName())));
+        assertEquals(REPLICA_NAME, ReplicaRoutingContext.readOnly(() -> userMapper.selectOneById(FIRST_ID + 5).getUserName()));
+    }
+
+    private String loadVO(long id) {
+        List<UserVO> userVOs = userService.getUserVOs(Collections.singletonList(id));
+        assertEquals(1, userVOs.size());
+        return userVOs.get(0).getUserName();
+    }
+
+    private static void insertUsers(String url, String userName) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO `user` (`id`, `user_account`, `user_name`) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < USER_COUNT; i++) {
+                statement.setLong(1, FIRST_ID + i);
+                statement.setString(2, "routing" + i);
+                statement.setString(3, userName);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+}
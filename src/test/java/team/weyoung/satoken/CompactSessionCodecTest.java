@@ -0,0 +1,115 @@
+package team.weyoung.satoken;
+
+import cn.dev33.satoken.session.SaSession;
+import cn.dev33.satoken.session.TokenSign;
+import org.junit.jupiter.api.Test;
+import team.weyoung.model.entity.User;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 紧凑会话编解码：新格式往返、升级前 JSON 的兼容读取
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+class CompactSessionCodecTest {
+
+    private final CompactSessionCodec codec = new CompactSessionCodec();
+
+    @Test
+    void roundTripSession() {
+        SaSession session = new SaSession("satoken:login:session:10001");
+        session.setLoginId(10001L);
+        session.addTokenSign("token-a", "pc");
+        session.addTokenSign("token-b", "app");
+        session.set("user", user(10001L));
+
+        byte[] bytes = codec.encode(session);
+        assertEquals(CompactSessionCodec.MAGIC, bytes[0]);
+        assertEquals(CompactSessionCodec.VERSION, bytes[1]);
+
+        SaSession decoded = assertInstanceOf(SaSession.class, codec.decode(bytes));
+        assertEquals(session.getId(), decoded.getId());
+        assertEquals(10001L, decoded.getLoginId());
+        List<TokenSign> tokenSigns = decoded.getTokenSignList();
+        assertEquals(2, tokenSigns.size());
+        assertEquals("token-a", tokenSigns.get(0).getValue());
+        assertEquals("pc", tokenSigns.get(0).getDevice());
+        assertEquals("token-b", tokenSigns.get(1).getValue());
+        User decodedUser = assertInstanceOf(User.class, decoded.get("user"));
+        assertEquals(10001L, decodedUser.getId());
+        assertEquals("account10001", decodedUser.getUserAccount());
+        assertEquals("user", decodedUser.getUserRole());
+        assertNull(decodedUser.getUserProfile());
+    }
+
+    @Test
+    void roundTripRepeatedStrings() {
+        // 多个 token 共用相同设备名，触发 Smile 的字符串回引用
+        SaSession session = new SaSession("satoken:login:session:10002");
+        for (int i = 0; i < 20; i++) {
+            session.addTokenSign("token-" + i, "default-device");
+        }
+        SaSession decoded = assertInstanceOf(SaSession.class, codec.decode(codec.encode(session)));
+        assertEquals(20, decoded.getTokenSignList().size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("token-" + i, decoded.getTokenSignList().get(i).getValue());
+            assertEquals("default-device", decoded.getTokenSignList().get(i).getDevice());
+        }
+    }
+
+    @Test
+    void decodeLegacyJson() {
+        String json = "{\"@class\":\"cn.dev33.satoken.session.SaSession\","
+                + "\"id\":\"satoken:login:session:10003\",\"type\":\"Account-Session\",\"loginType\":\"login\","
+                + "\"loginId\":[\"java.lang.Long\",10003],\"token\":null,\"createTime\":1700000000000,"
+                + "\"dataMap\":{\"@class\":\"java.util.concurrent.ConcurrentHashMap\","
+                + "\"user\":{\"@class\":\"team.weyoung.model.entity.User\",\"id\":10003,"
+                + "\"userAccount\":\"account10003\",\"userPassword\":\"5f4dcc3b5aa765d61d8327deb882cf99\","
+                + "\"userRole\":\"admin\"}},"
+                + "\"tokenSignList\":[\"java.util.Vector\",[{\"@class\":\"cn.dev33.satoken.session.TokenSign\","
+                + "\"value\":\"legacy-token\",\"device\":\"default-device\",\"tag\":null}]]}";
+
+        SaSession decoded = assertInstanceOf(SaSession.class, codec.decode(json.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("satoken:login:session:10003", decoded.getId());
+        assertEquals(10003L, decoded.getLoginId());
+        assertEquals("legacy-token", decoded.getTokenSignList().get(0).getValue());
+        User decodedUser = assertInstanceOf(User.class, decoded.get("user"));
+        assertEquals("account10003", decodedUser.getUserAccount());
+        assertEquals("admin", decodedUser.getUserRole());
+    }
+
+    @Test
+    void decodeLegacyCodecOutput() {
+        SaSession session = new SaSession("satoken:login:session:10004");
+        session.addTokenSign("token-c", "pc");
+        session.set("user", user(10004L));
+        byte[] legacy = new JacksonSessionCodec().encode(session);
+
+        SaSession decoded = assertInstanceOf(SaSession.class, codec.decode(legacy));
+        assertEquals("token-c", decoded.getTokenSignList().get(0).getValue());
+        assertEquals(10004L, ((User) decoded.get("user")).getId());
+    }
+
+    @Test
+    void rejectUnknownVersion() {
+        byte[] bytes = codec.encode(new SaSession("satoken:login:session:10005"));
+        bytes[1] = (byte) (CompactSessionCodec.VERSION + 1);
+        assertThrows(IllegalStateException.class, () -> codec.decode(bytes));
+    }
+
+    private static User user(long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setUserAccount("account" + userId);
+        user.setUserName("用户" + userId);
+        user.setUserRole("user");
+        return user;
+    }
+}
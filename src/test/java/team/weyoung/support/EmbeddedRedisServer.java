@@ -0,0 +1,123 @@
+package team.weyoung.support;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import redis.embedded.RedisServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 进程内 Redis，由 embedded-redis 启动随包附带的 redis-server 子进程，只监听 127.0.0.1、不持久化，
+ * 供压测和接口测试在没有安装 Redis 的机器上启动应用；命令语义、Lua 和 HyperLogLog 与线上一致
+ * <p>
+ * 命令计数取自 INFO commandstats，不含统计自身使用的 INFO / CONFIG 命令
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public class EmbeddedRedisServer implements Closeable {
+
+    private static final String HOST = "127.0.0.1";
+
+    private static final String CALLS_PREFIX = "calls=";
+
+    private final RedisServer redisServer;
+
+    private final int port;
+
+    private final RedisClient adminClient;
+
+    private final StatefulRedisConnection<String, String> adminConnection;
+
+    private EmbeddedRedisServer(RedisServer redisServer, int port) {
+        this.redisServer = redisServer;
+        this.port = port;
+        this.adminClient = RedisClient.create(RedisURI.create(HOST, port));
+        this.adminConnection = adminClient.connect();
+    }
+
+    /**
+     * 启动，port 为 0 时使用随机端口
+     */
+    public static EmbeddedRedisServer start(int port) throws IOException {
+        int actualPort = port != 0 ? port : freePort();
+        RedisServer redisServer = RedisServer.newRedisServer()
+                .port(actualPort)
+                .bind(HOST)
+                .setting("save \"\"")
+                .setting("appendonly no")
+                .build();
+        redisServer.start();
+        try {
+            return new EmbeddedRedisServer(redisServer, actualPort);
+        } catch (RuntimeException e) {
+            redisServer.stop();
+            throw e;
+        }
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * 上次重置以来各命令的执行次数，命令名为大写
+     */
+    public Map<String, Long> getCommandCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (String line : admin().info("commandstats").split("\r?\n")) {
+            // cmdstat_get:calls=3,usec=12,...
+            int nameEnd = line.indexOf(':');
+            int callsStart = line.indexOf(CALLS_PREFIX);
+            if (!line.startsWith("cmdstat_") || nameEnd < 0 || callsStart < 0) {
+                continue;
+            }
+            String name = line.substring("cmdstat_".length(), nameEnd).toUpperCase();
+            if ("INFO".equals(name) || name.startsWith("CONFIG")) {
+                continue;
+            }
+            int callsEnd = line.indexOf(',', callsStart);
+            counts.put(name, Long.parseLong(line.substring(callsStart + CALLS_PREFIX.length(),
+                    callsEnd < 0 ? line.length() : callsEnd)));
+        }
+        return counts;
+    }
+
+    public long getCommandCount() {
+        return getCommandCounts().values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public void resetCommandCounts() {
+        admin().configResetstat();
+    }
+
+    public void flushAll() {
+        admin().flushall();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            adminConnection.close();
+            adminClient.shutdown();
+        } finally {
+            redisServer.stop();
+        }
+    }
+
+    private RedisCommands<String, String> admin() {
+        return adminConnection.sync();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getByName(HOST))) {
+            return socket.getLocalPort();
+        }
+    }
+}
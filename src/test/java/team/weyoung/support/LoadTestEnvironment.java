@@ -0,0 +1,69 @@
+package team.weyoung.support;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import team.weyoung.MainApplication;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 单机压测环境：先启动进程内 Redis（embedded-redis），再以 loadtest 配置（内存 H2）在随机端口启动应用
+ *
+ * @author <a href="https://github.com/Tunan81">图南</a>
+ */
+public final class LoadTestEnvironment implements Closeable {
+
+    public static final String PROFILE = "loadtest";
+
+    private final EmbeddedRedisServer redisServer;
+
+    private final ConfigurableApplicationContext context;
+
+    private LoadTestEnvironment(EmbeddedRedisServer redisServer, ConfigurableApplicationContext context) {
+        this.redisServer = redisServer;
+        this.context = context;
+    }
+
+    /**
+     * @param args 额外的启动参数，如 --async-request.mode=async
+     */
+    public static LoadTestEnvironment start(String... args) throws IOException {
+        EmbeddedRedisServer redisServer = EmbeddedRedisServer.start(0);
+        List<String> appArgs = new ArrayList<>();
+        appArgs.add("--spring.profiles.active=" + PROFILE);
+        appArgs.add("--spring.redis.port=" + redisServer.getPort());
+        appArgs.addAll(Arrays.asList(args));
+        try {
+            ConfigurableApplicationContext context = SpringApplication.run(MainApplication.class, appArgs.toArray(new String[0]));
+            return new LoadTestEnvironment(redisServer, context);
+        } catch (RuntimeException e) {
+            redisServer.close();
+            throw e;
+        }
+    }
+
+    public String getBaseUrl() {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+        return "http://127.0.0.1:" + port + contextPath;
+    }
+
+    public EmbeddedRedisServer getRedisServer() {
+        return redisServer;
+    }
+
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        redisServer.close();
+    }
+}